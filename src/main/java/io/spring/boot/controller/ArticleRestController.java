@@ -3,38 +3,63 @@
  */
 package io.spring.boot.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 import io.spring.boot.controller.wrappers.MultipleArticlesResponse;
 import io.spring.boot.controller.wrappers.SingleArticlePostRequest;
 import io.spring.boot.controller.wrappers.SingleArticlePutRequest;
 import io.spring.boot.controller.wrappers.SingleArticleResponse;
+import io.spring.boot.dto.ArticleImportReportDTO;
+import io.spring.boot.dto.FieldSet;
 import io.spring.boot.dto.MultipleArticlesResponseDTO;
+import io.spring.boot.dto.SearchCursor;
 import io.spring.boot.dto.SingleArticleResponseDTO;
 import io.spring.boot.entity.Article;
 import io.spring.boot.entity.Tag;
 import io.spring.boot.entity.User;
+import io.spring.boot.service.ArticleExportService;
+import io.spring.boot.service.ArticleImportService;
+import io.spring.boot.service.ArticleSearchService;
 import io.spring.boot.service.ArticleService;
+import io.spring.boot.service.RelatedArticlesService;
+import io.spring.boot.service.TrendingArticlesService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 /**
@@ -45,20 +70,50 @@ import jakarta.validation.Valid;
 class ArticleRestController {
 
 	private final ArticleService articleService;
+	private final ArticleImportService articleImportService;
+	private final ArticleExportService articleExportService;
+	private final ArticleSearchService articleSearchService;
+	private final RelatedArticlesService relatedArticlesService;
+	private final TrendingArticlesService trendingArticlesService;
+	private final ListingWriter listingWriter;
+	private final CompressedResponseCache compressedResponseCache;
 
 	@Autowired
-	public ArticleRestController(ArticleService articleService) {
+	public ArticleRestController(ArticleService articleService, ArticleImportService articleImportService,
+									ArticleExportService articleExportService, ArticleSearchService articleSearchService,
+									RelatedArticlesService relatedArticlesService, TrendingArticlesService trendingArticlesService,
+									ContentFormats contentFormats, CompressedResponseCache compressedResponseCache) {
 		this.articleService = articleService;
+		this.articleImportService = articleImportService;
+		this.articleExportService = articleExportService;
+		this.articleSearchService = articleSearchService;
+		this.relatedArticlesService = relatedArticlesService;
+		this.trendingArticlesService = trendingArticlesService;
+		this.listingWriter = new ListingWriter(contentFormats);
+		this.compressedResponseCache = compressedResponseCache;
 	}
 	
+	// Gzipped when accepted, from the compressed bytes cached for the article as seen by this user
 	@GetMapping("/{slug}")
-	public ResponseEntity<SingleArticleResponse> findArticleBySlug(@AuthenticationPrincipal User user, @PathVariable String slug) {
-		Article article = articleService.findArticleBySlug(slug);
-	    boolean favorited = user != null && article.getFavoritedBy().stream().anyMatch(u -> u.getId().equals(user.getId()));
+	public ResponseEntity<byte[]> findArticleBySlug(@AuthenticationPrincipal User user, @PathVariable String slug,
+													HttpServletRequest request) {
+		Article article;
+		try {
+			article = articleService.findArticleBySlug(slug);
+		} catch (NoSuchElementException e) {
+			// A slug given up by a title change answers with a permanent redirect to the current one
+			String current = articleService.findRedirect(slug).orElseThrow(() -> e);
+			return ResponseEntity.status(HttpStatus.MOVED_PERMANENTLY).location(URI.create("/api/articles/" + current)).build();
+		}
+		if (user != null) {
+			articleService.applyPendingFavorites(user.getId(), List.of(article));
+		}
+	    boolean favorited = user != null && article.isFavoritedBy(user.getId());
 	    boolean following = user != null && user.getFollowedUsers().stream().anyMatch(u -> u.getId().equals(article.getAuthor().getId()));
 	    
 		SingleArticleResponseDTO response = new SingleArticleResponseDTO(article, favorited, following);
-		return ResponseEntity.ok(new SingleArticleResponse(response));
+		CompressedResponseCache.Key key = new CompressedResponseCache.Key("article", article.getId(), favorited, following);
+		return compressedResponseCache.body(request, ResponseEntity.ok(), eTag(article), key, new SingleArticleResponse(response));
 	}
 	
 	@PostMapping()
@@ -73,80 +128,251 @@ class ArticleRestController {
 		Article savedArticle = articleService.saveArticle(article);
 		SingleArticleResponseDTO response = new SingleArticleResponseDTO(savedArticle, false, false);
 		
-		return ResponseEntity.status(HttpStatus.CREATED).body(new SingleArticleResponse(response));
+		return withETag(ResponseEntity.status(HttpStatus.CREATED), savedArticle).body(new SingleArticleResponse(response));
+	}
+	
+	// Body is NDJSON: one {"title", "description", "body", "tagList"} object per line, read as a stream
+	@PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<ArticleImportReportDTO> importArticles(@AuthenticationPrincipal User user, InputStream body) throws IOException {
+		if(user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
+		}
+		return ResponseEntity.ok(articleImportService.importArticles(user.getId(), body));
+	}
+	
+	// Writes NDJSON straight to the response while the database cursors are read
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void exportArticles(@AuthenticationPrincipal User user, 
+								@RequestParam(defaultValue = "false") boolean comments, 
+								HttpServletResponse response) throws IOException {
+		if(user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
+		}
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		articleExportService.exportArticles(comments, response.getOutputStream());
 	}
 	
 	@DeleteMapping("/{slug}")
-	public ResponseEntity<Void>deleteArticle(@AuthenticationPrincipal User user, @PathVariable String slug){
-		Article article = articleService.findArticleBySlug(slug);
-		if(!article.getAuthor().getId().equals(user.getId())) {
-			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+	public ResponseEntity<Void>deleteArticle(@AuthenticationPrincipal User user, @PathVariable String slug,
+												@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		if(user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
 		}
-		articleService.deleteByArticleSlug(slug);
+		articleService.deleteArticle(user.getId(), slug, expectedVersion(ifMatch));
 		
 		return ResponseEntity.noContent().build();
 	}
 	
-	@PutMapping("/{slug}")
+	// Partial update for both verbs: only the fields present are written (PUT keeps the RealWorld semantics)
+	@RequestMapping(value = "/{slug}", method = { RequestMethod.PUT, RequestMethod.PATCH })
 	public ResponseEntity<SingleArticleResponse>updateArticle(@AuthenticationPrincipal User user, 
-																@PathVariable String slug, @RequestBody SingleArticlePutRequest request){
-		Article article = articleService.findArticleBySlug(slug);
-		if(!article.getAuthor().getId().equals(user.getId())) {
-			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+																@PathVariable String slug, @RequestBody SingleArticlePutRequest request,
+																@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		if(user == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
 		}
-		Article updatedArticle = articleService.updateArticle(slug, request.article());
-	    boolean favorited = updatedArticle.getFavoritedBy().stream().anyMatch(u -> u.getId().equals(user.getId()));
+		Article updatedArticle = articleService.updateArticle(user.getId(), slug, request.article(), expectedVersion(ifMatch));
+		articleService.applyPendingFavorites(user.getId(), List.of(updatedArticle));
+	    boolean favorited = updatedArticle.isFavoritedBy(user.getId());
 	    boolean following = user.getFollowedUsers().stream().anyMatch(f -> f.getId().equals(updatedArticle.getAuthor().getId()));
 		
 		SingleArticleResponseDTO response = new SingleArticleResponseDTO(updatedArticle, favorited, following);
-		return ResponseEntity.ok(new SingleArticleResponse(response));
+		return withETag(ResponseEntity.ok(), updatedArticle).body(new SingleArticleResponse(response));
+	}
+	
+	// The ETag of an article is its version: If-Match "<version>" makes PUT/DELETE conditional, absent or * does not.
+	// The ETags of the other representations, e.g. "<version>-gzip" or "<version>-cbor-gzip", match the same version
+	private static Long expectedVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String tag = ContentFormats.baseETag(ifMatch.trim());
+		if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+			try {
+				return Long.valueOf(tag.substring(1, tag.length() - 1));
+			} catch (NumberFormatException e) {
+				// Not one of our ETags, falls through to the mismatch
+			}
+		}
+		throw new OptimisticLockingFailureException("If-Match does not match the current ETag of the article");
 	}
 	
+	private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Article article) {
+		String eTag = eTag(article);
+		return eTag == null ? builder : builder.eTag(eTag);
+	}
+	
+	private static String eTag(Article article) {
+		return article.getVersion() == null ? null : "\"" + article.getVersion() + "\"";
+	}
+	
+	// Streamed: see writeArticles. fields= picks the fields of each article (FieldSet)
 	@GetMapping()
-	public ResponseEntity<MultipleArticlesResponse> findArticles(
+	public void findArticles(
 									        @AuthenticationPrincipal User user,
 									        @RequestParam(required = false) String tag,
 									        @RequestParam(required = false) String author,
 									        @RequestParam(required = false) String favorited,
 									        @RequestParam(defaultValue = "20") int limit,
-									        @RequestParam(defaultValue = "0") int offset) {
-
+									        @RequestParam(defaultValue = "0") int offset,
+									        @RequestParam(required = false) String fields,
+									        HttpServletRequest request, HttpServletResponse response) throws IOException {
+		FieldSet fieldSet = FieldSet.parse(fields, MultipleArticlesResponseDTO.FIELDS);
 	    Pageable pageable = PageRequest.of(offset / limit, limit, Sort.by("createdAt").descending());
-	    Page<Article> page = articleService.findArticleByCriteria(tag, author, favorited, pageable);
-
-		List<MultipleArticlesResponseDTO> dtos = page.getContent().stream()
-			.map(a -> { //multi-statement lambda
-            	boolean favoritedByUser = user != null && a.getFavoritedBy().stream().anyMatch(u -> u.getId().equals(user.getId()));
+	    Page<Long> page = articleService.findArticleIdsByCriteria(tag, author, favorited, pageable);
+	    writeArticles(user, page, fieldSet, request, response);
+	}
+	
+	/*
+	 * Multi-get: the articles of up to ArticleService.MAX_SLUGS comma separated slugs, in the order requested, with
+	 * {"missing":[...]} listing the slugs that match no article, or one deleted before it was loaded. One query
+	 * resolves the slugs, the articles are then loaded like a listing page, so the count of queries does not grow
+	 * with the slugs. fields= applies as well.
+	 */
+	@GetMapping(params = "slugs")
+	public void findArticlesBySlugs(@AuthenticationPrincipal User user, @RequestParam String slugs,
+									@RequestParam(required = false) String fields,
+									HttpServletRequest request, HttpServletResponse response) throws IOException {
+		FieldSet fieldSet = FieldSet.parse(fields, MultipleArticlesResponseDTO.FIELDS);
+		List<String> requested = Arrays.stream(slugs.split(","))
+				.map(String::trim)
+				.filter(slug -> !slug.isEmpty())
+				.distinct()
+				.toList();
+		Map<String, Long> ids = articleService.findIdsBySlugs(requested);
+		
+		try (ListingWriter.Listing listing = listingWriter.open(request, response, "articles")) {
+			// An article deleted after its slug was resolved is not written: it is counted as missing
+			Set<Long> written = writeArticleRows(user, requested.stream().map(ids::get).filter(Objects::nonNull).toList(), fieldSet, listing);
+			JsonGenerator json = listing.endList();
+			json.writeNumberField("articlesCount", written.size());
+			json.writeArrayFieldStart("missing");
+			for (String slug : requested) {
+				if (!written.contains(ids.get(slug))) {
+					json.writeString(slug);
+				}
+			}
+			json.writeEndArray();
+			listing.end();
+		}
+	}
+	
+	/*
+	 * Writes the RealWorld listing {"articles":[...],"articlesCount":n} while the articles are loaded chunk by chunk:
+	 * each DTO is serialized as soon as it is built, the whole list of articles or DTOs is never held.
+	 */
+	private void writeArticles(User user, Page<Long> page, FieldSet fields, HttpServletRequest request,
+								HttpServletResponse response) throws IOException {
+		try (ListingWriter.Listing listing = listingWriter.open(request, response, "articles")) {
+			writeArticleRows(user, page.getContent(), fields, listing);
+			listing.endList().writeNumberField("articlesCount", page.getTotalElements());
+			listing.end();
+		}
+	}
+	
+	// With a sparse fieldset the rows come from a projection of the requested columns instead of the entities.
+	// Returns the ids of the articles written
+	private Set<Long> writeArticleRows(User user, List<Long> ids, FieldSet fields, ListingWriter.Listing listing) {
+		if (!fields.isAll()) {
+			return articleService.forEachArticleFields(ids, fields, user != null ? user.getId() : null,
+					chunk -> chunk.forEach(listing::write));
+		}
+		Set<Long> written = new HashSet<>();
+		articleService.forEachArticle(ids, chunk -> {
+			if (user != null) {
+				articleService.applyPendingFavorites(user.getId(), chunk);
+			}
+			for (Article a : chunk) {
+            	boolean favoritedByUser = user != null && a.isFavoritedBy(user.getId());
             	boolean followingAuthor = user != null && user.getFollowedUsers().stream().anyMatch(f -> f.getId().equals(a.getAuthor().getId()));
-
-	            return new MultipleArticlesResponseDTO(a, favoritedByUser, followingAuthor);
-	        })
-	        .toList();
-
-	    return ResponseEntity.ok(new MultipleArticlesResponse(dtos, page.getTotalElements()));
+            	listing.write(new MultipleArticlesResponseDTO(a, favoritedByUser, followingAuthor));
+            	written.add(a.getId());
+			}
+		});
+		return written;
+	}
+	
+	// Ranked full-text search, continued with the returned nextCursor; articlesCount is the number of matches
+	@GetMapping("/search")
+	public ResponseEntity<MultipleArticlesResponse> searchArticles(@AuthenticationPrincipal User user,
+																	@RequestParam String q,
+																	@RequestParam(required = false) String cursor,
+																	@RequestParam(defaultValue = "" + ArticleSearchService.DEFAULT_PAGE_SIZE) int limit) {
+		ArticleSearchService.Hits hits = articleSearchService.search(q, SearchCursor.decode(cursor), limit);
+		if (user != null) {
+			articleService.applyPendingFavorites(user.getId(), hits.articles());
+		}
+		
+		List<MultipleArticlesResponseDTO> dtos = hits.articles().stream()
+				.map(a -> {
+					boolean favoritedByUser = user != null && a.isFavoritedBy(user.getId());
+					boolean followingAuthor = user != null && user.getFollowedUsers().stream().anyMatch(f -> f.getId().equals(a.getAuthor().getId()));
+					
+					return new MultipleArticlesResponseDTO(a, favoritedByUser, followingAuthor);
+				})
+				.toList();
+		
+		String nextCursor = hits.next() == null ? null : hits.next().encode();
+		return ResponseEntity.ok(new MultipleArticlesResponse(dtos, hits.total(), nextCursor));
+	}
+	
+	// Most favorited and commented lately, best first; articlesCount is the number returned
+	@GetMapping("/trending")
+	public ResponseEntity<MultipleArticlesResponse> findTrendingArticles(@AuthenticationPrincipal User user,
+																	@RequestParam(defaultValue = "" + TrendingArticlesService.DEFAULT_PAGE_SIZE) int limit) {
+		List<Article> articles = trendingArticlesService.findTrending(limit);
+		if (user != null) {
+			articleService.applyPendingFavorites(user.getId(), articles);
+		}
+		
+		List<MultipleArticlesResponseDTO> dtos = articles.stream()
+				.map(a -> {
+					boolean favoritedByUser = user != null && a.isFavoritedBy(user.getId());
+					boolean followingAuthor = user != null && user.getFollowedUsers().stream().anyMatch(f -> f.getId().equals(a.getAuthor().getId()));
+					
+					return new MultipleArticlesResponseDTO(a, favoritedByUser, followingAuthor);
+				})
+				.toList();
+		
+		return ResponseEntity.ok(new MultipleArticlesResponse(dtos, (long) dtos.size()));
+	}
+	
+	// Articles sharing the most tags with this one, most related first; articlesCount is the number returned
+	@GetMapping("/{slug}/related")
+	public ResponseEntity<MultipleArticlesResponse> findRelatedArticles(@AuthenticationPrincipal User user, @PathVariable String slug,
+																	@RequestParam(defaultValue = "" + RelatedArticlesService.DEFAULT_SIZE) int limit) {
+		List<Article> articles = relatedArticlesService.findRelated(slug, limit);
+		if (user != null) {
+			articleService.applyPendingFavorites(user.getId(), articles);
+		}
+		
+		List<MultipleArticlesResponseDTO> dtos = articles.stream()
+				.map(a -> {
+					boolean favoritedByUser = user != null && a.isFavoritedBy(user.getId());
+					boolean followingAuthor = user != null && user.getFollowedUsers().stream().anyMatch(f -> f.getId().equals(a.getAuthor().getId()));
+					
+					return new MultipleArticlesResponseDTO(a, favoritedByUser, followingAuthor);
+				})
+				.toList();
+		
+		return ResponseEntity.ok(new MultipleArticlesResponse(dtos, (long) dtos.size()));
 	}
 	
 	@GetMapping("/feed")
-	public ResponseEntity<MultipleArticlesResponse>findFeed(
+	public void findFeed(
 											@AuthenticationPrincipal User user, 
 											@RequestParam(defaultValue = "20") int limit,
-											@RequestParam(defaultValue = "0") int offset){
+											@RequestParam(defaultValue = "0") int offset,
+											@RequestParam(required = false) String fields,
+											HttpServletRequest request, HttpServletResponse response) throws IOException {
 		if (user == null) {
 	        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
 	    }
+		FieldSet fieldSet = FieldSet.parse(fields, MultipleArticlesResponseDTO.FIELDS);
 		Pageable pageable = PageRequest.of(offset / limit, limit, Sort.by("createdAt").descending());
-		Page<Article> page = articleService.findFeed(user.getId(), pageable);
-		
-		List<MultipleArticlesResponseDTO> dtos = page.getContent().stream()
-				.map(a -> { //multi-statement lambda
-	            	boolean favoritedByUser = user != null && a.getFavoritedBy().stream().anyMatch(u -> u.getId().equals(user.getId()));
-	            	boolean followingAuthor = user != null && user.getFollowedUsers().stream().anyMatch(f -> f.getId().equals(a.getAuthor().getId()));
-
-		            return new MultipleArticlesResponseDTO(a, favoritedByUser, followingAuthor);
-		        })
-		        .toList();
-		
-		return ResponseEntity.ok(new MultipleArticlesResponse(dtos, page.getTotalElements()));
+		Page<Long> page = articleService.findFeedIds(user.getId(), pageable);
+		writeArticles(user, page, fieldSet, request, response);
 	}
 	
 	@PostMapping("/{slug}/favorite")
@@ -155,7 +381,7 @@ class ArticleRestController {
 			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
 		}
 		Article article = articleService.favoriteArticle(user.getId(), slug);
-	    boolean favorited = article.getFavoritedBy().stream().anyMatch(u -> u.getId().equals(user.getId()));
+	    boolean favorited = article.isFavoritedBy(user.getId());
 	    boolean following = user.getFollowedUsers().stream().anyMatch(u -> u.getId().equals(article.getAuthor().getId()));
 	    
 		SingleArticleResponseDTO response = new SingleArticleResponseDTO(article, favorited, following);
@@ -169,7 +395,7 @@ class ArticleRestController {
 			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
 		}
 		Article article = articleService.unfavoriteArticle(user.getId(), slug);
-	    boolean favorited = article.getFavoritedBy().stream().anyMatch(u -> u.getId().equals(user.getId()));
+	    boolean favorited = article.isFavoritedBy(user.getId());
 	    boolean following = user.getFollowedUsers().stream().anyMatch(u -> u.getId().equals(article.getAuthor().getId()));
 	    
 		SingleArticleResponseDTO response = new SingleArticleResponseDTO(article, favorited, following);
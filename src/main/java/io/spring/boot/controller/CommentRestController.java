@@ -1,10 +1,16 @@
 package io.spring.boot.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,17 +19,28 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
 
-import io.spring.boot.controller.wrappers.MultipleCommentsResponse;
 import io.spring.boot.controller.wrappers.SingleCommentPostRequest;
 import io.spring.boot.controller.wrappers.SingleCommentResponse;
+import io.spring.boot.dto.AuthorResponseDTO;
+import io.spring.boot.dto.CommentCursor;
 import io.spring.boot.dto.CommentResponseDTO;
+import io.spring.boot.dto.FieldSet;
 import io.spring.boot.entity.Comment;
 import io.spring.boot.entity.Profile;
 import io.spring.boot.entity.User;
+import io.spring.boot.service.CommentEventBus;
 import io.spring.boot.service.CommentService;
+import io.spring.boot.service.UserService;
+import jakarta.persistence.Tuple;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -33,6 +50,15 @@ public class CommentRestController {
 	@Autowired
 	private CommentService commentService;
 	
+	@Autowired
+	private UserService userService;
+	
+	@Autowired
+	private CommentEventBus commentEventBus;
+	
+	@Autowired
+	private ContentFormats contentFormats;
+	
 	@PostMapping("/{slug}/comments")
 	public ResponseEntity<SingleCommentResponse> createComment(@AuthenticationPrincipal User user, 
 													@PathVariable String slug, @Valid @RequestBody SingleCommentPostRequest request) {
@@ -46,17 +72,73 @@ public class CommentRestController {
 		return ResponseEntity.status(HttpStatus.CREATED).body(new SingleCommentResponse(response));
 	}
 	
+	// Streamed like the article listings, {"comments":[...]} plus nextCursor unless this is the last page.
+	// fields= picks the fields of each comment (FieldSet)
 	@GetMapping("/{slug}/comments")
-	public ResponseEntity<MultipleCommentsResponse> findAllComments(@AuthenticationPrincipal User user, @PathVariable String slug){
-		Set<Comment> comments = commentService.findAllComments(slug);
-		List<CommentResponseDTO> dtos = comments.stream().
-				map(c -> { //multi-statement lambda
-					Profile author = user != null ? c.getAuthor().getProfile() : null;
-			        boolean following  = user != null && user.getFollowedUsers().stream().anyMatch(u -> u.getId().equals(c.getAuthor().getId()));
-			        return new CommentResponseDTO(c, author, following);
-				})
-				.toList();
-		return ResponseEntity.ok(new MultipleCommentsResponse(dtos));
+	public void findAllComments(@AuthenticationPrincipal User user, @PathVariable String slug,
+								@RequestParam(required = false) String cursor,
+								@RequestParam(defaultValue = "" + CommentService.DEFAULT_PAGE_SIZE) int limit,
+								@RequestParam(required = false) String fields,
+								HttpServletRequest request, HttpServletResponse response) throws IOException {
+		FieldSet fieldSet = FieldSet.parse(fields, CommentResponseDTO.FIELDS);
+		if (!fieldSet.isAll()) {
+			writeCommentFields(user, slug, CommentCursor.decode(cursor), limit, fieldSet, request, response);
+			return;
+		}
+		Slice<Comment> page = commentService.findComments(slug, CommentCursor.decode(cursor), limit);
+		// One lookup for the whole page: which of these authors does the viewer follow
+		Set<Long> authorIds = page.stream().map(c -> c.getAuthor().getId()).collect(Collectors.toSet());
+		Set<Long> followedAuthorIds = user != null ? userService.findFolloweeIds(user.getId(), authorIds) : Set.of();
+		try (ListingWriter.Listing listing = new ListingWriter(contentFormats).open(request, response, "comments")) {
+			for (Comment c : page) {
+				listing.write(new CommentResponseDTO(c, c.getAuthor().getProfile(), followedAuthorIds.contains(c.getAuthor().getId())));
+			}
+			JsonGenerator json = listing.endList();
+			// The author is fetched with the page, so the cursor of the last row is all the client needs to continue
+			if (page.hasNext()) {
+				json.writeStringField("nextCursor", CommentCursor.of(page.getContent().get(page.getNumberOfElements() - 1)).encode());
+			}
+			listing.end();
+		}
+	}
+	
+	// The rows of a sparse fieldset come from a projection of the requested columns
+	private void writeCommentFields(User user, String slug, CommentCursor cursor, int limit, FieldSet fields,
+									HttpServletRequest request, HttpServletResponse response) throws IOException {
+		Slice<Tuple> page = commentService.findCommentFields(slug, cursor, limit, fields);
+		Set<Long> followedAuthorIds = Set.of();
+		if (user != null && fields.contains("author")) {
+			Set<Long> authorIds = page.stream().map(t -> t.get("author.id", Long.class)).collect(Collectors.toSet());
+			followedAuthorIds = userService.findFolloweeIds(user.getId(), authorIds);
+		}
+		try (ListingWriter.Listing listing = new ListingWriter(contentFormats).open(request, response, "comments")) {
+			for (Tuple tuple : page) {
+				Map<String, Object> row = new LinkedHashMap<>();
+				for (String field : fields.names()) {
+					if (field.equals("author")) {
+						Profile profile = new Profile(tuple.get("author.username", String.class), tuple.get("author.bio", String.class),
+								tuple.get("author.image", String.class));
+						row.put(field, new AuthorResponseDTO(profile, followedAuthorIds.contains(tuple.get("author.id", Long.class))));
+					} else {
+						row.put(field, tuple.get(field));
+					}
+				}
+				listing.write(row);
+			}
+			JsonGenerator json = listing.endList();
+			if (page.hasNext()) {
+				Tuple last = page.getContent().get(page.getNumberOfElements() - 1);
+				json.writeStringField("nextCursor", new CommentCursor(last.get("createdAt", OffsetDateTime.class), last.get("id", Long.class)).encode());
+			}
+			listing.end();
+		}
+	}
+	
+	// Pushes comment-created / comment-deleted events of one article, replacing client polling of the listing
+	@GetMapping(path = "/{slug}/comments/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamComments(@PathVariable String slug) {
+		commentService.ensureArticleExists(slug);
+		return commentEventBus.subscribe(slug);
 	}
 	
 	@DeleteMapping("/{slug}/comments/{id}")
@@ -65,11 +147,7 @@ public class CommentRestController {
 			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
 		}
 		
-		Comment comment = commentService.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-	    if (!comment.getAuthor().getId().equals(user.getId())) {
-	        throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
-	    }
-	    commentService.deleteCommentById(id);
+	    commentService.deleteComment(user.getId(), slug, id);
 		
 		return ResponseEntity.noContent().build();
 	}
@@ -0,0 +1,176 @@
+package io.spring.boot.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/*
+ * Gzip bodies of the hot, cacheable responses (a single article, /api/tags), compressed once and reused, for each
+ * format negotiated on Accept (ContentFormats).
+ *
+ * The body is still serialized on every request: counts and the author's profile change without any event telling
+ * us, and serializing is cheap next to compressing. The bytes are compared with the identity form cached under the
+ * same key, the compressed form is reused while they are equal and recompressed when they are not. Since the work is
+ * done once per change, bodies are compressed at the best level. Least recently used entries go first once the
+ * identity and compressed forms together exceed max-size.
+ *
+ * Every other response is compressed by the server (server.compression.*), with the same min-response-size.
+ */
+@Component
+public class CompressedResponseCache {
+
+	static final String GZIP = "gzip";
+
+	private final ContentFormats contentFormats;
+	private final boolean enabled;
+	private final int minSize;
+	private final long maxBytes;
+	// Access ordered: iteration starts at the least recently used
+	private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes;
+
+	@Autowired
+	public CompressedResponseCache(ContentFormats contentFormats,
+									@Value("${server.compression.enabled:false}") boolean enabled,
+									@Value("${server.compression.min-response-size:2KB}") DataSize minSize,
+									@Value("${responses.compressed-cache.max-size:16MB}") DataSize maxSize) {
+		this.contentFormats = contentFormats;
+		this.enabled = enabled;
+		this.minSize = (int) minSize.toBytes();
+		this.maxBytes = maxSize.toBytes();
+	}
+
+	/*
+	 * Completes the response with the body in the negotiated format, gzipped when the client accepts it and the body
+	 * is at least min-response-size. A strong ETag gets the suffix of the format ("-cbor", "-smile") and "-gzip" on the
+	 * compressed form: each of them is a different representation.
+	 */
+	ResponseEntity<byte[]> body(HttpServletRequest request, ResponseEntity.BodyBuilder builder, String eTag, Object key, Object body) {
+		ContentFormats.Format format = contentFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+		byte[] identity = serialize(format, body);
+		String formatETag = eTag == null ? null : format.eTag(eTag);
+		builder.contentType(format.mediaType()).varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+		if (!enabled || identity.length < minSize || !acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+			return (formatETag == null ? builder : builder.eTag(formatETag)).body(identity);
+		}
+		if (formatETag != null) {
+			builder.eTag(formatETag.substring(0, formatETag.length() - 1) + "-" + GZIP + "\"");
+		}
+		return builder.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(compressed(List.of(key, format.mediaType()), identity));
+	}
+
+	byte[] compressed(Object key, byte[] identity) {
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null && Arrays.equals(entry.identity(), identity)) {
+				return entry.gzip();
+			}
+		}
+		Entry entry = new Entry(identity, gzip(identity));
+		synchronized (entries) {
+			Entry previous = entries.put(key, entry);
+			bytes += entry.size() - (previous == null ? 0 : previous.size());
+			Iterator<Entry> eldest = entries.values().iterator();
+			while (bytes > maxBytes && eldest.hasNext()) {
+				bytes -= eldest.next().size();
+				eldest.remove();
+			}
+		}
+		return entry.gzip();
+	}
+
+	int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	// gzip, x-gzip or * with a non-zero quality, unless gzip itself is refused with q=0
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		Boolean gzip = null;
+		boolean any = false;
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim().toLowerCase();
+			boolean accepted = quality(parts) > 0;
+			if (name.equals(GZIP) || name.equals("x-gzip")) {
+				gzip = accepted;
+			} else if (name.equals("*")) {
+				any = accepted;
+			}
+		}
+		return gzip != null ? gzip : any;
+	}
+
+	private static double quality(String[] parameters) {
+		for (int i = 1; i < parameters.length; i++) {
+			String parameter = parameters[i].trim();
+			if (parameter.startsWith("q=")) {
+				try {
+					return Double.parseDouble(parameter.substring(2));
+				} catch (NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+	private static byte[] serialize(ContentFormats.Format format, Object body) {
+		try {
+			return format.mapper().writeValueAsBytes(body);
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static byte[] gzip(byte[] identity) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+			{
+				def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		}) {
+			gzip.write(identity);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	private record Entry(byte[] identity, byte[] gzip) {
+
+		long size() {
+			return identity.length + gzip.length;
+		}
+	}
+
+	// Key of a cached body, e.g. an article as seen by a user who does or does not favorite it and follow its author
+	record Key(String resource, Object id, boolean favorited, boolean following) {
+
+		static Key of(String resource) {
+			return new Key(resource, null, false, false);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package io.spring.boot.controller;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/*
+ * The formats of request and response bodies: JSON, CBOR and Smile, negotiated on Content-Type and Accept.
+ *
+ * The CBOR and Smile mappers are copies of the application's ObjectMapper on another factory, so the three formats
+ * carry the same fields, dates and modules. They replace the converters Spring MVC adds on its own when the
+ * dataformats are on the classpath, which would use default mappers. JSON stays first, for wildcard Accept headers
+ * and clients sending no Accept. The responses written by hand (listings, cached bodies) negotiate through negotiate().
+ */
+@Component
+public class ContentFormats implements WebMvcConfigurer {
+
+	public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+	// Appended to the strong ETag of a body in that format, JSON keeps the bare one
+	static final List<String> ETAG_SUFFIXES = List.of("-cbor", "-smile");
+
+	private final Format json;
+	private final List<Format> formats;
+
+	@Autowired
+	public ContentFormats(ObjectMapper objectMapper) {
+		this.json = new Format(MediaType.APPLICATION_JSON, objectMapper, "");
+		this.formats = List.of(json,
+				new Format(MediaType.APPLICATION_CBOR, objectMapper.copyWith(new CBORFactory()), ETAG_SUFFIXES.get(0)),
+				new Format(APPLICATION_SMILE, objectMapper.copyWith(new SmileFactory()), ETAG_SUFFIXES.get(1)));
+	}
+
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+				|| converter instanceof MappingJackson2SmileHttpMessageConverter);
+		converters.add(new MappingJackson2CborHttpMessageConverter(mapper(MediaType.APPLICATION_CBOR)));
+		converters.add(new MappingJackson2SmileHttpMessageConverter(mapper(APPLICATION_SMILE)));
+	}
+
+	// The format of the highest quality media type of the Accept header we can produce, JSON by default
+	Format negotiate(String accept) {
+		if (accept == null || accept.isBlank()) {
+			return json;
+		}
+		List<MediaType> accepted;
+		try {
+			accepted = MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException e) {
+			return json;
+		}
+		// Stable: media types of the same quality keep the client's order
+		accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+		for (MediaType mediaType : accepted) {
+			if (mediaType.getQualityValue() <= 0) {
+				break;
+			}
+			for (Format format : formats) {
+				if (mediaType.isCompatibleWith(format.mediaType())) {
+					return format;
+				}
+			}
+		}
+		return json;
+	}
+
+	ObjectMapper mapper(MediaType mediaType) {
+		return formats.stream().filter(format -> format.mediaType().equals(mediaType)).findFirst().orElse(json).mapper();
+	}
+
+	// A strong ETag without the suffixes Format.eTag() and CompressedResponseCache add for the format and the encoding
+	static String baseETag(String eTag) {
+		String base = eTag.replace("-" + CompressedResponseCache.GZIP + "\"", "\"");
+		for (String suffix : ETAG_SUFFIXES) {
+			base = base.replace(suffix + "\"", "\"");
+		}
+		return base;
+	}
+
+	record Format(MediaType mediaType, ObjectMapper mapper, String eTagSuffix, ObjectWriter rowWriter) {
+
+		Format(MediaType mediaType, ObjectMapper mapper, String eTagSuffix) {
+			// Flushing after each row of a listing would send a chunk per row, the servlet buffer decides instead
+			this(mediaType, mapper, eTagSuffix, mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+		}
+
+		// The strong ETag of the body in this format, e.g. "2-cbor" for "2"
+		String eTag(String eTag) {
+			return eTag.substring(0, eTag.length() - 1) + eTagSuffix + "\"";
+		}
+
+		boolean isText() {
+			return mediaType.equals(MediaType.APPLICATION_JSON);
+		}
+	}
+}
@@ -1,14 +1,17 @@
 package io.spring.boot.controller;
 
-import java.nio.file.AccessDeniedException;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import io.spring.boot.controller.wrappers.ErrorsBodyResponse;
 import io.spring.boot.dto.ErrorsResponse;
@@ -41,6 +44,25 @@ public class GlobalExceptionHandler {
         return errorStatus(HttpStatus.FORBIDDEN, "Access denied");
     }
 
+    // 412 Precondition Failed — If-Match is stale, or a concurrent edit won the optimistic lock
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorsResponse> handleConflict(OptimisticLockingFailureException e) {
+        return errorStatus(HttpStatus.PRECONDITION_FAILED, "Article has been modified, reload it and retry");
+    }
+
+    // 409 Conflict — a unique key lost to a concurrent write (same title, or two creates racing for one slug)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorsResponse> handleDuplicate(DataIntegrityViolationException e) {
+        return errorStatus(HttpStatus.CONFLICT, "Conflicts with an existing resource, retry");
+    }
+
+    // Status picked by a controller, e.g. 401 "Login required"
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorsResponse> handleResponseStatus(ResponseStatusException e) {
+        HttpStatus status = HttpStatus.valueOf(e.getStatusCode().value());
+        return errorStatus(status, e.getReason() != null ? e.getReason() : status.getReasonPhrase());
+    }
+
     // 404 Not Found — user, article, comment not found
     @ExceptionHandler(NoSuchElementException.class)
     public ResponseEntity<ErrorsResponse> handleNotFound(NoSuchElementException e) {
@@ -0,0 +1,91 @@
+package io.spring.boot.controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.http.HttpHeaders;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+ * Writes a listing straight to the response as {"<field>":[row, row, ...], <other fields>}, with one generator for
+ * the whole response, in the format negotiated on the Accept header (JSON, CBOR or Smile). Each row is serialized by
+ * the format's mapper as soon as it is produced and can be dropped right after, so the output is the same as for the
+ * wrapper records without holding the rows or the document.
+ *
+ * The document is completed by end() only. A listing that fails partway is left unterminated, never closed into
+ * well-formed JSON missing its last rows and fields: if part of it was already sent, the client sees a malformed body.
+ */
+final class ListingWriter {
+
+	private final ContentFormats contentFormats;
+
+	ListingWriter(ContentFormats contentFormats) {
+		this.contentFormats = contentFormats;
+	}
+
+	Listing open(HttpServletRequest request, HttpServletResponse response, String field) throws IOException {
+		ContentFormats.Format format = contentFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+		response.setContentType(format.mediaType().toString());
+		// The format depends on Accept, shared caches must not hand one client's format to another
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		if (format.isText()) {
+			response.setCharacterEncoding("UTF-8");
+		}
+		JsonGenerator json = format.mapper().getFactory().createGenerator(response.getOutputStream())
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+		json.writeStartObject();
+		json.writeArrayFieldStart(field);
+		return new Listing(json, format.rowWriter());
+	}
+
+	static final class Listing implements Closeable {
+
+		private final JsonGenerator json;
+		private final ObjectWriter rowWriter;
+		private boolean ended;
+
+		private Listing(JsonGenerator json, ObjectWriter rowWriter) {
+			this.json = json;
+			this.rowWriter = rowWriter;
+		}
+
+		// Unchecked, to be called from the callbacks of a service
+		void write(Object row) {
+			try {
+				rowWriter.writeValue(json, row);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		// Ends the array, the fields written next follow it in the enclosing object
+		JsonGenerator endList() throws IOException {
+			json.writeEndArray();
+			return json;
+		}
+
+		// Ends the enclosing object, on the success path only
+		void end() throws IOException {
+			json.writeEndObject();
+			ended = true;
+		}
+
+		/*
+		 * Flushes a listing that was ended. Otherwise the generator's buffer is dropped: while nothing is committed the
+		 * error handler still gets a clean response, and once it is, the output stays truncated.
+		 */
+		@Override
+		public void close() throws IOException {
+			if (ended) {
+				json.close();
+			}
+		}
+	}
+}
@@ -7,28 +7,45 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.spring.boot.dto.TagResponseDTO;
 import io.spring.boot.entity.Tag;
 import io.spring.boot.service.TagService;
+import io.spring.boot.service.TagSuggestionService;
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api")
 public class TagRestController {
 	
 	private TagService tagService;
+	private TagSuggestionService tagSuggestionService;
+	private CompressedResponseCache compressedResponseCache;
 	
 	@Autowired
-	public TagRestController(TagService tagService) {
+	public TagRestController(TagService tagService, TagSuggestionService tagSuggestionService,
+								CompressedResponseCache compressedResponseCache) {
 		this.tagService = tagService;
+		this.tagSuggestionService = tagSuggestionService;
+		this.compressedResponseCache = compressedResponseCache;
 	}
 
+	// Gzipped when accepted, the compressed bytes are reused until the list of tags changes
 	@GetMapping("/tags")
-	private ResponseEntity<TagResponseDTO> findAllTags(){
+	private ResponseEntity<byte[]> findAllTags(HttpServletRequest request){
         List<String> tagNames = tagService.findAllTags().stream()
                 .map(Tag::getName)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(new TagResponseDTO(tagNames));
+        return compressedResponseCache.body(request, ResponseEntity.ok(), null, CompressedResponseCache.Key.of("tags"),
+        										new TagResponseDTO(tagNames));
+	}
+	
+	// Autocomplete for the tag picker, from memory: the most used tags starting with the prefix
+	@GetMapping("/tags/suggest")
+	public ResponseEntity<TagResponseDTO> suggestTags(@RequestParam(defaultValue = "") String prefix,
+														@RequestParam(defaultValue = "" + TagSuggestionService.DEFAULT_SIZE) int limit){
+		return ResponseEntity.ok(new TagResponseDTO(tagSuggestionService.suggest(prefix, limit)));
 	}
 }
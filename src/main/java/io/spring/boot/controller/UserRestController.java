@@ -1,7 +1,10 @@
 package io.spring.boot.controller;
 
 
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.naming.AuthenticationException;
 
@@ -13,23 +16,28 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import io.spring.boot.controller.wrappers.SingleProfileResponse;
 import io.spring.boot.controller.wrappers.SingleUserRequest;
 import io.spring.boot.controller.wrappers.SingleUserResponse;
+import io.spring.boot.dto.AccountDeletionDTO;
 import io.spring.boot.dto.AuthorResponseDTO;
+import io.spring.boot.dto.FieldSet;
 import io.spring.boot.dto.UserLoginRequestDTO;
 import io.spring.boot.dto.UserPostRequestDTO;
 import io.spring.boot.dto.UserPutRequestDTO;
 import io.spring.boot.dto.UserResponseDTO;
 import io.spring.boot.entity.Profile;
 import io.spring.boot.entity.User;
+import io.spring.boot.service.AccountDeletionService;
 import io.spring.boot.service.UserService;
+import jakarta.persistence.Tuple;
 import jakarta.validation.Valid;
 
 /**
@@ -40,10 +48,12 @@ import jakarta.validation.Valid;
 class UserRestController {
 
 	private final UserService userService;
+	private final AccountDeletionService accountDeletionService;
 
 	@Autowired
-    public UserRestController(UserService userService) {
+    public UserRestController(UserService userService, AccountDeletionService accountDeletionService) {
         this.userService = userService;
+        this.accountDeletionService = accountDeletionService;
     }
 	
 	@PostMapping("/users")
@@ -71,7 +81,8 @@ class UserRestController {
         return ResponseEntity.ok(new SingleUserResponse(response));
 	}
 	
-	@PutMapping("/user")
+	// PUT already behaves as a partial update (RealWorld spec), PATCH is accepted as the more accurate verb
+	@RequestMapping(value = "/user", method = { RequestMethod.PUT, RequestMethod.PATCH })
 	public ResponseEntity<SingleUserResponse> updateUser(@AuthenticationPrincipal User user, 
 															@Valid @RequestBody SingleUserRequest<UserPutRequestDTO> request){
 		if(user == null) {
@@ -88,8 +99,21 @@ class UserRestController {
 	    return ResponseEntity.ok(new SingleUserResponse(response));
 	}
 	
+	// fields= picks the fields of the profile (FieldSet)
 	@GetMapping("/profiles/{username}")
-	public ResponseEntity<SingleProfileResponse> viewProfile(@AuthenticationPrincipal User viewer, @PathVariable String username){
+	public ResponseEntity<?> viewProfile(@AuthenticationPrincipal User viewer, @PathVariable String username,
+											@RequestParam(required = false) String fields){
+		FieldSet fieldSet = FieldSet.parse(fields, AuthorResponseDTO.FIELDS);
+		if (!fieldSet.isAll()) {
+			Tuple target = userService.viewProfileFields(username, fieldSet);
+			Map<String, Object> profile = new LinkedHashMap<>();
+			for (String field : fieldSet.names()) {
+				profile.put(field, field.equals("following")
+						? viewer != null && viewer.getFollowedUsers().stream().anyMatch(u -> u.getId().equals(target.get("id", Long.class)))
+						: target.get(field));
+			}
+			return ResponseEntity.ok(Map.of("profile", profile));
+		}
 		User targetUser = userService.viewProfile(username);
 		boolean following = viewer != null && viewer.getFollowedUsers().stream().anyMatch(u -> u.getId().equals(targetUser.getId()));
 		AuthorResponseDTO dto = new AuthorResponseDTO(targetUser.getProfile(), following);
@@ -126,13 +150,25 @@ class UserRestController {
 		return ResponseEntity.ok(userService.findAllUsers());
 	}
 
+	// async=true answers 202 right away and deletes the account in the background, progress is at the Location
 	@DeleteMapping("/user")
-	public ResponseEntity<Void>deleteUser(@AuthenticationPrincipal User user){
+	public ResponseEntity<AccountDeletionDTO>deleteUser(@AuthenticationPrincipal User user, 
+														@RequestParam(defaultValue = "false") boolean async){
 		if(user == null) {
 			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
 		}
+		if(async) {
+			AccountDeletionDTO deletion = accountDeletionService.startDeletion(user.getId());
+			return ResponseEntity.accepted().location(URI.create("/api/user/deletions/" + deletion.id())).body(deletion);
+		}
 		userService.deleteUser(user.getId());
 		return ResponseEntity.noContent().build();
 	}
 	
+	// Public: the account, and with it the token, may be gone by the time the client polls. The id is not guessable
+	@GetMapping("/user/deletions/{id}")
+	public ResponseEntity<AccountDeletionDTO>findDeletion(@PathVariable String id){
+		return ResponseEntity.ok(accountDeletionService.findDeletion(id));
+	}
+	
 }
\ No newline at end of file
@@ -2,8 +2,15 @@ package io.spring.boot.controller.wrappers;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import io.spring.boot.dto.MultipleArticlesResponseDTO;
 
-public record MultipleArticlesResponse(List<MultipleArticlesResponseDTO> articles, Long articlesCount) {
+// nextCursor is only set by the search, offset-paginated listings keep the RealWorld shape
+public record MultipleArticlesResponse(List<MultipleArticlesResponseDTO> articles, Long articlesCount,
+										@JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor) {
 
+	public MultipleArticlesResponse(List<MultipleArticlesResponseDTO> articles, Long articlesCount) {
+		this(articles, articlesCount, null);
+	}
 }
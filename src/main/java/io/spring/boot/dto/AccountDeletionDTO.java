@@ -0,0 +1,10 @@
+package io.spring.boot.dto;
+
+/*
+ * Progress of a background account deletion. The articles are deleted chunk by chunk,
+ * the comments, favorites, follows and the user row in the last step.
+ */
+public record AccountDeletionDTO(String id, State state, long articles, long deletedArticles, String error) {
+
+	public enum State { RUNNING, COMPLETED, FAILED }
+}
@@ -0,0 +1,13 @@
+package io.spring.boot.dto;
+
+import java.util.List;
+
+/*
+ * Result of an NDJSON article import. "failed" counts every rejected line,
+ * "errors" only lists the first ones (articles.import.max-errors).
+ */
+public record ArticleImportReportDTO(long lines, long imported, long failed, List<LineError> errors) {
+
+	public record LineError(long line, String error) {
+	}
+}
@@ -1,8 +1,13 @@
 package io.spring.boot.dto;
 
+import java.util.List;
+
 import io.spring.boot.entity.Profile;
 
 public class AuthorResponseDTO {
+	
+	// Also the fields= names of GET /api/profiles/{username}
+	public static final List<String> FIELDS = List.of("username", "bio", "image", "following");
 
 	private final String username;
     private final String bio;
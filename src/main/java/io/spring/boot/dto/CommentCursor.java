@@ -0,0 +1,44 @@
+package io.spring.boot.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import io.spring.boot.entity.Comment;
+
+/**
+ * Opaque keyset cursor for comment listings, ordered by (createdAt DESC, id DESC).
+ * The id breaks ties between comments created in the same instant so no row is skipped or repeated between pages.
+ */
+public record CommentCursor(OffsetDateTime createdAt, Long id) {
+
+	public static CommentCursor of(Comment comment) {
+		return new CommentCursor(comment.getCreatedAt(), comment.getId());
+	}
+
+	public String encode() {
+		Instant instant = createdAt.toInstant();
+		String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// Returns null for a missing cursor (first page)
+	public static CommentCursor decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = raw.split(":");
+			if (parts.length != 3) {
+				throw new IllegalArgumentException("Invalid cursor");
+			}
+			Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+			return new CommentCursor(OffsetDateTime.ofInstant(instant, ZoneOffset.UTC), Long.parseLong(parts[2]));
+		} catch (IllegalArgumentException | java.time.DateTimeException e) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+}
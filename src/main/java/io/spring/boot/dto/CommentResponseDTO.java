@@ -1,6 +1,7 @@
 package io.spring.boot.dto;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 import io.spring.boot.entity.Comment;
 import io.spring.boot.entity.Profile;
@@ -8,6 +9,9 @@ import jakarta.validation.constraints.NotNull;
 
 public class CommentResponseDTO {
 	
+	// Names accepted by fields= on the comment listing
+	public static final List<String> FIELDS = List.of("id", "createdAt", "updatedAt", "body", "author");
+	
 	@NotNull
 	private final Long id;
 	@NotNull
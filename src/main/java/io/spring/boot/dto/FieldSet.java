@@ -0,0 +1,53 @@
+package io.spring.boot.dto;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields= parameter of a listing or profile: a comma separated subset of the top-level fields of each item,
+ * e.g. fields=slug,title,favoritesCount. Only those fields are written, and only the columns and joins they need are
+ * queried. An absent or blank parameter keeps every field; an unknown name is rejected.
+ */
+public final class FieldSet {
+
+	private final List<String> names;
+	private final boolean all;
+
+	private FieldSet(List<String> names, boolean all) {
+		this.names = names;
+		this.all = all;
+	}
+
+	// Names keep the order of the available fields, whatever the order of the parameter
+	public static FieldSet parse(String fields, List<String> available) {
+		Set<String> requested = fields == null ? Set.of() : Arrays.stream(fields.split(","))
+				.map(String::trim)
+				.filter(name -> !name.isEmpty())
+				.collect(Collectors.toCollection(HashSet::new));
+		if (requested.isEmpty()) {
+			return new FieldSet(available, true);
+		}
+		for (String name : requested) {
+			if (!available.contains(name)) {
+				throw new IllegalArgumentException("Unknown field: " + name + ", expected some of " + String.join(",", available));
+			}
+		}
+		List<String> names = available.stream().filter(requested::contains).toList();
+		return new FieldSet(names, names.size() == available.size());
+	}
+
+	public boolean isAll() {
+		return all;
+	}
+
+	public boolean contains(String name) {
+		return names.contains(name);
+	}
+
+	public List<String> names() {
+		return names;
+	}
+}
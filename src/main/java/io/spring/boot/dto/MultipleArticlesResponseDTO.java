@@ -7,6 +7,10 @@ import io.spring.boot.entity.Article;
 
 public class MultipleArticlesResponseDTO {
 	
+	// Names accepted by fields= on the article listings, in the order they are written
+	public static final List<String> FIELDS = List.of("slug", "title", "description", "tagList", "createdAt", "updatedAt",
+			"favorited", "favoritesCount", "commentsCount", "author");
+	
 	private final String slug;
 	private final String title;
 	private final String description;
@@ -15,6 +19,7 @@ public class MultipleArticlesResponseDTO {
 	private final OffsetDateTime updatedAt;
 	private final boolean favorited;
 	private final int favoritesCount;
+	private final int commentsCount;
 	private final AuthorResponseDTO author;
 	
 	public MultipleArticlesResponseDTO(Article article, boolean favorited, boolean following) {
@@ -26,6 +31,7 @@ public class MultipleArticlesResponseDTO {
 		this.updatedAt = article.getUpdatedAt();
 		this.favorited = favorited;
 		this.favoritesCount = article.getFavoritedCount();
+		this.commentsCount = article.getCommentsCount();
 		this.author = new AuthorResponseDTO(article.getAuthor().getProfile(), following);
 	}
 
@@ -61,6 +67,10 @@ public class MultipleArticlesResponseDTO {
 		return favoritesCount;
 	}
 
+	public int getCommentsCount() {
+		return commentsCount;
+	}
+
 	public AuthorResponseDTO getAuthor() {
 		return author;
 	}
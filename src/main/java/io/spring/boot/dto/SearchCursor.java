@@ -0,0 +1,33 @@
+package io.spring.boot.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for search results, ordered by (score DESC, id DESC).
+ * The score is kept bit for bit so the next page starts exactly after the last hit returned.
+ */
+public record SearchCursor(float score, long id) {
+
+	public String encode() {
+		String raw = Float.floatToIntBits(score) + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// Returns null for a missing cursor (first page)
+	public static SearchCursor decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = raw.split(":");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Invalid cursor");
+			}
+			return new SearchCursor(Float.intBitsToFloat(Integer.parseInt(parts[0])), Long.parseLong(parts[1]));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+}
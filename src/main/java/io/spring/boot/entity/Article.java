@@ -9,6 +9,8 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.hibernate.annotations.OptimisticLock;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -21,8 +23,10 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 
 /**
  * 
@@ -32,10 +36,12 @@ import jakarta.persistence.Transient;
 public class Article {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "articles_seq")
+	@SequenceGenerator(name = "articles_seq", sequenceName = "articles_seq", allocationSize = 50)
 	private Long id;
 	
-	@Column(name = "slug")
+	// Unique index: every lookup by slug is an index seek, ArticleSlugService suffixes colliding titles
+	@Column(name = "slug", unique = true, nullable = false)
 	private String slug;
 	
 	@Column(name = "title", unique = true, nullable = false)
@@ -44,7 +50,8 @@ public class Article {
 	@Column(name = "description", nullable = false)
 	private String description;
 	
-	@Column(name = "body", nullable = false)
+	// Markdown of any realistic length, the default VARCHAR(255) rejected most articles
+	@Column(name = "body", nullable = false, length = 1_000_000)
 	private String body;
 	
 	@Column(name = "created_at", nullable = false)
@@ -53,16 +60,37 @@ public class Article {
 	@Column(name = "updated_at")
 	private OffsetDateTime updatedAt;
 	
+	// Denormalized counter, only changed by set-based updates (ArticleRepository) so entity saves never write back a stale value
+	@Column(name = "comments_count", nullable = false, updatable = false)
+	private int commentsCount = 0;
+	
+	// Exposed as the ETag of the article, checked against If-Match on PUT and DELETE
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
+	
 	@Transient
 	private boolean favorited = false;
 	
+	// Write-behind favorites: the acting user's toggle not flushed yet (see applyPendingFavorite)
+	@Transient
+	private Long pendingFavoriteUserId;
+	@Transient
+	private boolean pendingFavorite;
+	// Count of articles_favorites read by query, used instead of the size of favoritedBy when set
+	@Transient
+	private Integer favoritesCount;
+	
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "author_id", referencedColumnName = "id", nullable = false)
 	private User author;
 	
+	// Comments and favorites are not edits of the article: they leave its version unchanged
+	@OptimisticLock(excluded = true)
 	@OneToMany(mappedBy = "article", cascade = CascadeType.ALL, orphanRemoval = true)
 	private Set<Comment> article_comments = new HashSet<Comment>();
 	
+	@OptimisticLock(excluded = true)
 	@ManyToMany
 	@JoinTable(
 			name = "articles_favorites", 
@@ -115,11 +143,7 @@ public class Article {
         if (title == null || title.trim().isEmpty()) {
             throw new IllegalArgumentException("Title cannot be null or empty");
         }
-        return title.trim()
-                .toLowerCase()
-                .replaceAll("[^a-z0-9\\s-]", "") // Remove special characters
-                .replaceAll("\\s+", "-")         // Replace spaces with dashes
-                .replaceAll("-+", "-");          // Replace multiple dashes with single dash
+        return SlugGenerator.slugify(title);
     }
 
     public Article favoriteArticle(User user) {
@@ -137,6 +161,28 @@ public class Article {
         return this;
     }
     
+    // Overlays a favorite toggle of the user still buffered in memory, for read-your-writes
+    public Article applyPendingFavorite(Long userId, boolean favorite) {
+    	pendingFavoriteUserId = userId;
+    	pendingFavorite = favorite;
+    	favorited = favorite;
+    	return this;
+    }
+    
+    // Same overlay on a count read by query (ArticleRepository.countFavoritesOf), persisted telling whether that count
+    // includes the user's row: favoritedBy stays unloaded
+    public Article applyPendingFavorite(Long userId, boolean favorite, long persistedCount, boolean persisted) {
+    	favoritesCount = (int) persistedCount + (favorite == persisted ? 0 : favorite ? 1 : -1);
+    	return applyPendingFavorite(userId, favorite);
+    }
+    
+    public boolean isFavoritedBy(Long userId) {
+    	if (userId != null && userId.equals(pendingFavoriteUserId)) {
+    		return pendingFavorite;
+    	}
+    	return favoritedBy.stream().anyMatch(u -> u.getId().equals(userId));
+    }
+    
 	public Long getId() {
 		return id;
 	}
@@ -193,6 +239,10 @@ public class Article {
 		this.createdAt = createdAt;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
 	public OffsetDateTime getUpdatedAt() {
 		return updatedAt;
 	}
@@ -217,8 +267,19 @@ public class Article {
 		this.favoritedBy = favoritedBy;
 	}
 	
+	public int getCommentsCount() {
+		return commentsCount;
+	}
+	
 	public int getFavoritedCount() {
-		return favoritedBy.size();
+		if (favoritesCount != null) {
+			return favoritesCount;
+		}
+		if (pendingFavoriteUserId == null) {
+			return favoritedBy.size();
+		}
+		boolean persisted = favoritedBy.stream().anyMatch(u -> u.getId().equals(pendingFavoriteUserId));
+		return favoritedBy.size() + (pendingFavorite == persisted ? 0 : pendingFavorite ? 1 : -1);
 	}
 	
 	// Helper method to get the list of tag names
@@ -0,0 +1,98 @@
+package io.spring.boot.entity;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Title to slug in one pass over the characters, with lookup tables instead of regular expressions.
+ * For ASCII titles the output is the one of the former chain
+ *   trim().toLowerCase().replaceAll("[^a-z0-9\\s-]", "").replaceAll("\\s+", "-").replaceAll("-+", "-")
+ * letters and digits are kept lower-cased, runs of whitespace and dashes become one dash and anything else
+ * is dropped without breaking a run. Accented Latin letters (Latin-1 Supplement and Latin Extended-A) are
+ * transliterated instead of dropped: "Crème Brûlée" gives creme-brulee, "Straße" gives strasse.
+ * The only allocations are a scratch buffer and the resulting String.
+ */
+final class SlugGenerator {
+
+	private static final byte DROP = 0;
+	private static final byte DASH = '-';
+
+	// What each ASCII character becomes: itself lower-cased, a dash, or nothing
+	private static final byte[] ASCII = new byte[128];
+
+	// Transliterations of U+00C0 to U+017F, null where the character is dropped (× and ÷)
+	private static final byte[][] LATIN = new byte[0x180 - 0xC0][];
+
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			ASCII[c] = (byte) c;
+			ASCII[c - 'a' + 'A'] = (byte) c;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			ASCII[c] = (byte) c;
+		}
+		// The whitespace of the \s character class, and the dash itself
+		for (char c : new char[] { ' ', '\t', '\n', '\u000B', '\f', '\r', '-' }) {
+			ASCII[c] = DASH;
+		}
+		String[] latin = (
+				/* U+00C0 */ "a a a a a a ae c e e e e i i i i " +
+				/* U+00D0 */ "d n o o o o o . o u u u u y th ss " +
+				/* U+00E0 */ "a a a a a a ae c e e e e i i i i " +
+				/* U+00F0 */ "d n o o o o o . o u u u u y th y " +
+				/* U+0100 */ "a a a a a a c c c c c c c c d d " +
+				/* U+0110 */ "d d e e e e e e e e e e g g g g " +
+				/* U+0120 */ "g g g g h h h h i i i i i i i i " +
+				/* U+0130 */ "i i ij ij j j k k k l l l l l l l " +
+				/* U+0140 */ "l l l n n n n n n n n n o o o o " +
+				/* U+0150 */ "o o oe oe r r r r r r s s s s s s " +
+				/* U+0160 */ "s s t t t t t t u u u u u u u u " +
+				/* U+0170 */ "u u u u w w y y y z z z z z z s").split(" ");
+		for (int i = 0; i < LATIN.length; i++) {
+			LATIN[i] = latin[i].equals(".") ? null : latin[i].getBytes(StandardCharsets.US_ASCII);
+		}
+	}
+
+	private SlugGenerator() {
+	}
+
+	static String slugify(String title) {
+		int start = 0;
+		int end = title.length();
+		// Same bounds as String.trim()
+		while (start < end && title.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && title.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		// A transliteration is at most two letters per character
+		byte[] slug = new byte[2 * (end - start)];
+		int length = 0;
+		for (int i = start; i < end; i++) {
+			char c = title.charAt(i);
+			if (c < 128) {
+				byte mapped = ASCII[c];
+				if (mapped == DASH) {
+					if (length == 0 || slug[length - 1] != DASH) {
+						slug[length++] = DASH;
+					}
+				} else if (mapped != DROP) {
+					slug[length++] = mapped;
+				}
+			} else if (c >= 0xC0 && c < 0x180) {
+				byte[] letters = LATIN[c - 0xC0];
+				if (letters != null) {
+					for (byte letter : letters) {
+						slug[length++] = letter;
+					}
+				}
+			} else if (c == '\u00A0') {
+				// A no-break space separates words like a space
+				if (length == 0 || slug[length - 1] != DASH) {
+					slug[length++] = DASH;
+				}
+			}
+		}
+		return new String(slug, 0, length, StandardCharsets.ISO_8859_1);
+	}
+}
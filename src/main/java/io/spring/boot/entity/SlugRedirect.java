@@ -0,0 +1,58 @@
+package io.spring.boot.entity;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/*
+ * A slug an article gave up when its title changed, so that old links keep resolving.
+ * The foreign key deletes the row with the article, whichever delete path removes it.
+ */
+@Entity
+@Table(name = "article_slug_redirects")
+public class SlugRedirect {
+
+	@Id
+	@Column(name = "old_slug")
+	private String oldSlug;
+	
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "article_id", nullable = false)
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	private Article article;
+	
+	@Column(name = "created_at", nullable = false)
+	private OffsetDateTime createdAt;
+	
+	// Default constructor for JPA
+	protected SlugRedirect() {
+	}
+	
+	public SlugRedirect(String oldSlug, Article article) {
+		this.oldSlug = oldSlug;
+		this.article = article;
+		this.createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+	}
+
+	public String getOldSlug() {
+		return oldSlug;
+	}
+
+	public Article getArticle() {
+		return article;
+	}
+
+	public OffsetDateTime getCreatedAt() {
+		return createdAt;
+	}
+}
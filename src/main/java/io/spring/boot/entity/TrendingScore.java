@@ -0,0 +1,49 @@
+package io.spring.boot.entity;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/*
+ * Saved trending score of an article: its decayed value at scoredAt, decayed further when loaded back.
+ * Written in bulk by TrendingArticlesService, rows of deleted articles are skipped when loading.
+ */
+@Entity
+@Table(name = "article_trending_scores")
+public class TrendingScore {
+
+	@Id
+	@Column(name = "article_id")
+	private Long articleId;
+	
+	@Column(nullable = false)
+	private double score;
+	
+	@Column(name = "scored_at", nullable = false)
+	private OffsetDateTime scoredAt;
+	
+	// Default constructor for JPA
+	protected TrendingScore() {
+	}
+	
+	public TrendingScore(Long articleId, double score, OffsetDateTime scoredAt) {
+		this.articleId = articleId;
+		this.score = score;
+		this.scoredAt = scoredAt;
+	}
+
+	public Long getArticleId() {
+		return articleId;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public OffsetDateTime getScoredAt() {
+		return scoredAt;
+	}
+}
@@ -3,7 +3,10 @@
  */
 package io.spring.boot.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -19,22 +22,129 @@ import io.spring.boot.entity.User;
  * 
  */
 @Repository
-public interface ArticleRepository extends JpaRepository<Article, Long>{
+public interface ArticleRepository extends JpaRepository<Article, Long>, ArticleRepositoryCustom {
 	
 	Optional<Article> findBySlug(String slug);
 	boolean existsBySlug(String slug);
+	
+	/*
+	 * Slugs of a family (the base and base-<digits>) already in use, live or kept as a redirect, in one round trip:
+	 * both parts are range scans of a unique index on the prefix, filtered down to the numbered duplicates, so other
+	 * slugs sharing the prefix (java-streams for java) are not returned. currentSlug leaves out the article being renamed
+	 */
+	@Query(value = "SELECT slug FROM articles WHERE (slug = :base OR (slug LIKE :prefix AND REGEXP_LIKE(slug, :numbered))) " +
+			"AND (:currentSlug IS NULL OR slug <> :currentSlug) " +
+			"UNION SELECT old_slug FROM article_slug_redirects WHERE (old_slug = :base OR (old_slug LIKE :prefix AND REGEXP_LIKE(old_slug, :numbered))) " +
+			"AND (:currentSlug IS NULL OR article_id <> (SELECT id FROM articles WHERE slug = :currentSlug))", nativeQuery = true)
+	List<String> findTakenSlugs(String base, String prefix, String numbered, String currentSlug);
+	
+	// Exact matches only, to check a whole import chunk at once
+	@Query(value = "SELECT slug FROM articles WHERE slug IN (:slugs) UNION SELECT old_slug FROM article_slug_redirects WHERE old_slug IN (:slugs)", nativeQuery = true)
+	List<String> findTakenSlugsIn(Collection<String> slugs);
 	void deleteBySlug(String slug);
 	Page<Article> findAll(Pageable pageable);	//pagination (limit and offset) handled in the controller
 	
 	// The repository should handle data retrieval and filtering
-	@Query("SELECT a FROM Article a WHERE a.author IN (" +
-	           "SELECT fu FROM User u JOIN u.followedUsers fu WHERE u.id = :userId)")
-	Page<Article> findFeed(Long userId, Pageable pageable);
-    
-	@Query("SELECT a FROM Article a WHERE " +
+	String FEED = "FROM Article a WHERE a.author IN (" +
+	           "SELECT fu FROM User u JOIN u.followedUsers fu WHERE u.id = :userId)";
+	String CRITERIA = "FROM Article a WHERE " +
 	           "(:tag IS NULL OR EXISTS (SELECT 1 FROM a.tags t WHERE t.name = :tag)) AND " +
 	           "(:authorUsername IS NULL OR a.author.profile.username = :authorUsername) AND " +
 	           "(:favoritedByUsername IS NULL OR :favoritedByUsername IN " +
-	           "(SELECT u.profile.username FROM a.favoritedBy u))")
+	           "(SELECT u.profile.username FROM a.favoritedBy u))";
+	
+	@Query("SELECT a " + FEED)
+	Page<Article> findFeed(Long userId, Pageable pageable);
+	
+	@Query("SELECT a " + CRITERIA)
 	Page<Article> findByCriteria(String tag, String authorUsername, String favoritedByUsername, Pageable pageable);
+	
+	// Same pages as above, ids only: the streamed listings load the articles themselves chunk by chunk
+	@Query("SELECT a.id " + FEED)
+	Page<Long> findFeedIds(Long userId, Pageable pageable);
+	
+	@Query("SELECT a.id " + CRITERIA)
+	Page<Long> findIdsByCriteria(String tag, String authorUsername, String favoritedByUsername, Pageable pageable);
+	
+	@Query("SELECT COUNT(u) > 0 FROM Article a JOIN a.favoritedBy u WHERE a.id = :articleId AND u.id = :userId")
+	boolean isFavoritedBy(Long articleId, Long userId);
+	
+	// (slug, id) pairs of the live articles among the slugs, one index range per slug
+	@Query("SELECT a.slug, a.id FROM Article a WHERE a.slug IN :slugs")
+	List<Object[]> findIdsBySlugIn(Collection<String> slugs);
+	
+	// From articles_favorites alone, the favoritedBy collection is not loaded. The user's own row is counted by the same
+	// statement, so both come from one snapshot
+	@Query("SELECT COUNT(u) AS total, COUNT(CASE WHEN u.id = :userId THEN 1 END) AS byUser "
+			+ "FROM Article a JOIN a.favoritedBy u WHERE a.id = :articleId")
+	FavoritesCount countFavoritesOf(Long articleId, Long userId);
+	
+	interface FavoritesCount {
+		long getTotal();
+		long getByUser();
+	}
+	
+	// Ids among the articles that the user favorites, for a whole page in one statement
+	@Query("SELECT a.id FROM Article a JOIN a.favoritedBy u WHERE u.id = :userId AND a.id IN :articleIds")
+	Set<Long> findFavoritedIdsAmong(Long userId, Collection<Long> articleIds);
+	
+	// (article id, tag name) pairs of the articles, from article_tags joined to tags only
+	@Query("SELECT a.id, t.name FROM Article a JOIN a.tags t WHERE a.id IN :articleIds")
+	List<Object[]> findTagNamesOf(Collection<Long> articleIds);
+	
+	// Set-based delete of articles: children first, one statement per table, nothing loaded in the persistence context
+	@Modifying(flushAutomatically = true)
+	@Query("DELETE FROM Comment c WHERE c.article.id IN :articleIds")
+	int deleteCommentsOfArticles(Collection<Long> articleIds);
+	
+	@Modifying
+	@Query(value = "DELETE FROM articles_favorites WHERE article_id IN (:articleIds)", nativeQuery = true)
+	int deleteFavoritesOfArticles(Collection<Long> articleIds);
+	
+	@Modifying
+	@Query(value = "DELETE FROM article_tags WHERE article_id IN (:articleIds)", nativeQuery = true)
+	int deleteTagLinksOfArticles(Collection<Long> articleIds);
+	
+	// A null version deletes unconditionally
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM Article a WHERE a.id = :articleId AND (:version IS NULL OR a.version = :version)")
+	int deleteArticleRow(Long articleId, Long version);
+	
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM Article a WHERE a.id IN :articleIds")
+	int deleteArticleRows(Collection<Long> articleIds);
+	
+	// Next chunk of an author's articles for the background account deletion
+	@Query("SELECT a.id FROM Article a WHERE a.author.id = :authorId ORDER BY a.id")
+	List<Long> findIdsByAuthor(Long authorId, Pageable pageable);
+	
+	long countByAuthorId(Long authorId);
+	
+	// Explains why a conditional statement matched no row
+	@Query("SELECT a.id AS id, a.author.id AS authorId, a.version AS version FROM Article a WHERE a.slug = :slug")
+	Optional<ArticleVersion> findVersionBySlug(String slug);
+	
+	interface ArticleVersion {
+		Long getId();
+		Long getAuthorId();
+		Long getVersion();
+	}
+	
+	// Atomic in the database, concurrent comment writers never lose an increment
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Article a SET a.commentsCount = a.commentsCount + :delta WHERE a.id = :articleId")
+	int adjustCommentsCount(Long articleId, int delta);
+	
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Article a SET a.commentsCount = a.commentsCount + :delta WHERE a.slug = :slug")
+	int adjustCommentsCountBySlug(String slug, int delta);
+	
+	// Recomputes the counter for one id range, touching only the rows that drifted
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Article a SET a.commentsCount = (SELECT COUNT(c) FROM Comment c WHERE c.article = a) " +
+			"WHERE a.id BETWEEN :fromId AND :toId AND a.commentsCount <> (SELECT COUNT(c) FROM Comment c WHERE c.article = a)")
+	int reconcileCommentsCount(Long fromId, Long toId);
+	
+	@Query("SELECT MAX(a.id) FROM Article a")
+	Long findMaxId();
 }
\ No newline at end of file
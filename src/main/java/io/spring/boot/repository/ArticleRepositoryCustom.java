@@ -0,0 +1,27 @@
+package io.spring.boot.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import jakarta.persistence.Tuple;
+
+/*
+ * Statements built per call, see ArticleRepositoryCustomImpl
+ */
+public interface ArticleRepositoryCustom {
+
+	// Partial update: a null field is left alone and not even listed in the SET clause
+	int updateIfOwnedAndCurrent(String slug, Long authorId, Long version, String title, String newSlug,
+								String description, String body, OffsetDateTime updatedAt);
+	
+	// Detaches every entity loaded so far, so a long read-only walk holds one chunk at a time
+	void clear();
+	
+	/*
+	 * Sparse fieldsets: "id" and only the columns of the given fields of the articles, in no particular order.
+	 * favoritesCount is a count of articles_favorites, author the "author.*" id, username, bio and image of a join
+	 * made only then. Fields not stored with the article (tagList, favorited) are ignored.
+	 */
+	List<Tuple> findFields(Collection<Long> ids, Collection<String> fields);
+}
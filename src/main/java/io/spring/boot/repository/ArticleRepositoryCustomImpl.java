@@ -0,0 +1,93 @@
+package io.spring.boot.repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/*
+ * updateIfOwnedAndCurrent: the UPDATE lists only the columns the request changes, ownership and version go into the
+ * WHERE clause. No SELECT beforehand, and an untouched body is neither sent to the database nor rewritten by it.
+ * Flushes before and clears after, like @Modifying(flushAutomatically = true, clearAutomatically = true).
+ *
+ * findFields: a tuple query selecting the requested columns only, joining the author only when it is requested.
+ */
+class ArticleRepositoryCustomImpl implements ArticleRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public int updateIfOwnedAndCurrent(String slug, Long authorId, Long version, String title, String newSlug,
+										String description, String body, OffsetDateTime updatedAt) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Article> update = cb.createCriteriaUpdate(Article.class);
+		Root<Article> article = update.from(Article.class);
+		if (title != null) {
+			update.set(article.<String>get("title"), title);
+			update.set(article.<String>get("slug"), newSlug);
+		}
+		if (description != null) {
+			update.set(article.<String>get("description"), description);
+		}
+		if (body != null) {
+			update.set(article.<String>get("body"), body);
+		}
+		update.set(article.<OffsetDateTime>get("updatedAt"), updatedAt);
+		update.set(article.<Long>get("version"), cb.sum(article.<Long>get("version"), 1L));
+		
+		Predicate owned = cb.and(cb.equal(article.get("slug"), slug), cb.equal(article.get("author").get("id"), authorId));
+		update.where(version == null ? owned : cb.and(owned, cb.equal(article.get("version"), version)));
+		
+		entityManager.flush();
+		int updated = entityManager.createQuery(update).executeUpdate();
+		entityManager.clear();
+		return updated;
+	}
+	
+	@Override
+	public void clear() {
+		entityManager.clear();
+	}
+	
+	@Override
+	public List<Tuple> findFields(Collection<Long> ids, Collection<String> fields) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Article> article = query.from(Article.class);
+		List<Selection<?>> selections = new ArrayList<>();
+		selections.add(article.get("id").alias("id"));
+		for (String field : fields) {
+			switch (field) {
+				case "slug", "title", "description", "body", "createdAt", "updatedAt", "commentsCount" ->
+						selections.add(article.get(field).alias(field));
+				case "favoritesCount" -> selections.add(cb.size(article.<Collection<User>>get("favoritedBy")).alias(field));
+				case "author" -> {
+					Join<Article, User> author = article.join("author");
+					selections.add(author.get("id").alias("author.id"));
+					for (String column : List.of("username", "bio", "image")) {
+						selections.add(author.get("profile").get(column).alias("author." + column));
+					}
+				}
+				default -> {
+					// Not a column of articles
+				}
+			}
+		}
+		query.multiselect(selections).where(article.get("id").in(ids));
+		return entityManager.createQuery(query).getResultList();
+	}
+}
@@ -1,8 +1,12 @@
 package io.spring.boot.repository;
 
-import java.util.Set;
+import java.time.OffsetDateTime;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,8 +14,27 @@ import org.springframework.stereotype.Repository;
 import io.spring.boot.entity.Comment;
 
 @Repository
-public interface CommentRepository extends JpaRepository <Comment, Long>{
+public interface CommentRepository extends JpaRepository <Comment, Long>, CommentRepositoryCustom {
 
-    @Query("SELECT c FROM Comment c WHERE c.article.slug = :slug ORDER BY c.createdAt DESC")
-    Set<Comment> findBySlug(@Param("slug") String slug);
+	// Keyset pagination on (createdAt, id): the author is fetched in the same statement so a page costs one select.
+	// The Pageable must be unsorted, the order is part of the query.
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.article.slug = :slug ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findFirstPageBySlug(@Param("slug") String slug, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.article.slug = :slug AND " +
+    		"(c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+    		"ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findPageBySlugBefore(@Param("slug") String slug, @Param("createdAt") OffsetDateTime createdAt,
+    									@Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT c.article.id FROM Comment c WHERE c.id = :id")
+    Optional<Long> findArticleIdById(@Param("id") Long id);
+    
+    // Ownership, article and id are all checked by the DELETE itself: 1 row means deleted, 0 means missing or not owned
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id = :id AND c.author.id = :authorId " +
+    		"AND c.article.id IN (SELECT a.id FROM Article a WHERE a.slug = :slug)")
+    int deleteOwnedComment(@Param("id") Long id, @Param("slug") String slug, @Param("authorId") Long authorId);
+    
+    boolean existsByIdAndArticleSlug(Long id, String slug);
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package io.spring.boot.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import jakarta.persistence.Tuple;
+
+/*
+ * Statements built per call, see CommentRepositoryCustomImpl
+ */
+public interface CommentRepositoryCustom {
+
+	/*
+	 * Sparse fieldsets: the comments of an article in keyset order, as "id" and "createdAt" (the cursor) plus only the
+	 * columns of the given fields; author is the "author.*" id, username, bio and image of a join made only then.
+	 * A null createdAt starts at the newest comment. At most limit rows.
+	 */
+	List<Tuple> findFieldsBySlug(String slug, OffsetDateTime createdAt, Long id, int limit, Collection<String> fields);
+}
@@ -0,0 +1,59 @@
+package io.spring.boot.repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import io.spring.boot.entity.Comment;
+import io.spring.boot.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/*
+ * The keyset page of CommentRepository.findFirstPageBySlug / findPageBySlugBefore as a tuple query: the body is read
+ * and the author joined only when requested.
+ */
+class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<Tuple> findFieldsBySlug(String slug, OffsetDateTime createdAt, Long id, int limit, Collection<String> fields) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Comment> comment = query.from(Comment.class);
+		Path<OffsetDateTime> created = comment.get("createdAt");
+		Path<Long> commentId = comment.get("id");
+		List<Selection<?>> selections = new ArrayList<>(List.of(commentId.alias("id"), created.alias("createdAt")));
+		for (String field : fields) {
+			switch (field) {
+				case "updatedAt", "body" -> selections.add(comment.get(field).alias(field));
+				case "author" -> {
+					Join<Comment, User> author = comment.join("author");
+					selections.add(author.get("id").alias("author.id"));
+					for (String column : List.of("username", "bio", "image")) {
+						selections.add(author.get("profile").get(column).alias("author." + column));
+					}
+				}
+				default -> {
+					// id and createdAt are always selected
+				}
+			}
+		}
+		Predicate ofArticle = cb.equal(comment.get("article").get("slug"), slug);
+		Predicate where = createdAt == null ? ofArticle : cb.and(ofArticle,
+				cb.or(cb.lessThan(created, createdAt), cb.and(cb.equal(created, createdAt), cb.lessThan(commentId, id))));
+		query.multiselect(selections).where(where).orderBy(cb.desc(created), cb.desc(commentId));
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+}
@@ -0,0 +1,29 @@
+package io.spring.boot.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import io.spring.boot.entity.SlugRedirect;
+
+@Repository
+public interface SlugRedirectRepository extends JpaRepository<SlugRedirect, String> {
+
+	// Current slug of the article an old slug points to, by primary key
+	@Query("SELECT a.slug FROM SlugRedirect r JOIN r.article a WHERE r.oldSlug = :oldSlug")
+	Optional<String> findCurrentSlug(String oldSlug);
+	
+	// Plain INSERT, save() would first SELECT to tell a new row from an existing one by the assigned id
+	@Modifying
+	@Query(value = "INSERT INTO article_slug_redirects (old_slug, article_id, created_at) VALUES (:oldSlug, :articleId, :createdAt)", nativeQuery = true)
+	int insert(String oldSlug, Long articleId, OffsetDateTime createdAt);
+	
+	// An article taking back a slug it used before makes that slug live again
+	@Modifying
+	@Query("DELETE FROM SlugRedirect r WHERE r.oldSlug = :slug")
+	int deleteByOldSlug(String slug);
+}
@@ -1,5 +1,7 @@
 package io.spring.boot.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +10,7 @@ import org.springframework.stereotype.Repository;
 import io.spring.boot.entity.Tag;
 
 @Repository
-public interface TagRepository extends JpaRepository<Tag, Long> {
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
 	Optional<Tag> findByName(String name);
+	List<Tag> findByNameIn(Collection<String> names);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package io.spring.boot.repository;
+
+import java.util.Collection;
+
+/*
+ * Statements run through JDBC, see TagRepositoryCustomImpl
+ */
+public interface TagRepositoryCustom {
+
+	// Creates the tags among these names that do not exist yet, in the caller's transaction. Names taken meanwhile are skipped
+	void insertMissing(Collection<String> names);
+}
@@ -0,0 +1,44 @@
+package io.spring.boot.repository;
+
+import java.util.Collection;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/*
+ * Runs on the connection of the surrounding JPA transaction, so creating tags never needs a second pooled connection
+ * and the tags of a rolled back article are rolled back with it. The id comes from the entity's sequence: each value
+ * stands for a block the pooled optimizer never hands out itself.
+ * A duplicate is caught here rather than thrown through the repository, which would mark the caller's transaction
+ * rollback-only.
+ */
+class TagRepositoryCustomImpl implements TagRepositoryCustom {
+
+	private static final String INSERT_IF_ABSENT = "INSERT INTO tags (id, name) SELECT NEXT VALUE FOR tags_seq, ? "
+			+ "WHERE NOT EXISTS (SELECT 1 FROM tags WHERE name = ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	TagRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public void insertMissing(Collection<String> names) {
+		try {
+			jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, names, names.size(), (statement, name) -> {
+				statement.setString(1, name);
+				statement.setString(2, name);
+			});
+		} catch (DataIntegrityViolationException e) {
+			// Another transaction committed some of these names first: retry one by one, the others are skipped as existing
+			for (String name : names) {
+				try {
+					jdbcTemplate.update(INSERT_IF_ABSENT, name, name);
+				} catch (DataIntegrityViolationException duplicate) {
+					// Created concurrently, the caller's lookup picks it up
+				}
+			}
+		}
+	}
+}
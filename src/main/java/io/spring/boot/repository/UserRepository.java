@@ -3,22 +3,72 @@
  */
 package io.spring.boot.repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import io.spring.boot.entity.User;
 /**
  * 
  */
-public interface UserRepository extends JpaRepository<User, Long>{
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 	
 	Optional<User> findFirstByEmail(String email);
 	Optional<User> findFirstByProfileUsername(String username);
 	boolean existsByEmail(String email);
     boolean existsByProfileUsername(String username);
+    boolean existsByEmailAndIdNot(String email, Long id);
+    boolean existsByProfileUsernameAndIdNot(String username, Long id);
     
     @EntityGraph(attributePaths = "followedUsers")
     Optional<User> findWithFollowedUsersByEmail(String email);
-}
\ No newline at end of file
+    
+    // Ids among the candidates that the follower follows, resolved in one statement for a whole page of authors
+    @Query("SELECT f.id FROM User u JOIN u.followedUsers f WHERE u.id = :followerId AND f.id IN :candidateIds")
+    Set<Long> findFolloweeIdsAmong(Long followerId, Collection<Long> candidateIds);
+    
+    // Set-based account deletion, one statement per table and nothing loaded. The comments the user wrote on other
+    // people's articles come off their counters first
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Article a SET a.commentsCount = a.commentsCount - " +
+    		"(SELECT COUNT(c) FROM Comment c WHERE c.article = a AND c.author.id = :userId) " +
+    		"WHERE a.author.id <> :userId AND a.id IN (SELECT c.article.id FROM Comment c WHERE c.author.id = :userId)")
+    int discountCommentsOf(Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.author.id = :userId")
+    int deleteCommentsOf(Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.article.id IN (SELECT a.id FROM Article a WHERE a.author.id = :userId)")
+    int deleteCommentsOnArticlesOf(Long userId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM articles_favorites WHERE article_id IN (SELECT id FROM articles WHERE author_id = :userId)", nativeQuery = true)
+    int deleteFavoritesOnArticlesOf(Long userId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM article_tags WHERE article_id IN (SELECT id FROM articles WHERE author_id = :userId)", nativeQuery = true)
+    int deleteTagLinksOfArticlesOf(Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM Article a WHERE a.author.id = :userId")
+    int deleteArticlesOf(Long userId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM articles_favorites WHERE user_id = :userId", nativeQuery = true)
+    int deleteFavoritesOf(Long userId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM user_followings WHERE follower_id = :userId OR followee_id = :userId", nativeQuery = true)
+    int deleteFollowsOf(Long userId);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id = :userId")
+    int deleteUserRow(Long userId);
+}
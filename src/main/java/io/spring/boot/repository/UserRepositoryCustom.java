@@ -0,0 +1,18 @@
+package io.spring.boot.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import jakarta.persistence.Tuple;
+
+/*
+ * Statements built per call, see UserRepositoryCustomImpl
+ */
+public interface UserRepositoryCustom {
+
+	// Partial update: a null field is left alone and not even listed in the SET clause. Returns 0 for an unknown id
+	int updateChangedColumns(Long id, String email, String password, String username, String bio, String image);
+	
+	// Sparse fieldsets: "id" and only the given columns of the profile (username, bio, image), others are ignored
+	Optional<Tuple> findProfileFields(String username, Collection<String> fields);
+}
@@ -0,0 +1,77 @@
+package io.spring.boot.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import io.spring.boot.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/*
+ * The UPDATE lists only the columns the request changes, keyed by the id of the authenticated user: no SELECT beforehand.
+ * Flushes before and clears after, like @Modifying(flushAutomatically = true, clearAutomatically = true).
+ * The profile projection selects the requested columns only.
+ */
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public int updateChangedColumns(Long id, String email, String password, String username, String bio, String image) {
+		if (email == null && password == null && username == null && bio == null && image == null) {
+			return entityManager.createQuery("SELECT COUNT(u) FROM User u WHERE u.id = :id", Long.class)
+					.setParameter("id", id).getSingleResult().intValue();
+		}
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+		Root<User> user = update.from(User.class);
+		Path<Object> profile = user.get("profile");
+		if (email != null) {
+			update.set(user.<String>get("email"), email);
+		}
+		if (password != null) {
+			update.set(user.<String>get("password"), password);
+		}
+		if (username != null) {
+			update.set(profile.<String>get("username"), username);
+		}
+		if (bio != null) {
+			update.set(profile.<String>get("bio"), bio);
+		}
+		if (image != null) {
+			update.set(profile.<String>get("image"), image);
+		}
+		update.where(cb.equal(user.get("id"), id));
+		
+		entityManager.flush();
+		int updated = entityManager.createQuery(update).executeUpdate();
+		entityManager.clear();
+		return updated;
+	}
+
+	@Override
+	public Optional<Tuple> findProfileFields(String username, Collection<String> fields) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<User> user = query.from(User.class);
+		Path<Object> profile = user.get("profile");
+		List<Selection<?>> selections = new ArrayList<>(List.of(user.get("id").alias("id")));
+		for (String field : fields) {
+			if (List.of("username", "bio", "image").contains(field)) {
+				selections.add(profile.get(field).alias(field));
+			}
+		}
+		query.multiselect(selections).where(cb.equal(profile.get("username"), username));
+		return entityManager.createQuery(query).setMaxResults(1).getResultStream().findFirst();
+	}
+}
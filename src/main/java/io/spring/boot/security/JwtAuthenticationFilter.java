@@ -2,6 +2,7 @@ package io.spring.boot.security;
 
 
 import java.io.IOException;
+import java.util.NoSuchElementException;
 import java.nio.file.attribute.UserPrincipal;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -50,7 +51,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // Proceed only if email is valid and no user is already authenticated
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userService.loadUserByUsername(userEmail); // Load UserDetails (our User entity) by email using UserService
+            UserDetails userDetails; // Load UserDetails (our User entity) by email using UserService
+            try {
+            	userDetails = this.userService.loadUserByUsername(userEmail);
+            } catch (NoSuchElementException e) {
+            	// The account was deleted after the token was issued: carry on as an anonymous request
+            	filterChain.doFilter(request, response);
+            	return;
+            }
 
             // Validate the JWT (checks signature and expiration) using JwtService
             if (jwtService.isTokenValid(jwt, userDetails)) {
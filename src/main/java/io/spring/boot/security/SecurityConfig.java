@@ -35,11 +35,16 @@ public class SecurityConfig {
                         // Public endpoints (no authentication required)
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                 		.requestMatchers("/api/users", "/api/users/login").permitAll()
-                        .requestMatchers("/api/tags").permitAll()
+                        .requestMatchers("/api/tags", "/api/tags/suggest").permitAll()
                         .requestMatchers("/api/articles").permitAll()
+                        .requestMatchers("/api/articles/import", "/api/articles/export").authenticated()
+                        .requestMatchers("/api/articles/search", "/api/articles/trending").permitAll()
                         .requestMatchers("/api/articles/{slug}").permitAll()
+                        .requestMatchers("/api/articles/{slug}/related").permitAll()
                         .requestMatchers("/api/articles/{slug}/comments").permitAll()
+                        .requestMatchers("/api/articles/{slug}/comments/stream").permitAll()
                         .requestMatchers("/api/profiles/{username}").permitAll()
+                        .requestMatchers("/api/user/deletions/{id}").permitAll()
                         // Authenticated endpoints (require JWT)
                         .requestMatchers("/api/user").authenticated()
                         .requestMatchers("/api/profiles/{username}/follow").authenticated()
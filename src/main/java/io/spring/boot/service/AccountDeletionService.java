@@ -0,0 +1,158 @@
+package io.spring.boot.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.spring.boot.dto.AccountDeletionDTO;
+import io.spring.boot.dto.AccountDeletionDTO.State;
+import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Background deletion of large accounts. UserService.deleteUser removes an account with set-based statements in a
+ * single transaction; for a prolific author that transaction still holds locks on every row of their history.
+ * Here the articles go chunk-size at a time, one transaction per chunk, and UserService.deleteUser removes what is
+ * left in the final step. A job interrupted half way leaves a consistent, smaller account that can be deleted again.
+ */
+@Service
+public class AccountDeletionService {
+
+	private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+	private final UserService userService;
+	private final UserRepository userRepository;
+	private final ArticleRepository articleRepository;
+	private final TransactionTemplate transaction;
+	private final Executor worker;
+	private final int chunkSize;
+	private final Duration retention;
+
+	@Autowired
+	public AccountDeletionService(UserService userService, UserRepository userRepository,
+								ArticleRepository articleRepository, PlatformTransactionManager transactionManager,
+								@Value("${users.deletion.chunk-size:500}") int chunkSize,
+								@Value("${users.deletion.job-retention:PT1H}") Duration retention) {
+		this(userService, userRepository, articleRepository, transactionManager, chunkSize, retention,
+				Executors.newSingleThreadExecutor(r -> {
+					Thread thread = new Thread(r, "account-deletion");
+					thread.setDaemon(true);
+					return thread;
+				}));
+	}
+
+	// Visible for testing
+	AccountDeletionService(UserService userService, UserRepository userRepository, ArticleRepository articleRepository,
+						PlatformTransactionManager transactionManager, int chunkSize, Duration retention, Executor worker) {
+		this.userService = userService;
+		this.userRepository = userRepository;
+		this.articleRepository = articleRepository;
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.chunkSize = chunkSize;
+		this.retention = retention;
+		this.worker = worker;
+	}
+
+	// A deletion already running for the user is returned instead of starting a second one
+	public synchronized AccountDeletionDTO startDeletion(Long userId) {
+		if (!userRepository.existsById(userId)) {
+			throw new NoSuchElementException("No existing user with given id: " + userId);
+		}
+		Instant expired = Instant.now().minus(retention);
+		jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(expired));
+		for (Job job : jobs.values()) {
+			if (job.userId.equals(userId) && job.state == State.RUNNING) {
+				return job.snapshot();
+			}
+		}
+		Job job = new Job(UUID.randomUUID().toString(), userId, articleRepository.countByAuthorId(userId));
+		jobs.put(job.id, job);
+		worker.execute(() -> run(job));
+		return job.snapshot();
+	}
+
+	public AccountDeletionDTO findDeletion(String id) {
+		Job job = jobs.get(id);
+		if (job == null) {
+			throw new NoSuchElementException("No account deletion with given id: " + id);
+		}
+		return job.snapshot();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (worker instanceof ExecutorService executor) {
+			executor.shutdownNow();
+		}
+	}
+
+	private void run(Job job) {
+		try {
+			int deleted;
+			do {
+				deleted = transaction.execute(status -> deleteArticleChunk(job.userId));
+				job.deletedArticles += deleted;
+			} while (deleted > 0 && !Thread.currentThread().isInterrupted());
+			if (Thread.currentThread().isInterrupted()) {
+				job.finish(State.FAILED, "Interrupted by shutdown, start the deletion again");
+				return;
+			}
+			userService.deleteUser(job.userId);
+			job.finish(State.COMPLETED, null);
+		} catch (RuntimeException e) {
+			job.finish(State.FAILED, e.getMessage());
+		}
+	}
+
+	private int deleteArticleChunk(Long userId) {
+		List<Long> articleIds = articleRepository.findIdsByAuthor(userId, PageRequest.of(0, chunkSize));
+		if (articleIds.isEmpty()) {
+			return 0;
+		}
+		articleRepository.deleteCommentsOfArticles(articleIds);
+		articleRepository.deleteFavoritesOfArticles(articleIds);
+		articleRepository.deleteTagLinksOfArticles(articleIds);
+		return articleRepository.deleteArticleRows(articleIds);
+	}
+
+	// Written by the worker thread only, read by the status requests
+	private static class Job {
+		private final String id;
+		private final Long userId;
+		private final long articles;
+		private volatile long deletedArticles;
+		private volatile State state = State.RUNNING;
+		private volatile String error;
+		private volatile Instant finishedAt;
+
+		private Job(String id, Long userId, long articles) {
+			this.id = id;
+			this.userId = userId;
+			this.articles = articles;
+		}
+
+		private void finish(State state, String error) {
+			this.error = error;
+			this.finishedAt = Instant.now();
+			this.state = state;
+		}
+
+		private AccountDeletionDTO snapshot() {
+			return new AccountDeletionDTO(id, state, articles, deletedArticles, error);
+		}
+	}
+}
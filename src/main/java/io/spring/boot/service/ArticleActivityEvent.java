@@ -0,0 +1,18 @@
+package io.spring.boot.service;
+
+/**
+ * Published by ArticleService and CommentService when readers favorite, unfavorite or comment on an article,
+ * delivered to the trending scores after commit. The user is the reader who (un)favorited, null for a comment.
+ */
+public record ArticleActivityEvent(Type type, Long articleId, Long userId) {
+
+	public enum Type { FAVORITED, UNFAVORITED, COMMENTED }
+
+	public static ArticleActivityEvent favorited(Long articleId, Long userId, boolean favorited) {
+		return new ArticleActivityEvent(favorited ? Type.FAVORITED : Type.UNFAVORITED, articleId, userId);
+	}
+
+	public static ArticleActivityEvent commented(Long articleId) {
+		return new ArticleActivityEvent(Type.COMMENTED, articleId, null);
+	}
+}
@@ -0,0 +1,25 @@
+package io.spring.boot.service;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Tag;
+
+/**
+ * Published by ArticleService and ArticleImportService once an article is created, updated or deleted,
+ * delivered to the search and related articles indexes after commit. Text fields and tag ids are only set for SAVED events.
+ */
+public record ArticleEvent(Type type, Long articleId, String title, String description, String body, Set<Long> tagIds) {
+
+	public enum Type { SAVED, DELETED }
+
+	public static ArticleEvent saved(Article article) {
+		return new ArticleEvent(Type.SAVED, article.getId(), article.getTitle(), article.getDescription(), article.getBody(),
+				article.getTags().stream().map(Tag::getId).collect(Collectors.toSet()));
+	}
+
+	public static ArticleEvent deleted(Long articleId) {
+		return new ArticleEvent(Type.DELETED, articleId, null, null, null, null);
+	}
+}
@@ -0,0 +1,154 @@
+package io.spring.boot.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Streams every article as one NDJSON line, in the import format plus slug, author, dates and counters.
+ * Articles, tag links and comments are read by three forward-only cursors ordered by article id and merged
+ * as they go, so nothing but the current rows is held in memory whatever the number of articles.
+ */
+@Service
+public class ArticleExportService {
+
+	private static final String ARTICLES_SQL = """
+			SELECT a.id, a.slug, a.title, a.description, a.body, a.created_at, a.updated_at, a.comments_count, u.username,
+			       (SELECT COUNT(*) FROM articles_favorites f WHERE f.article_id = a.id) AS favorites_count
+			FROM articles a JOIN users u ON u.id = a.author_id
+			ORDER BY a.id""";
+	private static final String TAGS_SQL = """
+			SELECT at.article_id, t.name
+			FROM article_tags at JOIN tags t ON t.id = at.tag_id
+			ORDER BY at.article_id, t.name""";
+	private static final String COMMENTS_SQL = """
+			SELECT c.article_id, c.id, c.body, c.created_at, u.username
+			FROM comments c JOIN users u ON u.id = c.author_id
+			ORDER BY c.article_id, c.created_at, c.id""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ObjectMapper objectMapper;
+	private final int fetchSize;
+
+	@Autowired
+	public ArticleExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+								@Value("${articles.export.fetch-size:500}") int fetchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.objectMapper = objectMapper;
+		this.fetchSize = fetchSize;
+	}
+
+	// Read-only transaction: some drivers (PostgreSQL) only honour the fetch size with auto-commit off
+	@Transactional(readOnly = true)
+	public void exportArticles(boolean withComments, OutputStream out) {
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+				write(connection, withComments, json);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return null;
+		});
+	}
+
+	private void write(Connection connection, boolean withComments, JsonGenerator json) throws SQLException, IOException {
+		try (PreparedStatement articleStatement = cursor(connection, ARTICLES_SQL);
+			 PreparedStatement tagStatement = cursor(connection, TAGS_SQL);
+			 PreparedStatement commentStatement = withComments ? cursor(connection, COMMENTS_SQL) : null;
+			 ResultSet articles = articleStatement.executeQuery();
+			 ResultSet tagRows = tagStatement.executeQuery();
+			 ResultSet commentRows = withComments ? commentStatement.executeQuery() : null) {
+
+			json.setRootValueSeparator(null);	// lines are ended explicitly, no space between root values
+
+			ChildCursor tags = new ChildCursor(tagRows);
+			ChildCursor comments = withComments ? new ChildCursor(commentRows) : null;
+
+			while (articles.next()) {
+				long articleId = articles.getLong("id");
+				json.writeStartObject();
+				json.writeStringField("slug", articles.getString("slug"));
+				json.writeStringField("title", articles.getString("title"));
+				json.writeStringField("description", articles.getString("description"));
+				json.writeStringField("body", articles.getString("body"));
+				json.writeArrayFieldStart("tagList");
+				while (tags.at(articleId)) {
+					json.writeString(tagRows.getString("name"));
+					tags.advance();
+				}
+				json.writeEndArray();
+				json.writeStringField("createdAt", timestamp(articles, "created_at"));
+				json.writeStringField("updatedAt", timestamp(articles, "updated_at"));
+				json.writeNumberField("favoritesCount", articles.getLong("favorites_count"));
+				json.writeNumberField("commentsCount", articles.getInt("comments_count"));
+				json.writeStringField("author", articles.getString("username"));
+				if (withComments) {
+					json.writeArrayFieldStart("comments");
+					while (comments.at(articleId)) {
+						json.writeStartObject();
+						json.writeNumberField("id", commentRows.getLong("id"));
+						json.writeStringField("body", commentRows.getString("body"));
+						json.writeStringField("createdAt", timestamp(commentRows, "created_at"));
+						json.writeStringField("author", commentRows.getString("username"));
+						json.writeEndObject();
+						comments.advance();
+					}
+					json.writeEndArray();
+				}
+				json.writeEndObject();
+				json.writeRaw('\n');
+			}
+			json.flush();
+		}
+	}
+
+	private PreparedStatement cursor(Connection connection, String sql) throws SQLException {
+		PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		statement.setFetchSize(fetchSize);
+		return statement;
+	}
+
+	private static String timestamp(ResultSet rs, String column) throws SQLException {
+		OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+		return value == null ? null : value.toString();
+	}
+
+	// Forward-only cursor over rows ordered by article_id, consumed in step with the articles cursor
+	private static final class ChildCursor {
+		private final ResultSet rows;
+		private boolean hasRow;
+
+		private ChildCursor(ResultSet rows) throws SQLException {
+			this.rows = rows;
+			this.hasRow = rows.next();
+		}
+
+		// True when the current row belongs to the given article; rows of articles not exported are skipped
+		private boolean at(long articleId) throws SQLException {
+			while (hasRow && rows.getLong("article_id") < articleId) {
+				hasRow = rows.next();
+			}
+			return hasRow && rows.getLong("article_id") == articleId;
+		}
+
+		private void advance() throws SQLException {
+			hasRow = rows.next();
+		}
+	}
+}
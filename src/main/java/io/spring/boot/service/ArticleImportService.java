@@ -0,0 +1,247 @@
+package io.spring.boot.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.spring.boot.dto.ArticleImportReportDTO;
+import io.spring.boot.dto.ArticleImportReportDTO.LineError;
+import io.spring.boot.dto.ArticlePostRequestDTO;
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Tag;
+import io.spring.boot.entity.User;
+import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.TagRepository;
+import io.spring.boot.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+
+/*
+ * Bulk import of articles from NDJSON, one {"title", "description", "body", "tagList"} object per line.
+ * The stream is read line by line and committed in chunks, so memory depends on the chunk size, not the file size.
+ */
+@Service
+public class ArticleImportService {
+
+	private final ArticleRepository articleRepository;
+	private final TagRepository tagRepository;
+	private final UserRepository userRepository;
+	private final TagService tagService;
+	private final ArticleSlugService slugService;
+	private final EntityManager entityManager;
+	private final ObjectMapper objectMapper;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+	private final int chunkSize;
+	private final int maxErrors;
+	private final int maxLineLength;
+
+	@Autowired
+	public ArticleImportService(ArticleRepository articleRepository, TagRepository tagRepository, UserRepository userRepository,
+								TagService tagService, ArticleSlugService slugService, EntityManager entityManager, ObjectMapper objectMapper,
+								ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+								@Value("${articles.import.chunk-size:500}") int chunkSize,
+								@Value("${articles.import.max-errors:1000}") int maxErrors,
+								@Value("${articles.import.max-line-length:2000000}") int maxLineLength) {
+		this.articleRepository = articleRepository;
+		this.tagRepository = tagRepository;
+		this.userRepository = userRepository;
+		this.tagService = tagService;
+		this.slugService = slugService;
+		this.entityManager = entityManager;
+		this.objectMapper = objectMapper;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.chunkSize = chunkSize;
+		this.maxErrors = maxErrors;
+		this.maxLineLength = maxLineLength;
+	}
+
+	public ArticleImportReportDTO importArticles(Long authorId, InputStream ndjson) throws IOException {
+		Import run = new Import(authorId);
+		List<PendingLine> chunk = new ArrayList<>(chunkSize);
+
+		LineReader reader = new LineReader(new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8)), maxLineLength);
+		while (reader.next()) {
+			long lineNumber = ++run.lines;
+			if (reader.tooLong) {
+				run.reject(lineNumber, "Line exceeds " + maxLineLength + " characters");
+				continue;
+			}
+			String line = reader.line.toString();
+			if (line.isBlank()) {
+				continue;
+			}
+			try {
+				ArticlePostRequestDTO dto = objectMapper.readValue(line, ArticlePostRequestDTO.class);
+				if (dto == null) {
+					// A bare null is valid JSON; other non-object values already fail to map
+					run.reject(lineNumber, "Malformed JSON");
+					continue;
+				}
+				ArticleService.validateArticle(new Article(dto.getTitle(), dto.getDescription(), dto.getBody()));
+				chunk.add(new PendingLine(lineNumber, dto));
+			} catch (JsonProcessingException e) {
+				run.reject(lineNumber, "Malformed JSON");
+			} catch (IllegalArgumentException e) {
+				run.reject(lineNumber, e.getMessage());
+			}
+
+			if (chunk.size() == chunkSize) {
+				commit(run, chunk);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			commit(run, chunk);
+		}
+		return new ArticleImportReportDTO(run.lines, run.imported, run.failed, run.errors);
+	}
+
+	private void commit(Import run, List<PendingLine> chunk) {
+		try {
+			transactionTemplate.executeWithoutResult(status -> insert(run, chunk));
+			run.imported += chunk.size();
+		} catch (DataIntegrityViolationException e) {
+			// Some line breaks a constraint (e.g. a title that already exists): replay the chunk line by line to find which
+			for (PendingLine pending : chunk) {
+				try {
+					transactionTemplate.executeWithoutResult(status -> insert(run, List.of(pending)));
+					run.imported++;
+				} catch (DataIntegrityViolationException rejected) {
+					run.reject(pending.line(), "Article conflicts with an existing one or exceeds a column size");
+				}
+			}
+		} finally {
+			// Open-session-in-view keeps one persistence context for the whole request: drop the chunk's entities
+			entityManager.clear();
+		}
+	}
+
+	private void insert(Import run, List<PendingLine> lines) {
+		Set<String> unknownNames = lines.stream()
+				.flatMap(pending -> tagNames(pending.article()).stream())
+				.filter(name -> !run.tagIds.containsKey(name))
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		if (!unknownNames.isEmpty()) {
+			tagService.findOrCreateTags(unknownNames).forEach(tag -> run.tagIds.put(tag.getName(), tag.getId()));
+		}
+
+		User author = userRepository.getReferenceById(run.authorId);
+		List<Article> articles = new ArrayList<>(lines.size());
+		List<TagEvent> tagEvents = new ArrayList<>();
+		for (PendingLine pending : lines) {
+			ArticlePostRequestDTO dto = pending.article();
+			Set<String> names = tagNames(dto);
+			if (!names.isEmpty()) {
+				tagEvents.add(new TagEvent(TagEvent.Type.USED, names));
+			}
+			Set<Tag> tags = names.stream()
+					.map(name -> tagRepository.getReferenceById(run.tagIds.get(name)))
+					.collect(Collectors.toSet());
+			Article article = new Article(dto.getTitle(), dto.getDescription(), dto.getBody(), tags);
+			article.setAuthor(author);
+			articles.add(article);
+		}
+		slugService.assignUniqueSlugs(articles);
+		articleRepository.saveAll(articles);
+		articleRepository.flush();
+		// Delivered to the search index and the tag suggestions only if the chunk commits
+		articles.forEach(article -> eventPublisher.publishEvent(ArticleEvent.saved(article)));
+		tagEvents.forEach(eventPublisher::publishEvent);
+	}
+
+	private static Set<String> tagNames(ArticlePostRequestDTO dto) {
+		if (dto.getTagList() == null) {
+			return Set.of();
+		}
+		return dto.getTagList().stream()
+				.filter(name -> name != null && !name.isBlank())
+				.map(String::trim)
+				.collect(Collectors.toSet());
+	}
+
+	private record PendingLine(long line, ArticlePostRequestDTO article) {
+	}
+
+	// Like BufferedReader.readLine(), but never buffers more than maxLength characters of a line
+	private static final class LineReader {
+		private final Reader reader;
+		private final int maxLength;
+		private final StringBuilder line = new StringBuilder();
+		private boolean tooLong;
+
+		private LineReader(Reader reader, int maxLength) {
+			this.reader = reader;
+			this.maxLength = maxLength;
+		}
+
+		// False at the end of the stream; the rest of a line longer than maxLength is skipped and the line flagged tooLong
+		private boolean next() throws IOException {
+			line.setLength(0);
+			tooLong = false;
+			boolean read = false;
+			int c;
+			while ((c = reader.read()) != -1) {
+				read = true;
+				if (c == '\n') {
+					break;
+				}
+				if (tooLong) {
+					continue;
+				}
+				if (line.length() == maxLength) {
+					tooLong = true;
+					line.setLength(0);
+				} else {
+					line.append((char) c);
+				}
+			}
+			if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+				line.setLength(line.length() - 1);
+			}
+			return read;
+		}
+	}
+
+	// State of one import: counters, the bounded error report and the tag dictionary shared by all its chunks
+	private class Import {
+		private final Long authorId;
+		private final Map<String, Long> tagIds = new HashMap<>();
+		private final List<LineError> errors = new ArrayList<>();
+		private long lines;
+		private long imported;
+		private long failed;
+
+		private Import(Long authorId) {
+			this.authorId = authorId;
+		}
+
+		private void reject(long line, String error) {
+			failed++;
+			if (errors.size() < maxErrors) {
+				errors.add(new LineError(line, error));
+			}
+		}
+	}
+}
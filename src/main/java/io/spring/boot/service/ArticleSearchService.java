@@ -0,0 +1,277 @@
+package io.spring.boot.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.FileSystemUtils;
+
+import io.spring.boot.dto.SearchCursor;
+import io.spring.boot.entity.Article;
+import io.spring.boot.repository.ArticleRepository;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Full-text search over article titles, descriptions and bodies, backed by an on-disk Lucene index.
+ * The index is rebuilt from the database at startup and then kept current by the ArticleEvents of each commit.
+ * Only ids live in the index: hits are ranked there and the articles themselves are read from the database.
+ * Articles removed without an event (together with their author's account) are pruned the first time a search
+ * meets them.
+ */
+@Service
+public class ArticleSearchService {
+
+	public static final int DEFAULT_PAGE_SIZE = 20;
+	public static final int MAX_PAGE_SIZE = 100;
+
+	private static final Logger log = LoggerFactory.getLogger(ArticleSearchService.class);
+
+	private static final String ID = "id";
+	private static final String TITLE = "title";
+	private static final String DESCRIPTION = "description";
+	private static final String BODY = "body";
+	// A title match weighs more than a description match, which weighs more than a body match
+	private static final Map<String, Float> WEIGHTS = Map.of(TITLE, 3f, DESCRIPTION, 2f, BODY, 1f);
+	// Relevance first; the id breaks ties so a cursor always points between two hits
+	private static final Sort RANKING = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.LONG, true));
+	private static final String REBUILD_SQL = "SELECT id, title, description, body FROM articles";
+	private static final int REBUILD_FETCH_SIZE = 500;
+
+	private final ArticleRepository articleRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final boolean rebuildOnStartup;
+	private final Path indexDir;
+	private final boolean temporaryIndex;
+	private final Analyzer analyzer = new EnglishAnalyzer();
+	private final IndexWriter writer;
+	private final SearcherManager searcherManager;
+	// Updates share the lock, a rebuild takes it alone so no event is lost between its deleteAll and its commit
+	private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+	private volatile boolean rebuilding;
+
+	@Autowired
+	public ArticleSearchService(ArticleRepository articleRepository, JdbcTemplate jdbcTemplate,
+								@Value("${articles.search.index-dir:}") String indexDir,
+								@Value("${articles.search.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+		this.articleRepository = articleRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.rebuildOnStartup = rebuildOnStartup;
+		try {
+			this.temporaryIndex = indexDir == null || indexDir.isBlank();
+			this.indexDir = temporaryIndex ? Files.createTempDirectory("article-index") : Path.of(indexDir);
+			IndexWriterConfig config = new IndexWriterConfig(analyzer).setOpenMode(OpenMode.CREATE_OR_APPEND);
+			this.writer = new IndexWriter(FSDirectory.open(this.indexDir), config);
+			this.searcherManager = new SearcherManager(writer, null);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot open the article search index", e);
+		}
+	}
+
+	public record Hits(List<Article> articles, long total, SearchCursor next) {
+	}
+
+	// One page of articles matching the query, best match first. A null cursor starts from the best match.
+	@Transactional(readOnly = true)
+	public Hits search(String query, SearchCursor cursor, int limit) {
+		if (query == null || query.trim().isEmpty()) {
+			throw new IllegalArgumentException("Query cannot be null or empty");
+		}
+		if (limit < 1) {
+			throw new IllegalArgumentException("Limit must be positive");
+		}
+		int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+		SimpleQueryParser parser = new SimpleQueryParser(analyzer, WEIGHTS);
+		parser.setDefaultOperator(BooleanClause.Occur.MUST);
+		Query parsed = parser.parse(query);
+
+		List<Long> ids = new ArrayList<>(pageSize);
+		SearchCursor next = null;
+		long total;
+		try {
+			if (!rebuilding) {
+				searcherManager.maybeRefreshBlocking();	// read-your-writes: see the events delivered so far
+			}
+			IndexSearcher searcher = searcherManager.acquire();
+			try {
+				// Ids are unique, so the hit with the cursor's exact (score, id) is the last one returned: the last
+				// doc number makes it compare as already seen
+				ScoreDoc after = cursor == null ? null : new FieldDoc(searcher.getIndexReader().maxDoc() - 1, cursor.score(),
+						new Object[] { cursor.score(), cursor.id() });
+				// One hit more than the page tells whether there is a next page
+				TopFieldDocs top = searcher.searchAfter(after, parsed, pageSize + 1, RANKING, false);
+				for (int i = 0; i < Math.min(pageSize, top.scoreDocs.length); i++) {
+					ids.add((Long) ((FieldDoc) top.scoreDocs[i]).fields[1]);
+				}
+				if (top.scoreDocs.length > pageSize) {
+					Object[] last = ((FieldDoc) top.scoreDocs[pageSize - 1]).fields;
+					next = new SearchCursor((Float) last[0], (Long) last[1]);
+				}
+				total = searcher.count(parsed);
+			} finally {
+				searcherManager.release(searcher);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		Map<Long, Article> found = articleRepository.findAllById(ids).stream()
+				.collect(Collectors.toMap(Article::getId, Function.identity()));
+		List<Article> articles = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			Article article = found.get(id);
+			if (article != null) {
+				articles.add(article);
+			} else {
+				remove(id);
+				total--;
+			}
+		}
+		return new Hits(articles, total, next);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onArticleEvent(ArticleEvent event) {
+		if (event.type() == ArticleEvent.Type.SAVED) {
+			rebuildLock.readLock().lock();
+			try {
+				writer.updateDocument(new Term(ID, event.articleId().toString()),
+						document(event.articleId(), event.title(), event.description(), event.body()));
+			} catch (IOException e) {
+				// The database is committed already, the next rebuild brings the index back in line
+				log.warn("Indexing article {} failed", event.articleId(), e);
+			} finally {
+				rebuildLock.readLock().unlock();
+			}
+		} else {
+			remove(event.articleId());
+		}
+	}
+
+	/*
+	 * Replaces the whole index with the articles in the database, read through one forward-only cursor and
+	 * appended without the per-document lookup of an update. Searches keep the previous index until the commit.
+	 */
+	public long rebuild() {
+		rebuildLock.writeLock().lock();
+		rebuilding = true;
+		try {
+			long start = System.nanoTime();
+			writer.deleteAll();
+			long[] count = { 0 };
+			jdbcTemplate.query(connection -> {
+				PreparedStatement statement = connection.prepareStatement(REBUILD_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+				statement.setFetchSize(REBUILD_FETCH_SIZE);
+				return statement;
+			}, (RowCallbackHandler) rs -> {
+				try {
+					writer.addDocument(document(rs.getLong("id"), rs.getString("title"), rs.getString("description"), rs.getString("body")));
+					count[0]++;
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			writer.commit();
+			searcherManager.maybeRefreshBlocking();
+			log.info("Indexed {} articles for search in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+			return count[0];
+		} catch (IOException e) {
+			throw new UncheckedIOException("Rebuilding the article search index failed", e);
+		} finally {
+			rebuilding = false;
+			rebuildLock.writeLock().unlock();
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		if (rebuildOnStartup) {
+			rebuild();
+		}
+	}
+
+	// Searches see the events right away, a commit makes them durable
+	@Scheduled(fixedDelayString = "${articles.search.commit-interval:PT30S}")
+	public void commit() {
+		try {
+			if (writer.hasUncommittedChanges()) {
+				writer.commit();
+			}
+		} catch (IOException e) {
+			log.warn("Committing the article search index failed", e);
+		}
+	}
+
+	@PreDestroy
+	public void close() throws IOException {
+		searcherManager.close();
+		writer.close();
+		if (temporaryIndex) {
+			FileSystemUtils.deleteRecursively(indexDir);
+		}
+	}
+
+	private void remove(Long articleId) {
+		rebuildLock.readLock().lock();
+		try {
+			writer.deleteDocuments(new Term(ID, articleId.toString()));
+		} catch (IOException e) {
+			log.warn("Removing article {} from the search index failed", articleId, e);
+		} finally {
+			rebuildLock.readLock().unlock();
+		}
+	}
+
+	private static Document document(long id, String title, String description, String body) {
+		Document document = new Document();
+		document.add(new StringField(ID, Long.toString(id), Field.Store.NO));
+		document.add(new NumericDocValuesField(ID, id));
+		document.add(new TextField(TITLE, title, Field.Store.NO));
+		document.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+		document.add(new TextField(BODY, body, Field.Store.NO));
+		return document;
+	}
+}
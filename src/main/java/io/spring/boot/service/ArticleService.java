@@ -2,37 +2,68 @@ package io.spring.boot.service;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import io.spring.boot.dto.ArticlePutRequestDTO;
+import io.spring.boot.dto.AuthorResponseDTO;
+import io.spring.boot.dto.FieldSet;
 import io.spring.boot.entity.Article;
-import io.spring.boot.entity.Tag;
+import io.spring.boot.entity.Profile;
 import io.spring.boot.entity.User;
 import io.spring.boot.repository.ArticleRepository;
-import io.spring.boot.repository.TagRepository;
+import io.spring.boot.repository.ArticleRepository.ArticleVersion;
+import io.spring.boot.repository.ArticleRepository.FavoritesCount;
 import io.spring.boot.repository.UserRepository;
+import jakarta.persistence.Tuple;
 
 @Service
 public class ArticleService {
 	
+	// Articles loaded per query by forEachArticle, one batch of hibernate.default_batch_fetch_size for their associations
+	public static final int CHUNK_SIZE = 100;
+	// Slugs of a multi-get, a single chunk: a fixed number of queries whatever the count
+	public static final int MAX_SLUGS = CHUNK_SIZE;
+	
 	private final ArticleRepository articleRepository;
 	private final UserRepository userRepository;
-	private final TagRepository tagRepository;
+	private final TagService tagService;
+	private final FavoriteWriteBehindBuffer favoriteBuffer;
+	private final ArticleSlugService slugService;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
-	public ArticleService(ArticleRepository articleRepository, UserRepository userRepository, TagRepository tagRepository) {
+	public ArticleService(ArticleRepository articleRepository, UserRepository userRepository, TagService tagService,
+							FavoriteWriteBehindBuffer favoriteBuffer, ArticleSlugService slugService,
+							ApplicationEventPublisher eventPublisher) {
 		this.articleRepository = articleRepository;
 		this.userRepository = userRepository;
-		this.tagRepository = tagRepository;
+		this.tagService = tagService;
+		this.favoriteBuffer = favoriteBuffer;
+		this.slugService = slugService;
+		this.eventPublisher = eventPublisher;
 	}
 	
 	@Transactional(readOnly = true)
@@ -47,51 +78,86 @@ public class ArticleService {
 	
 	@Transactional
 	public Article saveArticle(Article article) {
-		if (article == null || article.getTitle() == null || article.getTitle().trim().isEmpty()) {
-	        throw new IllegalArgumentException("Title cannot be null or empty");
-	    }
-		
-		if (article.getDescription() == null || article.getDescription().trim().isEmpty()) {
-	        throw new IllegalArgumentException("Description cannot be null or empty");
-	    }
-		
-		if (article.getBody() == null || article.getBody().trim().isEmpty()) {
-	        throw new IllegalArgumentException("Body cannot be null or empty");
-	    }
+		validateArticle(article);
+		article.setSlug(slugService.uniqueSlug(article.getTitle(), null));
 		
 		if (article.getTagList() != null && !article.getTagList().isEmpty()) {
-		    Set<Tag> managedTags = article.getTagList().stream()
-						    		.map(String::trim)
-							        .map(name -> tagRepository.findByName(name).orElseGet(() -> tagRepository.save(new Tag(name))))
-							        .collect(Collectors.toSet());
-
-		    article.setTags(managedTags);   // Set guarantees no duplicate Tag objects
+		    article.setTags(tagService.resolveTags(article.getTagList()));   // Set guarantees no duplicate Tag objects
 		}
 		
-		return articleRepository.save(article);
+		Article saved = articleRepository.save(article);
+		eventPublisher.publishEvent(ArticleEvent.saved(saved));
+		return saved;
 	}
 	
+	/*
+	 * Updates the non-blank fields of the user's article in a single conditional statement.
+	 * With an expected version (If-Match) the update only applies if nobody changed the article since.
+	 */
 	@Transactional
-	public Article updateArticle (String slug, ArticlePutRequestDTO dto) {
-		Article existingArticle = articleRepository.findBySlug(slug).orElseThrow(
-				() -> new NoSuchElementException("No existing article with given slug: " + slug));
-		
-		if (dto.getTitle() != null && !dto.getTitle().trim().isEmpty()) {
-			existingArticle.setTitle(dto.getTitle());
-			existingArticle.setSlug(Article.generateSlug(dto.getTitle()));
-	    }
+	public Article updateArticle(Long userId, String slug, ArticlePutRequestDTO dto, Long expectedVersion) {
+		String title = blankToNull(dto.getTitle());
+		String newSlug = title == null ? null : slugService.uniqueSlug(title, slug);
 		
-		if (dto.getDescription() != null && !dto.getDescription().trim().isEmpty()) {
-			existingArticle.setDescription(dto.getDescription());
-	    }
-		
-		if (dto.getBody() != null && !dto.getBody().trim().isEmpty()) {
-			existingArticle.setBody(dto.getBody());
+		int updated = articleRepository.updateIfOwnedAndCurrent(slug, userId, expectedVersion, title, newSlug,
+				blankToNull(dto.getDescription()), blankToNull(dto.getBody()), OffsetDateTime.now(ZoneOffset.UTC));
+		if (updated == 0) {
+			throw rejection(userId, slug, expectedVersion);
 		}
 		
-		existingArticle.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-		
-		return articleRepository.save(existingArticle);
+		String currentSlug = newSlug != null ? newSlug : slug;
+		Article article = articleRepository.findBySlug(currentSlug).orElseThrow(
+				() -> new NoSuchElementException("No existing article with given slug: " + currentSlug));
+		if (!currentSlug.equals(slug)) {
+			slugService.recordRedirect(slug, article);
+		}
+		eventPublisher.publishEvent(ArticleEvent.saved(article));
+		return article;
+	}
+	
+	@Transactional
+	public void deleteArticle(Long userId, String slug, Long expectedVersion) {
+		ArticleVersion current = articleRepository.findVersionBySlug(slug).orElseThrow(
+				() -> new NoSuchElementException("No existing article with given slug: " + slug));
+		if (!current.getAuthorId().equals(userId)) {
+			throw new AccessDeniedException("Access denied");
+		}
+		if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+			throw new OptimisticLockingFailureException("Article " + slug + " has changed since version " + expectedVersion);
+		}
+		deleteWithChildren(current.getId(), current.getVersion());
+	}
+	
+	/*
+	 * Deletes the article's comments, favorites and tag links with one statement each, then the article row,
+	 * instead of loading and removing every comment through the cascade. With a version, an edit committed
+	 * since it was read makes the last statement match nothing and rolls the whole delete back.
+	 */
+	private void deleteWithChildren(Long articleId, Long version) {
+		List<Long> articleIds = List.of(articleId);
+		articleRepository.deleteCommentsOfArticles(articleIds);
+		articleRepository.deleteFavoritesOfArticles(articleIds);
+		articleRepository.deleteTagLinksOfArticles(articleIds);
+		if (articleRepository.deleteArticleRow(articleId, version) == 0) {
+			throw new OptimisticLockingFailureException("Article " + articleId + " has changed while being deleted");
+		}
+		eventPublisher.publishEvent(ArticleEvent.deleted(articleId));
+	}
+	
+	// Tells why a conditional statement on the article matched no row
+	private RuntimeException rejection(Long userId, String slug, Long expectedVersion) {
+		ArticleVersion current = articleRepository.findVersionBySlug(slug).orElse(null);
+		if (current == null) {
+			return new NoSuchElementException("No existing article with given slug: " + slug);
+		}
+		if (!current.getAuthorId().equals(userId)) {
+			return new AccessDeniedException("Access denied");
+		}
+		return new OptimisticLockingFailureException("Article " + slug + " has changed since version " + expectedVersion);
+	}
+	
+	private static String blankToNull(String value) {
+		return value == null || value.trim().isEmpty() ? null : value;
 	}
 	
 	@Transactional
@@ -99,7 +165,7 @@ public class ArticleService {
 		if(!articleRepository.existsById(id)) {
 			throw new  NoSuchElementException("No existing article with given id: " + id);
 		}
-		articleRepository.deleteById(id);
+		deleteWithChildren(id, null);
 	}
 	
 	@Transactional(readOnly = true)
@@ -111,17 +177,44 @@ public class ArticleService {
 		return articleRepository.findBySlug(slug).orElseThrow(() -> new NoSuchElementException("No existing article with given slug: " + slug));
 	}
 	
+	// Ids of the live articles among the slugs, by slug; slugs that match nothing are left out
+	@Transactional(readOnly = true)
+	public Map<String, Long> findIdsBySlugs(List<String> slugs) {
+		if (slugs == null || slugs.isEmpty()) {
+			throw new IllegalArgumentException("Slugs cannot be null or empty");
+		}
+		if (slugs.size() > MAX_SLUGS) {
+			throw new IllegalArgumentException("At most " + MAX_SLUGS + " slugs can be requested at once");
+		}
+		
+		return articleRepository.findIdsBySlugIn(slugs).stream()
+				.collect(Collectors.toMap(row -> (String) row[0], row -> (Long) row[1]));
+	}
+	
+	// Where a slug given up by a title change lives now
+	@Transactional(readOnly = true)
+	public Optional<String> findRedirect(String slug) {
+		return slugService.findRedirect(slug);
+	}
+	
+	@Transactional(readOnly = true)
+	public boolean existsBySlug(String slug) {
+		return articleRepository.existsBySlug(slug);
+	}
+	
 	@Transactional
 	public void deleteByArticleSlug(String slug) {
-		if(!articleRepository.existsBySlug(slug)) {
-			throw new NoSuchElementException("No existing article with given slug: " + slug);
-		}
+		ArticleVersion current = articleRepository.findVersionBySlug(slug).orElseThrow(
+				() -> new NoSuchElementException("No existing article with given slug: " + slug));
 		
-		articleRepository.deleteBySlug(slug);
+		deleteWithChildren(current.getId(), null);
 	}
 	
 	@Transactional
 	public Article favoriteArticle(Long userId, String articleSlug) {
+		if (favoriteBuffer.isEnabled()) {
+			return bufferFavorite(userId, articleSlug, true);
+		}
 		User user = userRepository.findById(userId).orElseThrow(
 				() -> new NoSuchElementException("No existing user with given id: " + userId));
 		Article article = articleRepository.findBySlug(articleSlug).orElseThrow(
@@ -131,12 +224,16 @@ public class ArticleService {
 	    	throw new IllegalArgumentException("User has already favorited this article");
 	    }
 		article.favoriteArticle(user);
+		eventPublisher.publishEvent(ArticleActivityEvent.favorited(article.getId(), userId, true));
 		
 		return articleRepository.save(article);
 	}
 	
 	@Transactional
 	public Article unfavoriteArticle(Long userId, String articleSlug) {
+		if (favoriteBuffer.isEnabled()) {
+			return bufferFavorite(userId, articleSlug, false);
+		}
 		User user = userRepository.findById(userId).orElseThrow(
 				() -> new NoSuchElementException("No existing user with given id: " + userId));
 		Article article = articleRepository.findBySlug(articleSlug).orElseThrow(
@@ -146,10 +243,64 @@ public class ArticleService {
 	    	throw new IllegalArgumentException("User has not favorited this article");
 	    }
 		article.unfavoriteArticle(user);
+		eventPublisher.publishEvent(ArticleActivityEvent.favorited(article.getId(), userId, false));
 		
 		return articleRepository.save(article);
 	}
 	
+	// Write-behind mode: no row is locked or written here, FavoriteWriteBehindBuffer flushes the toggle later
+	private Article bufferFavorite(Long userId, String articleSlug, boolean favorite) {
+		if (!userRepository.existsById(userId)) {
+			throw new NoSuchElementException("No existing user with given id: " + userId);
+		}
+		Article article = articleRepository.findBySlug(articleSlug).orElseThrow(
+				() -> new NoSuchElementException("No existing article with given slug: " + articleSlug));
+		
+		// The saved state, asked by the buffer only when no toggle of the pair is pending
+		BooleanSupplier persistedState = () -> articleRepository.isFavoritedBy(article.getId(), userId);
+		if (!favoriteBuffer.toggle(userId, article.getId(), favorite, persistedState)) {
+			throw new IllegalArgumentException(favorite ? "User has already favorited this article" : "User has not favorited this article");
+		}
+		eventPublisher.publishEvent(ArticleActivityEvent.favorited(article.getId(), userId, favorite));
+		// Counted by query, the favoritedBy collection is never loaded on this path. The overlay goes by whether that count
+		// includes the user's row, so a flush committing the toggle meanwhile is not counted twice
+		FavoritesCount count = articleRepository.countFavoritesOf(article.getId(), userId);
+		return article.applyPendingFavorite(userId, favorite, count.getTotal(), count.getByUser() > 0);
+	}
+	
+	// Read-your-writes in write-behind mode: shows the user's own toggles that are not flushed yet
+	public void applyPendingFavorites(Long userId, Collection<Article> articles) {
+		if (userId == null || !favoriteBuffer.isEnabled()) {
+			return;
+		}
+		for (Article article : articles) {
+			Boolean pending = favoriteBuffer.pendingState(userId, article.getId());
+			if (pending != null) {
+				article.applyPendingFavorite(userId, pending);
+			}
+		}
+	}
+	
+	@Transactional
+	public void adjustCommentsCount(Long articleId, int delta) {
+		articleRepository.adjustCommentsCount(articleId, delta);
+	}
+	
+	@Transactional
+	public void adjustCommentsCountBySlug(String slug, int delta) {
+		articleRepository.adjustCommentsCountBySlug(slug, delta);
+	}
+	
+	@Transactional
+	public int reconcileCommentsCount(Long fromId, Long toId) {
+		return articleRepository.reconcileCommentsCount(fromId, toId);
+	}
+	
+	@Transactional(readOnly = true)
+	public Long findMaxArticleId() {
+		return articleRepository.findMaxId();
+	}
+	
 	@Transactional(readOnly = true)
 	public Page<Article> findFeed(Long userId, Pageable pageable){
 		return articleRepository.findFeed(userId, pageable);
@@ -160,4 +311,107 @@ public class ArticleService {
 		return articleRepository.findByCriteria(tag, authorUsername, favoritedByUsername, pageable);
 	}
 	
+	@Transactional(readOnly = true)
+	public Page<Long> findFeedIds(Long userId, Pageable pageable){
+		return articleRepository.findFeedIds(userId, pageable);
+	}
+	
+	@Transactional(readOnly = true)
+	public Page<Long> findArticleIdsByCriteria(String tag, String authorUsername, String favoritedByUsername, Pageable pageable){
+		return articleRepository.findIdsByCriteria(tag, authorUsername, favoritedByUsername, pageable);
+	}
+	
+	/*
+	 * Hands the articles to the consumer CHUNK_SIZE at a time, in the order of the ids; ids of articles deleted
+	 * meanwhile are skipped. The persistence context is cleared after each chunk, so however many ids are given,
+	 * only one chunk of entities is held at a time.
+	 */
+	@Transactional(readOnly = true)
+	public void forEachArticle(List<Long> ids, Consumer<List<Article>> consumer) {
+		for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+			List<Long> chunkIds = ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE));
+			Map<Long, Article> found = articleRepository.findAllById(chunkIds).stream()
+					.collect(Collectors.toMap(Article::getId, Function.identity()));
+			List<Article> chunk = chunkIds.stream().map(found::get).filter(Objects::nonNull).toList();
+			consumer.accept(chunk);
+			articleRepository.clear();
+		}
+	}
+	
+	/*
+	 * Sparse fieldsets of the listings: like forEachArticle, with each article as a map of the requested fields in
+	 * response order, read from a projection instead of the entity. Tags, the viewer's favorites and follows are
+	 * each one more query per chunk, made only when their field is requested. Returns the ids of the articles handed
+	 * over, as the rows carry only the requested fields.
+	 */
+	@Transactional(readOnly = true)
+	public Set<Long> forEachArticleFields(List<Long> ids, FieldSet fields, Long viewerId, Consumer<List<Map<String, Object>>> consumer) {
+		boolean pendingFavorites = viewerId != null && favoriteBuffer.isEnabled();
+		Set<Long> loaded = new HashSet<>();
+		for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+			List<Long> chunkIds = ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE));
+			Map<Long, Tuple> found = articleRepository.findFields(chunkIds, fields.names()).stream()
+					.collect(Collectors.toMap(tuple -> tuple.get("id", Long.class), Function.identity()));
+			
+			Map<Long, List<String>> tags = new HashMap<>();
+			if (fields.contains("tagList")) {
+				for (Object[] row : articleRepository.findTagNamesOf(chunkIds)) {
+					tags.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+				}
+			}
+			// A buffered toggle of the viewer changes favoritesCount only when it differs from the saved favorite
+			boolean needsFavorites = viewerId != null && (fields.contains("favorited") || (pendingFavorites && fields.contains("favoritesCount")));
+			Set<Long> favorited = needsFavorites ? articleRepository.findFavoritedIdsAmong(viewerId, chunkIds) : Set.of();
+			Set<Long> followed = Set.of();
+			if (viewerId != null && fields.contains("author") && !found.isEmpty()) {
+				Set<Long> authorIds = found.values().stream().map(t -> t.get("author.id", Long.class)).collect(Collectors.toSet());
+				followed = userRepository.findFolloweeIdsAmong(viewerId, authorIds);
+			}
+			
+			List<Map<String, Object>> chunk = new ArrayList<>(found.size());
+			for (Long id : chunkIds) {
+				Tuple tuple = found.get(id);
+				if (tuple == null) {
+					continue;
+				}
+				boolean persisted = favorited.contains(id);
+				Boolean pending = pendingFavorites ? favoriteBuffer.pendingState(viewerId, id) : null;
+				Map<String, Object> row = new LinkedHashMap<>();
+				for (String field : fields.names()) {
+					switch (field) {
+						case "tagList" -> row.put(field, tags.getOrDefault(id, List.of()).stream().sorted().toList());
+						case "favorited" -> row.put(field, pending != null ? pending : persisted);
+						case "favoritesCount" -> row.put(field, tuple.get(field, Integer.class)
+								+ (pending == null || pending == persisted ? 0 : pending ? 1 : -1));
+						case "author" -> {
+							Profile profile = new Profile(tuple.get("author.username", String.class), tuple.get("author.bio", String.class),
+									tuple.get("author.image", String.class));
+							row.put(field, new AuthorResponseDTO(profile, followed.contains(tuple.get("author.id", Long.class))));
+						}
+						default -> row.put(field, tuple.get(field));
+					}
+				}
+				chunk.add(row);
+				loaded.add(id);
+			}
+			consumer.accept(chunk);
+		}
+		return loaded;
+	}
+	
+	// Shared with ArticleImportService
+	static void validateArticle(Article article) {
+		if (article == null || article.getTitle() == null || article.getTitle().trim().isEmpty()) {
+	        throw new IllegalArgumentException("Title cannot be null or empty");
+	    }
+		
+		if (article.getDescription() == null || article.getDescription().trim().isEmpty()) {
+	        throw new IllegalArgumentException("Description cannot be null or empty");
+	    }
+		
+		if (article.getBody() == null || article.getBody().trim().isEmpty()) {
+	        throw new IllegalArgumentException("Body cannot be null or empty");
+	    }
+	}
+	
 }
\ No newline at end of file
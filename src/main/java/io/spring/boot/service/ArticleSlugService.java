@@ -0,0 +1,100 @@
+package io.spring.boot.service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.SlugRedirectRepository;
+
+/*
+ * Titles are unique but their slugs are not: "Hello, World!" and "Hello World" both give hello-world. The second
+ * one gets the first free of hello-world-2, hello-world-3... Slugs kept as redirects count as taken, so an old
+ * link never starts pointing to a different article. The unique index on articles.slug settles concurrent creates.
+ */
+@Service
+public class ArticleSlugService {
+
+	private final ArticleRepository articleRepository;
+	private final SlugRedirectRepository slugRedirectRepository;
+
+	@Autowired
+	public ArticleSlugService(ArticleRepository articleRepository, SlugRedirectRepository slugRedirectRepository) {
+		this.articleRepository = articleRepository;
+		this.slugRedirectRepository = slugRedirectRepository;
+	}
+
+	// currentSlug is the slug of the article being renamed (it may keep it), null for a new article
+	@Transactional(readOnly = true)
+	public String uniqueSlug(String title, String currentSlug) {
+		String base = baseSlug(title);
+		return nextFree(base, new HashSet<>(takenSlugs(base, currentSlug)));
+	}
+
+	// One query for the whole batch; a family is only looked up when its base slug collides
+	@Transactional(readOnly = true)
+	public void assignUniqueSlugs(List<Article> articles) {
+		Map<String, List<Article>> byBase = new LinkedHashMap<>();
+		for (Article article : articles) {
+			byBase.computeIfAbsent(baseSlug(article.getTitle()), base -> new ArrayList<>()).add(article);
+		}
+		Set<String> taken = new HashSet<>(articleRepository.findTakenSlugsIn(byBase.keySet()));
+		byBase.forEach((base, family) -> {
+			if (family.size() == 1 && !taken.contains(base)) {
+				family.get(0).setSlug(base);
+				return;
+			}
+			Set<String> used = new HashSet<>(takenSlugs(base, null));
+			for (Article article : family) {
+				String slug = nextFree(base, used);
+				used.add(slug);
+				article.setSlug(slug);
+			}
+		});
+	}
+
+	// Keeps the old slug resolving to the article after a rename
+	@Transactional
+	public void recordRedirect(String oldSlug, Article article) {
+		slugRedirectRepository.deleteByOldSlug(article.getSlug());
+		slugRedirectRepository.insert(oldSlug, article.getId(), OffsetDateTime.now(ZoneOffset.UTC));
+	}
+
+	@Transactional(readOnly = true)
+	public Optional<String> findRedirect(String oldSlug) {
+		return slugRedirectRepository.findCurrentSlug(oldSlug);
+	}
+
+	// Slugs hold only [a-z0-9-], none of them special in a LIKE pattern or a regular expression
+	private List<String> takenSlugs(String base, String currentSlug) {
+		return articleRepository.findTakenSlugs(base, base + "-%", "^" + base + "-[0-9]+$", currentSlug);
+	}
+
+	// A title made only of punctuation still needs a usable slug
+	private static String baseSlug(String title) {
+		String base = Article.generateSlug(title);
+		return base.isEmpty() ? "article" : base;
+	}
+
+	static String nextFree(String base, Set<String> taken) {
+		if (!taken.contains(base)) {
+			return base;
+		}
+		int suffix = 2;
+		while (taken.contains(base + "-" + suffix)) {
+			suffix++;
+		}
+		return base + "-" + suffix;
+	}
+}
@@ -0,0 +1,20 @@
+package io.spring.boot.service;
+
+import io.spring.boot.dto.CommentResponseDTO;
+
+/**
+ * Published by CommentService once a comment is created or deleted, delivered to stream subscribers after commit.
+ * The comment payload is only set for CREATED events, DELETED events carry the id alone.
+ */
+public record CommentEvent(Type type, String slug, Long commentId, CommentResponseDTO comment) {
+
+	public enum Type { CREATED, DELETED }
+	
+	public static CommentEvent created(String slug, CommentResponseDTO comment) {
+		return new CommentEvent(Type.CREATED, slug, comment.getId(), comment);
+	}
+	
+	public static CommentEvent deleted(String slug, Long commentId) {
+		return new CommentEvent(Type.DELETED, slug, commentId, null);
+	}
+}
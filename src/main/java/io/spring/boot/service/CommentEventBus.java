@@ -0,0 +1,174 @@
+package io.spring.boot.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process fan-out of comment events to Server-Sent Events subscribers, one topic per article slug.
+ * 
+ * Publishing never blocks on a client: each event is serialized once, then offered to every subscriber's bounded buffer.
+ * A small pool drains the buffers to the sockets. A subscriber whose buffer is full is too slow to keep up and is evicted,
+ * the client reconnects (EventSource does it automatically) and reloads the comment page it missed.
+ */
+@Component
+public class CommentEventBus {
+
+	private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+	private final ObjectMapper objectMapper;
+	private final ExecutorService dispatcher;
+	private final int bufferSize;
+	private final long timeoutMillis;
+	
+	private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("keep-alive").build();
+
+	@Autowired
+	public CommentEventBus(ObjectMapper objectMapper,
+						@Value("${comments.stream.buffer-size:64}") int bufferSize,
+						@Value("${comments.stream.timeout:30m}") Duration timeout,
+						@Value("${comments.stream.dispatch-threads:2}") int dispatchThreads) {
+		this(objectMapper, bufferSize, timeout, Executors.newFixedThreadPool(dispatchThreads, r -> {
+			Thread thread = new Thread(r, "comment-stream-dispatch");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+	
+	// Visible for testing
+	CommentEventBus(ObjectMapper objectMapper, int bufferSize, Duration timeout, ExecutorService dispatcher) {
+		this.objectMapper = objectMapper;
+		this.bufferSize = bufferSize;
+		this.timeoutMillis = timeout.toMillis();
+		this.dispatcher = dispatcher;
+	}
+	
+	public SseEmitter subscribe(String slug) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Subscriber subscriber = new Subscriber(slug, emitter, new ArrayBlockingQueue<>(bufferSize));
+		// Added within the map's atomic section, remove() could otherwise drop the topic between its lookup and the add
+		subscribers.compute(slug, (s, topic) -> {
+			if (topic == null) {
+				topic = ConcurrentHashMap.newKeySet();
+			}
+			topic.add(subscriber);
+			return topic;
+		});
+		emitter.onCompletion(() -> remove(subscriber));
+		emitter.onTimeout(() -> remove(subscriber));
+		emitter.onError(e -> remove(subscriber));
+		return emitter;
+	}
+	
+	// Only committed changes are pushed, a rolled back comment is never seen by subscribers
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCommentEvent(CommentEvent event) {
+		Set<Subscriber> topic = subscribers.get(event.slug());
+		if (topic == null || topic.isEmpty()) {
+			return;
+		}
+		Set<DataWithMediaType> payload = toSse(event);
+		for (Subscriber subscriber : topic) {
+			offer(subscriber, payload);
+		}
+	}
+	
+	// Keeps proxies from closing idle connections and detects clients that went away
+	@Scheduled(fixedDelayString = "${comments.stream.heartbeat:PT15S}")
+	public void sendHeartbeat() {
+		subscribers.values().forEach(topic -> topic.forEach(subscriber -> offer(subscriber, heartbeat)));
+	}
+	
+	public int subscriberCount(String slug) {
+		Set<Subscriber> topic = subscribers.get(slug);
+		return topic == null ? 0 : topic.size();
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		dispatcher.shutdownNow();
+		subscribers.values().forEach(topic -> topic.forEach(subscriber -> subscriber.emitter.complete()));
+		subscribers.clear();
+	}
+	
+	private Set<DataWithMediaType> toSse(CommentEvent event) {
+		try {
+			String data = event.type() == CommentEvent.Type.CREATED
+					? objectMapper.writeValueAsString(Map.of("comment", event.comment()))
+					: objectMapper.writeValueAsString(Map.of("id", event.commentId()));
+			String name = event.type() == CommentEvent.Type.CREATED ? "comment-created" : "comment-deleted";
+			return SseEmitter.event().id(String.valueOf(event.commentId())).name(name).data(data, MediaType.APPLICATION_JSON).build();
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Cannot serialize comment event", e);
+		}
+	}
+	
+	private void offer(Subscriber subscriber, Set<DataWithMediaType> payload) {
+		if (!subscriber.buffer.offer(payload)) {
+			// Slow consumer: its buffer is full, drop it rather than grow memory or block the publisher
+			remove(subscriber);
+			subscriber.emitter.complete();
+			return;
+		}
+		if (subscriber.draining.compareAndSet(false, true)) {
+			dispatcher.execute(() -> drain(subscriber));
+		}
+	}
+	
+	private void drain(Subscriber subscriber) {
+		do {
+			Set<DataWithMediaType> payload;
+			while ((payload = subscriber.buffer.poll()) != null) {
+				try {
+					subscriber.emitter.send(payload);
+				} catch (IOException | IllegalStateException e) {
+					remove(subscriber);
+					return;
+				}
+			}
+			subscriber.draining.set(false);
+			// An event offered between the last poll and the reset would otherwise wait for the next publish
+		} while (!subscriber.buffer.isEmpty() && subscriber.draining.compareAndSet(false, true));
+	}
+	
+	private void remove(Subscriber subscriber) {
+		subscribers.computeIfPresent(subscriber.slug, (slug, topic) -> {
+			topic.remove(subscriber);
+			return topic.isEmpty() ? null : topic;
+		});
+		subscriber.buffer.clear();
+	}
+	
+	private static final class Subscriber {
+		private final String slug;
+		private final SseEmitter emitter;
+		private final BlockingQueue<Set<DataWithMediaType>> buffer;
+		private final AtomicBoolean draining = new AtomicBoolean();
+		
+		private Subscriber(String slug, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> buffer) {
+			this.slug = slug;
+			this.emitter = emitter;
+			this.buffer = buffer;
+		}
+	}
+}
@@ -1,26 +1,43 @@
 package io.spring.boot.service;
 
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.spring.boot.dto.CommentCursor;
+import io.spring.boot.dto.CommentResponseDTO;
+import io.spring.boot.dto.FieldSet;
 import io.spring.boot.entity.Article;
 import io.spring.boot.entity.Comment;
 import io.spring.boot.entity.User;
 import io.spring.boot.repository.CommentRepository;
+import jakarta.persistence.Tuple;
 
 @Service
 public class CommentService {
 
+	public static final int DEFAULT_PAGE_SIZE = 20;
+	public static final int MAX_PAGE_SIZE = 100;
+
 	@Autowired
 	CommentRepository commentRepository;
 	
 	@Autowired
 	ArticleService articleService;
 	
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+	
 	@Transactional(readOnly = true)
 	public Optional<Comment> findById(Long id) {
 		return commentRepository.findById(id);
@@ -36,23 +53,78 @@ public class CommentService {
 	    comment.setAuthor(user);
 	    comment.setArticle(article);
 		
-		return commentRepository.save(comment);
+	    Comment savedComment = commentRepository.save(comment);
+	    articleService.adjustCommentsCount(article.getId(), 1);
+	    // Stream subscribers are anonymous, following is resolved per viewer only by the REST endpoints
+	    eventPublisher.publishEvent(CommentEvent.created(slug, new CommentResponseDTO(savedComment, user.getProfile(), false)));
+	    eventPublisher.publishEvent(ArticleActivityEvent.commented(article.getId()));
+		return savedComment;
 	}
 	
 	@Transactional
 	public void deleteCommentById(Long id) {
-        if (!commentRepository.existsById(id)) {
-            throw new IllegalArgumentException("Comment with ID " + id + " does not exist");
-        }
+		Long articleId = commentRepository.findArticleIdById(id).orElseThrow(
+				() -> new IllegalArgumentException("Comment with ID " + id + " does not exist"));
         commentRepository.deleteById(id);
+        articleService.adjustCommentsCount(articleId, -1);
+	}
+	
+	/*
+	 * Deletes a comment of the given article if it belongs to the user, in a single DELETE.
+	 * Only a failed delete pays for a second query, to tell a missing comment (404) from someone else's (403).
+	 */
+	@Transactional
+	public void deleteComment(Long userId, String slug, Long id) {
+		int deleted = commentRepository.deleteOwnedComment(id, slug, userId);
+		if (deleted == 0) {
+			if (commentRepository.existsByIdAndArticleSlug(id, slug)) {
+				throw new AccessDeniedException("Access denied");
+			}
+			throw new NoSuchElementException("No existing comment with given id: " + id);
+		}
+		articleService.adjustCommentsCountBySlug(slug, -deleted);
+		eventPublisher.publishEvent(CommentEvent.deleted(slug, id));
+	}
+	
+	@Transactional(readOnly = true)
+	public void ensureArticleExists(String slug) {
+		if (!articleService.existsBySlug(slug)) {
+			throw new NoSuchElementException("No existing article with given slug: " + slug);
+		}
 	}
 	
+	// Returns one page of comments, newest first. A null cursor starts from the most recent comment.
 	@Transactional(readOnly = true)
-	public Set<Comment> findAllComments(String slug) {
+	public Slice<Comment> findComments(String slug, CommentCursor cursor, int limit) {
         if (slug == null || slug.trim().isEmpty()) {
             throw new IllegalArgumentException("Slug cannot be null or empty");
         }
+        if (limit < 1) {
+        	throw new IllegalArgumentException("Limit must be positive");
+        }
+        
+        Pageable pageable = PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE));
+        if (cursor == null) {
+        	return commentRepository.findFirstPageBySlug(slug, pageable);
+        }
+        return commentRepository.findPageBySlugBefore(slug, cursor.createdAt(), cursor.id(), pageable);
+	}
+	
+	// Same page as findComments, reading only the columns of the requested fields (FieldSet)
+	@Transactional(readOnly = true)
+	public Slice<Tuple> findCommentFields(String slug, CommentCursor cursor, int limit, FieldSet fields) {
+        if (slug == null || slug.trim().isEmpty()) {
+            throw new IllegalArgumentException("Slug cannot be null or empty");
+        }
+        if (limit < 1) {
+        	throw new IllegalArgumentException("Limit must be positive");
+        }
         
-        return commentRepository.findBySlug(slug);
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+        // One extra row tells whether there is a next page
+        List<Tuple> rows = commentRepository.findFieldsBySlug(slug, cursor != null ? cursor.createdAt() : null,
+        		cursor != null ? cursor.id() : null, size + 1, fields.names());
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size), hasNext);
 	}
 }
@@ -0,0 +1,43 @@
+package io.spring.boot.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically repairs articles.comments_count against the comments table.
+ * The counter is kept up to date by CommentService; this job only fixes drift (manual SQL, failed deployments...).
+ * Each id range runs in its own short transaction so the job never locks the whole table.
+ */
+@Component
+public class CommentsCountReconciliationJob {
+
+	private static final Logger log = LoggerFactory.getLogger(CommentsCountReconciliationJob.class);
+	
+	private final ArticleService articleService;
+	private final int chunkSize;
+
+	public CommentsCountReconciliationJob(ArticleService articleService,
+										@Value("${articles.comments-count.reconcile-chunk-size:1000}") int chunkSize) {
+		this.articleService = articleService;
+		this.chunkSize = chunkSize;
+	}
+	
+	@Scheduled(cron = "${articles.comments-count.reconcile-cron:0 30 3 * * *}")
+	public int reconcile() {
+		Long maxId = articleService.findMaxArticleId();
+		if (maxId == null) {
+			return 0;
+		}
+		int fixed = 0;
+		for (long fromId = 1; fromId <= maxId; fromId += chunkSize) {
+			fixed += articleService.reconcileCommentsCount(fromId, fromId + chunkSize - 1);
+		}
+		if (fixed > 0) {
+			log.warn("Reconciled comments_count on {} article(s)", fixed);
+		}
+		return fixed;
+	}
+}
@@ -0,0 +1,173 @@
+package io.spring.boot.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Write-behind mode for favorite/unfavorite (articles.favorites.write-behind.enabled).
+ * Toggles are kept in memory as the wanted state of each (user, article) pair, a toggle opposing a buffered one
+ * cancels it, and the remaining states are written in one batch per flush-interval, which is also the most
+ * a crash can lose. The buffer is split in lock stripes so toggles on different pairs do not contend.
+ */
+@Service
+public class FavoriteWriteBehindBuffer {
+
+	private static final Logger log = LoggerFactory.getLogger(FavoriteWriteBehindBuffer.class);
+
+	// Both statements are idempotent, so a batch can be written again after a failure.
+	// The insert also skips articles or users deleted since the toggle
+	private static final String INSERT_SQL = """
+			INSERT INTO articles_favorites (article_id, user_id)
+			SELECT a.id, u.id FROM articles a, users u
+			WHERE a.id = ? AND u.id = ?
+			  AND NOT EXISTS (SELECT 1 FROM articles_favorites f WHERE f.article_id = a.id AND f.user_id = u.id)""";
+	private static final String DELETE_SQL = "DELETE FROM articles_favorites WHERE article_id = ? AND user_id = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean enabled;
+	private final Stripe[] stripes;
+	// Entries taken by the running flush, still visible to readers until their batch is committed
+	private final Map<Key, Boolean> inFlight = new ConcurrentHashMap<>();
+
+	@Autowired
+	public FavoriteWriteBehindBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+									@Value("${articles.favorites.write-behind.enabled:false}") boolean enabled,
+									@Value("${articles.favorites.write-behind.stripes:64}") int stripeCount) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.enabled = enabled;
+		this.stripes = new Stripe[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			stripes[i] = new Stripe();
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/*
+	 * Buffers the user's wish to (un)favorite the article. Returns false, buffering nothing, when that is already
+	 * the article's state; persistedState is only asked when no toggle of the pair is pending.
+	 */
+	public boolean toggle(Long userId, Long articleId, boolean favorite, BooleanSupplier persistedState) {
+		Key key = new Key(userId, articleId);
+		Stripe stripe = stripeOf(key);
+		synchronized (stripe) {
+			Boolean buffered = stripe.pending.get(key);
+			Boolean current = buffered != null ? buffered : inFlight.get(key);
+			boolean favorited = current != null ? current : persistedState.getAsBoolean();
+			if (favorited == favorite) {
+				return false;
+			}
+			if (buffered != null) {
+				stripe.pending.remove(key);	// opposing toggles cancel out
+			} else {
+				stripe.pending.put(key, favorite);
+			}
+			return true;
+		}
+	}
+
+	// The user's favorite state of the article not written to the database yet, or null
+	public Boolean pendingState(Long userId, Long articleId) {
+		Key key = new Key(userId, articleId);
+		Stripe stripe = stripeOf(key);
+		synchronized (stripe) {
+			Boolean buffered = stripe.pending.get(key);
+			return buffered != null ? buffered : inFlight.get(key);
+		}
+	}
+
+	public int pendingCount() {
+		int count = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				count += stripe.pending.size();
+			}
+		}
+		return count;
+	}
+
+	@Scheduled(fixedDelayString = "${articles.favorites.write-behind.flush-interval:PT1S}")
+	public synchronized void flush() {
+		List<Object[]> inserts = new ArrayList<>();
+		List<Object[]> deletes = new ArrayList<>();
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				if (stripe.pending.isEmpty()) {
+					continue;
+				}
+				inFlight.putAll(stripe.pending);
+				stripe.pending.forEach((key, favorite) ->
+						(favorite ? inserts : deletes).add(new Object[] { key.articleId(), key.userId() }));
+				stripe.pending = new HashMap<>();
+			}
+		}
+		if (inFlight.isEmpty()) {
+			return;
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				if (!inserts.isEmpty()) {
+					jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+				}
+				if (!deletes.isEmpty()) {
+					jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+				}
+			});
+			log.debug("Flushed {} favorites and {} unfavorites", inserts.size(), deletes.size());
+		} catch (RuntimeException e) {
+			// Hand the entries back to the next flush, unless the user toggled the pair again meanwhile
+			log.warn("Flushing {} favorite toggles failed, retrying on next flush", inFlight.size(), e);
+			inFlight.forEach((key, favorite) -> {
+				Stripe stripe = stripeOf(key);
+				synchronized (stripe) {
+					stripe.pending.putIfAbsent(key, favorite);
+				}
+			});
+		} finally {
+			inFlight.forEach((key, favorite) -> {
+				synchronized (stripeOf(key)) {
+					inFlight.remove(key);
+				}
+			});
+		}
+	}
+
+	// Graceful shutdown writes what is left, only a crash loses buffered toggles
+	@PreDestroy
+	public void shutdown() {
+		flush();
+	}
+
+	private Stripe stripeOf(Key key) {
+		return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+	}
+
+	private record Key(Long userId, Long articleId) {
+	}
+
+	private static final class Stripe {
+		private Map<Key, Boolean> pending = new HashMap<>();
+	}
+}
@@ -0,0 +1,343 @@
+package io.spring.boot.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * In-memory similarity index of articles by tags, holding the top-N related articles of every article.
+ *
+ * Two articles are related by the tags they share, each shared tag weighing its inverse document frequency
+ * log(1 + articles / articles with the tag): sharing a rare tag says more than sharing "java". Ties go to the
+ * newer article. Candidates are found through per-tag posting lists, reading at most candidatesPerTag articles
+ * of each list from its newest end, so computing one article's neighbours stays bounded for popular tags.
+ *
+ * Articles and tags are numbered by dense slots and all lists are int arrays. Removed articles leave a tombstone
+ * in the postings that is skipped when read and dropped by the next rebuild. Not thread-safe, RelatedArticlesService
+ * applies the changes from a single thread.
+ */
+public final class RelatedArticlesIndex {
+
+	private static final int[] NONE = {};
+
+	private final int neighbours;
+	private final int candidatesPerTag;
+
+	// Per article slot
+	private final Map<Long, Integer> slotOf = new HashMap<>();
+	private long[] ids = new long[16];
+	private int[][] tags = new int[16][];		// sorted tag slots, null once removed
+	private int[][] related = new int[16][];	// best first
+	private int slots;
+	private int live;
+
+	// Per tag slot
+	private final Map<Long, Integer> tagSlotOf = new HashMap<>();
+	private int[][] postings = new int[16][];	// article slots, oldest first
+	private int[] postingSizes = new int[16];
+	private int[] articlesWithTag = new int[16];
+	private int tagSlots;
+
+	// Scratch space of a neighbour computation
+	private float[] scores = new float[16];
+	private int[] touched = new int[16];
+
+	public RelatedArticlesIndex(int neighbours, int candidatesPerTag) {
+		this.neighbours = neighbours;
+		this.candidatesPerTag = candidatesPerTag;
+	}
+
+	public int size() {
+		return live;
+	}
+
+	// Bulk loading: adds the article without computing neighbours, computeAll() does it once everything is loaded
+	public void load(long articleId, long[] tagIds) {
+		int[] tagSlots = tagSlots(tagIds);
+		int slot = newSlot(articleId);
+		setTags(slot, tagSlots, null);
+	}
+
+	public void computeAll() {
+		for (int slot = 0; slot < slots; slot++) {
+			if (tags[slot] != null) {
+				related[slot] = compute(slot);
+			}
+		}
+	}
+
+	/*
+	 * Creates or retags the article, computes its neighbours and offers it to the lists of its candidates.
+	 * After a retag, the lists that held the article under its old tags are recomputed as well.
+	 */
+	public void upsert(long articleId, long[] tagIds) {
+		int[] newTags = tagSlots(tagIds);
+		Integer existing = slotOf.get(articleId);
+		int slot;
+		int[] oldTags = null;
+		if (existing == null) {
+			slot = newSlot(articleId);
+		} else {
+			slot = existing;
+			if (Arrays.equals(tags[slot], newTags)) {
+				return;
+			}
+			oldTags = tags[slot];
+			unsetTags(slot);
+		}
+		setTags(slot, newTags, oldTags);
+		related[slot] = compute(slot);
+		if (oldTags != null) {
+			recomputeListsHolding(slot, oldTags);
+		}
+		for (int candidate : related[slot]) {
+			offer(candidate, slot);
+		}
+	}
+
+	// Drops the article and recomputes the lists it appeared in among its candidates
+	public void remove(long articleId) {
+		Integer existing = slotOf.remove(articleId);
+		if (existing == null) {
+			return;
+		}
+		int slot = existing;
+		int[] oldTags = tags[slot];
+		unsetTags(slot);
+		tags[slot] = null;
+		related[slot] = null;
+		live--;
+		recomputeListsHolding(slot, oldTags);
+	}
+
+	// Ids of the most related articles, best first
+	public long[] related(long articleId, int limit) {
+		Integer slot = slotOf.get(articleId);
+		if (slot == null || related[slot] == null) {
+			return new long[0];
+		}
+		int[] list = related[slot];
+		long[] result = new long[Math.min(limit, list.length)];
+		int size = 0;
+		for (int i = 0; i < list.length && size < result.length; i++) {
+			if (tags[list[i]] != null) {
+				result[size++] = ids[list[i]];
+			}
+		}
+		return size == result.length ? result : Arrays.copyOf(result, size);
+	}
+
+	private int newSlot(long articleId) {
+		if (slots == ids.length) {
+			int capacity = slots * 2;
+			ids = Arrays.copyOf(ids, capacity);
+			tags = Arrays.copyOf(tags, capacity);
+			related = Arrays.copyOf(related, capacity);
+			scores = Arrays.copyOf(scores, capacity);
+			touched = Arrays.copyOf(touched, capacity);
+		}
+		int slot = slots++;
+		ids[slot] = articleId;
+		related[slot] = NONE;
+		slotOf.put(articleId, slot);
+		live++;
+		return slot;
+	}
+
+	private int[] tagSlots(long[] tagIds) {
+		int[] result = new int[tagIds.length];
+		for (int i = 0; i < tagIds.length; i++) {
+			result[i] = tagSlotOf.computeIfAbsent(tagIds[i], id -> newTagSlot());
+		}
+		Arrays.sort(result);
+		int distinct = 0;
+		for (int i = 0; i < result.length; i++) {
+			if (i == 0 || result[i] != result[i - 1]) {
+				result[distinct++] = result[i];
+			}
+		}
+		return distinct == result.length ? result : Arrays.copyOf(result, distinct);
+	}
+
+	private int newTagSlot() {
+		if (tagSlots == postings.length) {
+			int capacity = tagSlots * 2;
+			postings = Arrays.copyOf(postings, capacity);
+			postingSizes = Arrays.copyOf(postingSizes, capacity);
+			articlesWithTag = Arrays.copyOf(articlesWithTag, capacity);
+		}
+		postings[tagSlots] = new int[4];
+		return tagSlots++;
+	}
+
+	// The candidates that shared one of the tags with the article and listed it get their list computed again
+	private void recomputeListsHolding(int slot, int[] oldTags) {
+		for (int tag : oldTags) {
+			int[] posting = postings[tag];
+			for (int i = postingSizes[tag] - 1, read = 0; i >= 0 && read < candidatesPerTag; i--) {
+				int other = posting[i];
+				if (other == slot || tags[other] == null || !hasTag(other, tag)) {
+					continue;
+				}
+				read++;
+				if (contains(related[other], slot)) {
+					related[other] = compute(other);
+				}
+			}
+		}
+	}
+
+	/*
+	 * A slot is listed at most once per posting: on a retag (oldTags not null) a tag the article keeps is already
+	 * there, and so may be the tombstone of a tag it had before an earlier retag, which becomes live again.
+	 */
+	private void setTags(int slot, int[] tagSlots, int[] oldTags) {
+		tags[slot] = tagSlots;
+		for (int tag : tagSlots) {
+			articlesWithTag[tag]++;
+			if (oldTags != null && (Arrays.binarySearch(oldTags, tag) >= 0 || postingHolds(tag, slot))) {
+				continue;
+			}
+			if (postingSizes[tag] == postings[tag].length) {
+				postings[tag] = Arrays.copyOf(postings[tag], postingSizes[tag] * 2);
+			}
+			postings[tag][postingSizes[tag]++] = slot;
+		}
+	}
+
+	private boolean postingHolds(int tag, int slot) {
+		int[] posting = postings[tag];
+		for (int i = 0; i < postingSizes[tag]; i++) {
+			if (posting[i] == slot) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// The posting entries stay behind as tombstones: hasTag() no longer matches them
+	private void unsetTags(int slot) {
+		for (int tag : tags[slot]) {
+			articlesWithTag[tag]--;
+		}
+		tags[slot] = NONE;
+	}
+
+	private boolean hasTag(int slot, int tag) {
+		return Arrays.binarySearch(tags[slot], tag) >= 0;
+	}
+
+	private float weight(int tag) {
+		return (float) Math.log(1 + (double) live / Math.max(1, articlesWithTag[tag]));
+	}
+
+	// Sum of the weights of the tags both articles have, by merging their sorted tag slots
+	private float similarity(int a, int b) {
+		int[] tagsA = tags[a];
+		int[] tagsB = tags[b];
+		float score = 0;
+		for (int i = 0, j = 0; i < tagsA.length && j < tagsB.length;) {
+			if (tagsA[i] < tagsB[j]) {
+				i++;
+			} else if (tagsA[i] > tagsB[j]) {
+				j++;
+			} else {
+				score += weight(tagsA[i]);
+				i++;
+				j++;
+			}
+		}
+		return score;
+	}
+
+	private int[] compute(int slot) {
+		int touchedCount = 0;
+		for (int tag : tags[slot]) {
+			float weight = weight(tag);
+			int[] posting = postings[tag];
+			// Without tombstones every entry is live, which spares reading the tags of each candidate
+			boolean clean = postingSizes[tag] == articlesWithTag[tag];
+			for (int i = postingSizes[tag] - 1, read = 0; i >= 0 && read < candidatesPerTag; i--) {
+				int other = posting[i];
+				if (other == slot || (!clean && (tags[other] == null || !hasTag(other, tag)))) {
+					continue;
+				}
+				read++;
+				if (scores[other] == 0) {
+					touched[touchedCount++] = other;
+				}
+				scores[other] += weight;
+			}
+		}
+
+		// Keeps the best `neighbours` candidates in a small array sorted best first
+		int[] best = new int[Math.min(neighbours, touchedCount)];
+		int size = 0;
+		for (int t = 0; t < touchedCount; t++) {
+			int other = touched[t];
+			if (size == best.length && !better(other, scores[other], best[size - 1], scores[best[size - 1]])) {
+				continue;
+			}
+			int position = size < best.length ? size++ : size - 1;
+			while (position > 0 && better(other, scores[other], best[position - 1], scores[best[position - 1]])) {
+				best[position] = best[position - 1];
+				position--;
+			}
+			best[position] = other;
+		}
+		for (int t = 0; t < touchedCount; t++) {
+			scores[touched[t]] = 0;
+		}
+		return best;
+	}
+
+	// Adds the article to the candidate's list if it ranks among its best, or moves it if already listed
+	private void offer(int candidate, int slot) {
+		int[] list = related[candidate];
+		float score = similarity(candidate, slot);
+		int[] updated;
+		if (contains(list, slot)) {
+			updated = list.clone();
+		} else if (list.length < neighbours) {
+			updated = Arrays.copyOf(list, list.length + 1);
+			updated[list.length] = slot;
+		} else {
+			int worst = list[list.length - 1];
+			if (!better(slot, score, worst, similarity(candidate, worst))) {
+				return;
+			}
+			updated = list.clone();
+			updated[updated.length - 1] = slot;
+		}
+		// Insertion sort by the current scores, the list is at most `neighbours` long
+		float[] listScores = new float[updated.length];
+		for (int i = 0; i < updated.length; i++) {
+			listScores[i] = similarity(candidate, updated[i]);
+			for (int j = i; j > 0 && better(updated[j], listScores[j], updated[j - 1], listScores[j - 1]); j--) {
+				int other = updated[j];
+				updated[j] = updated[j - 1];
+				updated[j - 1] = other;
+				float otherScore = listScores[j];
+				listScores[j] = listScores[j - 1];
+				listScores[j - 1] = otherScore;
+			}
+		}
+		related[candidate] = updated;
+	}
+
+	private boolean better(int a, float scoreA, int b, float scoreB) {
+		return scoreA > scoreB || (scoreA == scoreB && ids[a] > ids[b]);
+	}
+
+	private static boolean contains(int[] list, int slot) {
+		if (list == null) {
+			return false;
+		}
+		for (int value : list) {
+			if (value == slot) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
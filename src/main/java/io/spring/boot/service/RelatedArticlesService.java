@@ -0,0 +1,198 @@
+package io.spring.boot.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.repository.ArticleRepository;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Related articles served from memory: a RelatedArticlesIndex holding the top neighbours of every article by
+ * shared tags. A single background worker owns the changes: it builds the index from article_tags at startup and
+ * every rebuild-interval, and applies the ArticleEvents of each commit in between, so a request only reads a
+ * precomputed list. Events queued behind a rebuild are applied to the new index once it is swapped in.
+ */
+@Service
+public class RelatedArticlesService {
+
+	public static final int DEFAULT_SIZE = 5;
+
+	private static final Logger log = LoggerFactory.getLogger(RelatedArticlesService.class);
+
+	private static final String REBUILD_SQL = "SELECT article_id, tag_id FROM article_tags ORDER BY article_id";
+	private static final int REBUILD_FETCH_SIZE = 1000;
+
+	private final ArticleRepository articleRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final Executor worker;
+	private final int maxSize;
+	private final int candidatesPerTag;
+	// The worker writes under the lock, requests only read
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private RelatedArticlesIndex index;
+
+	@Autowired
+	public RelatedArticlesService(ArticleRepository articleRepository, JdbcTemplate jdbcTemplate,
+								@Value("${articles.related.max-size:10}") int maxSize,
+								@Value("${articles.related.candidates-per-tag:500}") int candidatesPerTag) {
+		this(articleRepository, jdbcTemplate, maxSize, candidatesPerTag,
+				Executors.newSingleThreadExecutor(r -> {
+					Thread thread = new Thread(r, "related-articles");
+					thread.setDaemon(true);
+					return thread;
+				}));
+	}
+
+	// Visible for testing
+	RelatedArticlesService(ArticleRepository articleRepository, JdbcTemplate jdbcTemplate, int maxSize,
+						int candidatesPerTag, Executor worker) {
+		this.articleRepository = articleRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.maxSize = maxSize;
+		this.candidatesPerTag = candidatesPerTag;
+		this.worker = worker;
+		this.index = new RelatedArticlesIndex(maxSize, candidatesPerTag);
+	}
+
+	// The articles sharing the most (and the rarest) tags with the given one, most related first
+	@Transactional(readOnly = true)
+	public List<Article> findRelated(String slug, int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("Limit must be positive");
+		}
+		Long articleId = articleRepository.findVersionBySlug(slug).orElseThrow(
+				() -> new NoSuchElementException("No existing article with given slug: " + slug)).getId();
+		long[] ids;
+		lock.readLock().lock();
+		try {
+			ids = index.related(articleId, Math.min(limit, maxSize));
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		List<Long> wanted = Arrays.stream(ids).boxed().toList();
+		Map<Long, Article> found = articleRepository.findAllById(wanted).stream()
+				.collect(Collectors.toMap(Article::getId, Function.identity()));
+		List<Article> articles = new ArrayList<>(ids.length);
+		for (Long id : wanted) {
+			Article article = found.get(id);
+			if (article != null) {
+				articles.add(article);
+			} else {
+				// Removed without an event, together with its author's account
+				worker.execute(() -> apply(ArticleEvent.deleted(id)));
+			}
+		}
+		return articles;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onArticleEvent(ArticleEvent event) {
+		worker.execute(() -> apply(event));
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${articles.related.rebuild-interval:PT1H}", initialDelayString = "${articles.related.rebuild-interval:PT1H}")
+	public void scheduleRebuild() {
+		worker.execute(this::rebuild);
+	}
+
+	/*
+	 * Builds a new index from the article_tags table, read through one forward-only cursor ordered by article,
+	 * while requests keep reading the current one, then swaps it in. Runs on the worker.
+	 */
+	long rebuild() {
+		long start = System.nanoTime();
+		RelatedArticlesIndex rebuilt = new RelatedArticlesIndex(maxSize, candidatesPerTag);
+		TagsOfArticle current = new TagsOfArticle();
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(REBUILD_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(REBUILD_FETCH_SIZE);
+			return statement;
+		}, (RowCallbackHandler) rs -> {
+			long articleId = rs.getLong("article_id");
+			if (current.size > 0 && current.articleId != articleId) {
+				current.loadInto(rebuilt);
+			}
+			current.articleId = articleId;
+			current.add(rs.getLong("tag_id"));
+		});
+		if (current.size > 0) {
+			current.loadInto(rebuilt);
+		}
+		rebuilt.computeAll();
+		lock.writeLock().lock();
+		try {
+			index = rebuilt;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("Computed related articles of {} articles in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+		return rebuilt.size();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (worker instanceof ExecutorService executor) {
+			executor.shutdownNow();
+		}
+	}
+
+	private void apply(ArticleEvent event) {
+		lock.writeLock().lock();
+		try {
+			if (event.type() == ArticleEvent.Type.SAVED) {
+				index.upsert(event.articleId(), event.tagIds().stream().mapToLong(Long::longValue).toArray());
+			} else {
+				index.remove(event.articleId());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Tag ids of the article being read, reused from one article to the next
+	private static final class TagsOfArticle {
+		private long articleId;
+		private long[] tagIds = new long[8];
+		private int size;
+
+		private void add(long tagId) {
+			if (size == tagIds.length) {
+				tagIds = Arrays.copyOf(tagIds, size * 2);
+			}
+			tagIds[size++] = tagId;
+		}
+
+		private void loadInto(RelatedArticlesIndex index) {
+			index.load(articleId, Arrays.copyOf(tagIds, size));
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package io.spring.boot.service;
+
+import java.util.Collection;
+
+/**
+ * Published when tags are created, or used by an article (USED, once per article, creating the missing ones),
+ * delivered to the tag suggestions after commit.
+ */
+public record TagEvent(Type type, Collection<String> names) {
+
+	public enum Type { CREATED, USED }
+}
@@ -1,8 +1,14 @@
 package io.spring.boot.service;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,13 +18,13 @@ import io.spring.boot.repository.TagRepository;
 @Service
 public class TagService {
 
-	@Autowired
-	private TagRepository tagRepository;
-	
+	private final TagRepository tagRepository;
+	private final ApplicationEventPublisher eventPublisher;
 	
-	
-	public TagService(TagRepository tagRepository) {
+	@Autowired
+	public TagService(TagRepository tagRepository, ApplicationEventPublisher eventPublisher) {
 		this.tagRepository = tagRepository;
+		this.eventPublisher = eventPublisher;
 	}
 
 	@Transactional
@@ -26,7 +32,9 @@ public class TagService {
 		if (tag == null || tag.getName() == null || tag.getName().trim().isEmpty()) {
 	        throw new IllegalArgumentException("Name cannot be null or empty");
 	    }
-		return tagRepository.save(tag);
+		Tag saved = tagRepository.save(tag);
+		eventPublisher.publishEvent(new TagEvent(TagEvent.Type.CREATED, List.of(saved.getName())));
+		return saved;
 	}
 	
 	@Transactional(readOnly = true)
@@ -34,4 +42,46 @@ public class TagService {
 		return tagRepository.findAll();
 	}
 	
+	/*
+	 * Returns the managed tags for the given names, creating the missing ones.
+	 * Known tags cost one "WHERE name IN (...)" lookup; new tags add one batched insert and a second lookup.
+	 * The insert joins the caller's transaction and skips names another transaction created meanwhile.
+	 */
+	@Transactional
+	public Set<Tag> resolveTags(Collection<String> names) {
+		Set<String> distinctNames = distinctNames(names);
+		Set<Tag> tags = findOrCreate(distinctNames);
+		if (!distinctNames.isEmpty()) {
+			eventPublisher.publishEvent(new TagEvent(TagEvent.Type.USED, distinctNames));
+		}
+		return tags;
+	}
+	
+	// Like resolveTags without counting a use, for callers resolving the tags of many articles at once: they publish USED per article
+	@Transactional
+	public Set<Tag> findOrCreateTags(Collection<String> names) {
+		return findOrCreate(distinctNames(names));
+	}
+	
+	private Set<Tag> findOrCreate(Set<String> distinctNames) {
+		if (distinctNames.isEmpty()) {
+			return new HashSet<>();
+		}
+		Set<Tag> tags = new HashSet<>(tagRepository.findByNameIn(distinctNames));
+		if (tags.size() < distinctNames.size()) {
+			Set<String> missingNames = new LinkedHashSet<>(distinctNames);
+			tags.forEach(tag -> missingNames.remove(tag.getName()));
+			tagRepository.insertMissing(missingNames);
+			tags.addAll(tagRepository.findByNameIn(missingNames));
+		}
+		return tags;
+	}
+	
+	private static Set<String> distinctNames(Collection<String> names) {
+		return names.stream()
+				.map(String::trim)
+				.filter(name -> !name.isEmpty())
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+	
 }
@@ -0,0 +1,94 @@
+package io.spring.boot.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/*
+ * Tag autocomplete served from memory. The trie is built from the tags table, weighted by the number of articles
+ * using each tag, and swapped in whole every refresh-interval. In between, new tags are added and usage counts
+ * bumped by the TagEvents of each commit; counts going down (deleted articles) wait for the next refresh.
+ */
+@Service
+public class TagSuggestionService {
+
+	public static final int DEFAULT_SIZE = 10;
+
+	private static final Logger log = LoggerFactory.getLogger(TagSuggestionService.class);
+
+	private static final String WEIGHTS_SQL = """
+			SELECT t.name, COUNT(at.article_id) AS articles
+			FROM tags t LEFT JOIN article_tags at ON at.tag_id = t.id
+			WHERE t.name IS NOT NULL
+			GROUP BY t.id, t.name""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final int maxSize;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private TagTrie trie;
+
+	@Autowired
+	public TagSuggestionService(JdbcTemplate jdbcTemplate, @Value("${tags.suggest.max-size:10}") int maxSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.maxSize = maxSize;
+		this.trie = new TagTrie(maxSize);
+	}
+
+	// The most used tags starting with the prefix (case-insensitive), most used first; an empty prefix gives the overall top
+	public List<String> suggest(String prefix, int limit) {
+		if (prefix == null) {
+			throw new IllegalArgumentException("Prefix cannot be null");
+		}
+		if (limit < 1) {
+			throw new IllegalArgumentException("Limit must be positive");
+		}
+		lock.readLock().lock();
+		try {
+			return trie.suggest(prefix.trim(), Math.min(limit, maxSize));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTagEvent(TagEvent event) {
+		long delta = event.type() == TagEvent.Type.USED ? 1 : 0;
+		lock.writeLock().lock();
+		try {
+			event.names().forEach(name -> trie.add(name, delta));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Built off to the side, readers only wait for the swap
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${tags.suggest.refresh-interval:PT5M}", initialDelayString = "${tags.suggest.refresh-interval:PT5M}")
+	public void rebuild() {
+		long start = System.nanoTime();
+		Map<String, Long> weights = new HashMap<>();
+		jdbcTemplate.query(WEIGHTS_SQL, (RowCallbackHandler) rs -> weights.put(rs.getString("name"), rs.getLong("articles")));
+		TagTrie rebuilt = TagTrie.of(weights, maxSize);
+		lock.writeLock().lock();
+		try {
+			trie = rebuilt;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.debug("Loaded {} tags for suggestions in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+}
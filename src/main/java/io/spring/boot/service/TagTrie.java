@@ -0,0 +1,171 @@
+package io.spring.boot.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Prefix trie of tag names, case-insensitive, where every node keeps the k most popular tags below it.
+ * A suggestion is a walk down the prefix and a copy of that node's list: its cost depends on the prefix
+ * length and k, not on the number of tags. Children sit in sorted parallel arrays rather than maps.
+ * Not thread-safe, TagSuggestionService guards it.
+ */
+final class TagTrie {
+
+	// Most popular first, then alphabetical
+	private static final Comparator<Entry> RANK = Comparator.comparingLong((Entry e) -> e.weight).reversed()
+			.thenComparing(e -> e.name);
+	private static final char[] NO_LABELS = {};
+	private static final Node[] NO_CHILDREN = {};
+	private static final Entry[] NO_ENTRIES = {};
+
+	private final int k;
+	private final Node root = new Node();
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	TagTrie(int k) {
+		this.k = k;
+	}
+
+	// Builds the trie with final weights in one pass, then fills every top-k list bottom-up
+	static TagTrie of(Map<String, Long> weights, int k) {
+		TagTrie trie = new TagTrie(k);
+		weights.forEach((name, weight) -> trie.insert(name, weight));
+		trie.computeTops(trie.root);
+		return trie;
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	// Adds delta to the weight of the tag, inserting it first if unknown, and updates the lists along its path
+	void add(String name, long delta) {
+		Entry entry = entries.get(name);
+		if (entry == null) {
+			entry = insert(name, delta);
+		} else {
+			entry.weight += delta;
+		}
+		String key = name.toLowerCase(Locale.ROOT);
+		Node node = root;
+		promote(node, entry);
+		for (int i = 0; i < key.length(); i++) {
+			node = node.child(key.charAt(i));
+			promote(node, entry);
+		}
+	}
+
+	List<String> suggest(String prefix, int limit) {
+		String key = prefix.toLowerCase(Locale.ROOT);
+		Node node = root;
+		for (int i = 0; i < key.length() && node != null; i++) {
+			node = node.child(key.charAt(i));
+		}
+		if (node == null) {
+			return List.of();
+		}
+		int size = Math.min(limit, node.top.length);
+		List<String> names = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			names.add(node.top[i].name);
+		}
+		return names;
+	}
+
+	private Entry insert(String name, long weight) {
+		Entry entry = new Entry(name, weight);
+		entries.put(name, entry);
+		String key = name.toLowerCase(Locale.ROOT);
+		Node node = root;
+		for (int i = 0; i < key.length(); i++) {
+			node = node.childOrCreate(key.charAt(i));
+		}
+		node.tags = Arrays.copyOf(node.tags, node.tags.length + 1);
+		node.tags[node.tags.length - 1] = entry;
+		return entry;
+	}
+
+	private Entry[] computeTops(Node node) {
+		List<Entry> candidates = new ArrayList<>(Arrays.asList(node.tags));
+		for (Node child : node.children) {
+			candidates.addAll(Arrays.asList(computeTops(child)));
+		}
+		candidates.sort(RANK);
+		node.top = candidates.subList(0, Math.min(k, candidates.size())).toArray(NO_ENTRIES);
+		return node.top;
+	}
+
+	// Weights only grow between rebuilds, so an entry can only move up or into a list, never out of one
+	private void promote(Node node, Entry entry) {
+		Entry[] top = node.top;
+		int position = -1;
+		for (int i = 0; i < top.length; i++) {
+			if (top[i] == entry) {
+				position = i;
+				break;
+			}
+		}
+		if (position < 0) {
+			if (top.length == k && RANK.compare(entry, top[k - 1]) >= 0) {
+				return;
+			}
+			top = Arrays.copyOf(top, Math.min(k, top.length + 1));
+			position = top.length - 1;
+			top[position] = entry;
+		}
+		while (position > 0 && RANK.compare(top[position], top[position - 1]) < 0) {
+			Entry previous = top[position - 1];
+			top[position - 1] = top[position];
+			top[position] = previous;
+			position--;
+		}
+		node.top = top;
+	}
+
+	private static final class Entry {
+		private final String name;
+		private long weight;
+
+		private Entry(String name, long weight) {
+			this.name = name;
+			this.weight = weight;
+		}
+	}
+
+	private static final class Node {
+		private char[] labels = NO_LABELS;
+		private Node[] children = NO_CHILDREN;
+		// Tags ending here: more than one when names differ only by case
+		private Entry[] tags = NO_ENTRIES;
+		private Entry[] top = NO_ENTRIES;
+
+		private Node child(char label) {
+			int i = Arrays.binarySearch(labels, label);
+			return i >= 0 ? children[i] : null;
+		}
+
+		private Node childOrCreate(char label) {
+			int i = Arrays.binarySearch(labels, label);
+			if (i >= 0) {
+				return children[i];
+			}
+			int at = -i - 1;
+			char[] newLabels = new char[labels.length + 1];
+			Node[] newChildren = new Node[children.length + 1];
+			System.arraycopy(labels, 0, newLabels, 0, at);
+			System.arraycopy(children, 0, newChildren, 0, at);
+			newLabels[at] = label;
+			newChildren[at] = new Node();
+			System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+			System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+			labels = newLabels;
+			children = newChildren;
+			return newChildren[at];
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package io.spring.boot.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.repository.ArticleRepository;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Trending articles: favorites and comments earn an article points that lose half their weight every half-life,
+ * a withdrawn favorite takes back what its point is still worth. Scores live in memory (TrendingScores), bumped by the activity events of
+ * each commit, and are saved every persist-interval and at shutdown so a restart picks them up where they were.
+ */
+@Service
+public class TrendingArticlesService {
+
+	public static final int DEFAULT_PAGE_SIZE = 20;
+	public static final int MAX_PAGE_SIZE = 100;
+
+	private static final Logger log = LoggerFactory.getLogger(TrendingArticlesService.class);
+
+	// Scores decayed below this are forgotten at the next save
+	private static final double MIN_SCORE = 0.01;
+	// Half-lives after which a single point has decayed below MIN_SCORE
+	private static final double FORGET_AFTER_HALF_LIVES = Math.log(1 / MIN_SCORE) / Math.log(2);
+	// Extra scores kept sorted beyond the largest page, for the articles dropping out of it
+	private static final int CAPACITY = 10 * MAX_PAGE_SIZE;
+	private static final String LOAD_SQL = """
+			SELECT s.article_id, s.score, s.scored_at
+			FROM article_trending_scores s JOIN articles a ON a.id = s.article_id""";
+	private static final String DELETE_SQL = "DELETE FROM article_trending_scores";
+	// Skips articles deleted since their last activity
+	private static final String INSERT_SQL = """
+			INSERT INTO article_trending_scores (article_id, score, scored_at)
+			SELECT a.id, ?, ? FROM articles a WHERE a.id = ?""";
+
+	private final ArticleRepository articleRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final double halfLifeMillis;
+	private final double commentWeight;
+	private final TrendingScores scores;
+	// When each favorite still worth something was given, forgotten at the save after it decayed below MIN_SCORE.
+	// Favorites given before a restart are unknown: withdrawing one takes nothing back
+	private final Map<Favorite, Long> favoritedAt = new ConcurrentHashMap<>();
+
+	@Autowired
+	public TrendingArticlesService(ArticleRepository articleRepository, JdbcTemplate jdbcTemplate,
+								PlatformTransactionManager transactionManager,
+								@Value("${articles.trending.half-life:PT24H}") Duration halfLife,
+								@Value("${articles.trending.comment-weight:0.5}") double commentWeight) {
+		this.articleRepository = articleRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.halfLifeMillis = halfLife.toMillis();
+		this.commentWeight = commentWeight;
+		this.scores = new TrendingScores(halfLife.toMillis(), CAPACITY, System.currentTimeMillis());
+	}
+
+	// The articles with the highest decayed scores, best first
+	@Transactional(readOnly = true)
+	public List<Article> findTrending(int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("Limit must be positive");
+		}
+		List<Long> ids = scores.top(Math.min(limit, MAX_PAGE_SIZE));
+		Map<Long, Article> found = articleRepository.findAllById(ids).stream()
+				.collect(Collectors.toMap(Article::getId, Function.identity()));
+		List<Article> articles = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			Article article = found.get(id);
+			if (article != null) {
+				articles.add(article);
+			} else {
+				// Removed without an event, together with its author's account
+				scores.remove(id);
+			}
+		}
+		return articles;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onActivityEvent(ArticleActivityEvent event) {
+		onActivityEvent(event, System.currentTimeMillis());
+	}
+
+	// Visible for testing
+	void onActivityEvent(ArticleActivityEvent event, long nowMillis) {
+		switch (event.type()) {
+			case FAVORITED -> {
+				favoritedAt.put(new Favorite(event.articleId(), event.userId()), nowMillis);
+				scores.add(event.articleId(), 1, nowMillis);
+			}
+			case UNFAVORITED -> {
+				// A point taken back as of the time it was given is exactly its decayed value
+				Long givenAt = favoritedAt.remove(new Favorite(event.articleId(), event.userId()));
+				if (givenAt != null) {
+					scores.add(event.articleId(), -1, givenAt);
+				}
+			}
+			case COMMENTED -> scores.add(event.articleId(), commentWeight, nowMillis);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onArticleEvent(ArticleEvent event) {
+		if (event.type() == ArticleEvent.Type.DELETED) {
+			scores.remove(event.articleId());
+		}
+	}
+
+	// Saved scores decay for the time the application was down
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		long now = System.currentTimeMillis();
+		int[] count = { 0 };
+		jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> {
+			long scoredAt = rs.getObject("scored_at", OffsetDateTime.class).toInstant().toEpochMilli();
+			double decayed = rs.getDouble("score") * Math.pow(2, -(now - scoredAt) / halfLifeMillis);
+			scores.add(rs.getLong("article_id"), decayed, now);
+			count[0]++;
+		});
+		log.info("Loaded {} trending scores", count[0]);
+	}
+
+	/*
+	 * Replaces the saved scores with the current ones. Rebasing on the way keeps the forward-decayed values in range,
+	 * forgets the scores that decayed to nothing and resorts the top scores.
+	 */
+	@Scheduled(fixedDelayString = "${articles.trending.persist-interval:PT1M}")
+	public synchronized int persist() {
+		long now = System.currentTimeMillis();
+		Map<Long, Double> current = scores.rebase(now, MIN_SCORE);
+		long forgetBefore = now - (long) (halfLifeMillis * FORGET_AFTER_HALF_LIVES);
+		favoritedAt.values().removeIf(givenAt -> givenAt < forgetBefore);
+		OffsetDateTime scoredAt = Instant.ofEpochMilli(now).atOffset(ZoneOffset.UTC);
+		List<Object[]> rows = new ArrayList<>(current.size());
+		current.forEach((articleId, score) -> rows.add(new Object[] { score, scoredAt, articleId }));
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				jdbcTemplate.update(DELETE_SQL);
+				if (!rows.isEmpty()) {
+					jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+				}
+			});
+			log.debug("Saved {} trending scores", rows.size());
+		} catch (RuntimeException e) {
+			// Scores stay in memory, the next save writes them
+			log.warn("Saving {} trending scores failed", rows.size(), e);
+		}
+		return rows.size();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		persist();
+	}
+
+	private record Favorite(Long articleId, Long userId) {
+	}
+}
@@ -0,0 +1,167 @@
+package io.spring.boot.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Exponentially decayed activity scores of articles, with the best `capacity` of them kept sorted.
+ *
+ * Forward decay: instead of shrinking every score as time passes, a point earned at time t is recorded as
+ * 2^((t - epoch) / halfLife) points, so newer points weigh more. The decayed value of a score at time now is the
+ * recorded value times 2^(-(now - epoch) / halfLife), the same factor for every article, so the ranking never
+ * changes between two updates and only an updated article needs to move in the sorted set. rebase() brings the
+ * epoch forward before the exponent grows too large, and drops the scores that have decayed to nothing.
+ *
+ * Updates run concurrently, one article at a time (ConcurrentHashMap.compute). A score going down keeps its article
+ * in the sorted set even if an article outside the set now scores higher, until the next rebase rebuilds the set.
+ */
+final class TrendingScores {
+
+	// Best first, the newer article on ties
+	private static final Comparator<Entry> RANK = Comparator.comparingDouble(Entry::score).reversed()
+			.thenComparing(Comparator.comparingLong(Entry::articleId).reversed());
+
+	private final double halfLifeMillis;
+	private final int capacity;
+	private final Map<Long, Double> scores = new ConcurrentHashMap<>();
+	// Updates share the lock, a rebase takes it alone
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private volatile ConcurrentSkipListSet<Entry> top = new ConcurrentSkipListSet<>(RANK);
+	private final AtomicInteger topSize = new AtomicInteger();
+	private long epochMillis;
+
+	TrendingScores(long halfLifeMillis, int capacity, long epochMillis) {
+		this.halfLifeMillis = halfLifeMillis;
+		this.capacity = capacity;
+		this.epochMillis = epochMillis;
+	}
+
+	// Adds points earned at the given time, negative for a withdrawn favorite; a score never goes below zero
+	void add(long articleId, double points, long nowMillis) {
+		lock.readLock().lock();
+		try {
+			double forward = points * growth(nowMillis);
+			scores.compute(articleId, (id, previous) -> {
+				double old = previous == null ? 0 : previous;
+				double updated = Math.max(0, old + forward);
+				if (previous != null && top.remove(new Entry(id, old))) {
+					topSize.decrementAndGet();
+				}
+				if (updated <= 0) {
+					return null;
+				}
+				offer(new Entry(id, updated));
+				return updated;
+			});
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	void remove(long articleId) {
+		lock.readLock().lock();
+		try {
+			scores.computeIfPresent(articleId, (id, score) -> {
+				if (top.remove(new Entry(id, score))) {
+					topSize.decrementAndGet();
+				}
+				return null;
+			});
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Ids of the highest scores, best first
+	List<Long> top(int limit) {
+		List<Long> ids = new ArrayList<>(Math.min(limit, capacity));
+		Iterator<Entry> entries = top.iterator();
+		while (entries.hasNext() && ids.size() < limit) {
+			ids.add(entries.next().articleId());
+		}
+		return ids;
+	}
+
+	// The decayed score of the article at the given time
+	double score(long articleId, long nowMillis) {
+		lock.readLock().lock();
+		try {
+			Double score = scores.get(articleId);
+			return score == null ? 0 : score / growth(nowMillis);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	int size() {
+		return scores.size();
+	}
+
+	/*
+	 * Moves the epoch to now, scaling every score down to its decayed value, drops those below minScore and
+	 * rebuilds the sorted set from all scores. Returns the decayed values, e.g. to be saved.
+	 */
+	Map<Long, Double> rebase(long nowMillis, double minScore) {
+		lock.writeLock().lock();
+		try {
+			double decay = 1 / growth(nowMillis);
+			ConcurrentSkipListSet<Entry> rebuilt = new ConcurrentSkipListSet<>(RANK);
+			Map<Long, Double> current = new HashMap<>(scores.size());
+			int size = 0;
+			Iterator<Map.Entry<Long, Double>> iterator = scores.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<Long, Double> score = iterator.next();
+				double value = score.getValue() * decay;
+				if (value < minScore) {
+					iterator.remove();
+					continue;
+				}
+				score.setValue(value);
+				current.put(score.getKey(), value);
+				rebuilt.add(new Entry(score.getKey(), value));
+				if (++size > capacity) {
+					rebuilt.pollLast();
+					size--;
+				}
+			}
+			epochMillis = nowMillis;
+			top = rebuilt;
+			topSize.set(size);
+			return current;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private double growth(long nowMillis) {
+		return Math.pow(2, (nowMillis - epochMillis) / halfLifeMillis);
+	}
+
+	// Called inside compute() for the entry's article, so never twice at the same time for one article
+	private void offer(Entry entry) {
+		if (topSize.get() >= capacity) {
+			Entry last = top.isEmpty() ? null : top.last();
+			if (last != null && RANK.compare(entry, last) >= 0) {
+				return;
+			}
+		}
+		if (top.add(entry)) {
+			topSize.incrementAndGet();
+		}
+		while (topSize.get() > capacity && top.pollLast() != null) {
+			topSize.decrementAndGet();
+		}
+	}
+
+	private record Entry(long articleId, double score) {
+	}
+}
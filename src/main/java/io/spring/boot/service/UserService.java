@@ -1,5 +1,6 @@
 package io.spring.boot.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -17,11 +18,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.spring.boot.dto.FieldSet;
 import io.spring.boot.dto.UserPutRequestDTO;
 import io.spring.boot.entity.Profile;
 import io.spring.boot.entity.User;
 import io.spring.boot.repository.UserRepository;
 import io.spring.boot.security.JwtService;
+import jakarta.persistence.Tuple;
 
 @Service
 public class UserService implements UserDetailsService {
@@ -85,40 +88,23 @@ public class UserService implements UserDetailsService {
 		return userRepository.save(user);
 	}
 	
+	// Partial update: absent fields are kept and not written, the user row is not read before the UPDATE
 	@Transactional
 	public User updateUser(Long id, UserPutRequestDTO dto) {
-		User existingUser = userRepository.findById(id).orElseThrow(() -> new NoSuchElementException("No existing user with given id: " + id));
-		
 		// Business logic validation
-	    if (dto.getEmail() != null && !dto.getEmail().equals(existingUser.getEmail()) && userRepository.existsByEmail(dto.getEmail())) {
+	    if (dto.getEmail() != null && userRepository.existsByEmailAndIdNot(dto.getEmail(), id)) {
 	        throw new IllegalArgumentException("Email has already been taken");
 	    }
-	    if (dto.getUsername() != null && !dto.getUsername().equals(existingUser.getProfile().getUsername()) && 
-	        userRepository.existsByProfileUsername(dto.getUsername())) {
+	    if (dto.getUsername() != null && userRepository.existsByProfileUsernameAndIdNot(dto.getUsername(), id)) {
 	        throw new IllegalArgumentException("Username has already been taken");
 	    }
 
-	    // Update fields
-	    if (dto.getEmail() != null) {
-	        existingUser.setEmail(dto.getEmail());
-	    }
-	    if (dto.getPassword() != null) {
-	        existingUser.setPassword(passwordEncoder.encode(dto.getPassword()));
+	    String password = dto.getPassword() == null ? null : passwordEncoder.encode(dto.getPassword());
+	    int updated = userRepository.updateChangedColumns(id, dto.getEmail(), password, dto.getUsername(), dto.getBio(), dto.getImage());
+	    if (updated == 0) {
+	    	throw new NoSuchElementException("No existing user with given id: " + id);
 	    }
-	    if (dto.getUsername() != null || dto.getBio() != null || dto.getImage() != null) {
-	        Profile profile = existingUser.getProfile();
-	        if (dto.getUsername() != null) {
-	            profile.setUsername(dto.getUsername());
-	        }
-	        if (dto.getBio() != null) {
-	            profile.setBio(dto.getBio());
-	        }
-	        if (dto.getImage() != null) {
-	            profile.setImage(dto.getImage());
-	        }
-	        existingUser.setProfile(profile);
-	    }
-	    return userRepository.save(existingUser);
+	    return userRepository.findById(id).orElseThrow(() -> new NoSuchElementException("No existing user with given id: " + id));
 	}
 	
 	@Transactional
@@ -126,7 +112,16 @@ public class UserService implements UserDetailsService {
 		if(!userRepository.existsById(id)) {
 			throw new NoSuchElementException("No existing user with given id: " + id);
 		}
-		userRepository.deleteById(id);
+		// Set-based, children before parents: the cascade on User would load every article and comment and delete them one by one
+		userRepository.discountCommentsOf(id);
+		userRepository.deleteCommentsOf(id);
+		userRepository.deleteCommentsOnArticlesOf(id);
+		userRepository.deleteFavoritesOnArticlesOf(id);
+		userRepository.deleteTagLinksOfArticlesOf(id);
+		userRepository.deleteArticlesOf(id);
+		userRepository.deleteFavoritesOf(id);
+		userRepository.deleteFollowsOf(id);
+		userRepository.deleteUserRow(id);
 	}
 
     @Transactional(readOnly = true)
@@ -138,6 +133,17 @@ public class UserService implements UserDetailsService {
         return userRepository.findFirstByProfileUsername(username).orElseThrow(
         									() -> new NoSuchElementException("User not found: " + username));
     }
+    
+    // The id and the requested profile columns only, for a sparse fieldset
+    @Transactional(readOnly = true)
+    public Tuple viewProfileFields(String username, FieldSet fields) {
+    	if (username == null || username.trim().isEmpty()) {
+            throw new IllegalArgumentException("Username cannot be null or empty");
+        }
+    	
+        return userRepository.findProfileFields(username, fields.names()).orElseThrow(
+        									() -> new NoSuchElementException("User not found: " + username));
+    }
 	
 	@Transactional
 	public User followUser(Long id, String username) {
@@ -176,6 +182,14 @@ public class UserService implements UserDetailsService {
 		return user.getFollowedUsers();
 	}
 
+	@Transactional(readOnly = true)
+	public Set<Long> findFolloweeIds(Long followerId, Collection<Long> candidateIds){
+		if (followerId == null || candidateIds.isEmpty()) {
+			return Set.of();
+		}
+		return userRepository.findFolloweeIdsAmong(followerId, candidateIds);
+	}
+
 	@Override
 	public UserDetails loadUserByUsername(String email) {
 		return userRepository.findFirstByEmail(email).orElseThrow(() -> new NoSuchElementException("User not found:" + email));
@@ -0,0 +1,97 @@
+package io.spring.boot.benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.User;
+import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.TagRepository;
+import io.spring.boot.repository.UserRepository;
+import io.spring.boot.service.ArticleService;
+
+/*
+ * Article creation throughput by number of tags, comparing the batched tag resolution of ArticleService
+ * with the former find-or-insert round trip per tag. Half of each article's tags already exist, half are new.
+ * Run with: mvn test -Pbenchmark -Dtest=ArticleCreationBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = { "spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.format_sql=false" })
+public class ArticleCreationBenchmark {
+
+	private static final int[] TAG_COUNTS = { 0, 1, 5, 10, 20 };
+	private static final int WARMUP_ARTICLES = 200;
+	private static final int MEASURED_ARTICLES = 1000;
+
+	@Autowired
+	private ArticleService articleService;
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private TagRepository tagRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private User author;
+	private int sequence;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User(null, "bench" + System.nanoTime() + "@example.com", "", new Profile("bench" + System.nanoTime())));
+	}
+
+	@Test
+	void articleCreationByTagCount() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		Consumer<Article> perTag = article -> transaction.executeWithoutResult(status -> {
+			article.setTags(article.getTagList().stream()
+					.map(name -> tagRepository.findByName(name).orElseGet(() -> tagRepository.save(new io.spring.boot.entity.Tag(name))))
+					.collect(Collectors.toSet()));
+			articleRepository.save(article);
+		});
+		Consumer<Article> batched = articleService::saveArticle;
+
+		System.out.printf("%-10s %12s %12s%n", "tags", "per-tag/s", "batched/s");
+		for (int tagCount : TAG_COUNTS) {
+			run(perTag, tagCount, WARMUP_ARTICLES);
+			run(batched, tagCount, WARMUP_ARTICLES);
+			double perTagRate = run(perTag, tagCount, MEASURED_ARTICLES);
+			double batchedRate = run(batched, tagCount, MEASURED_ARTICLES);
+			System.out.printf("%-10d %12.0f %12.0f%n", tagCount, perTagRate, batchedRate);
+		}
+	}
+
+	// Returns the number of articles created per second
+	private double run(Consumer<Article> create, int tagCount, int articles) {
+		long start = System.nanoTime();
+		for (int i = 0; i < articles; i++) {
+			create.accept(newArticle(tagCount));
+		}
+		return articles / ((System.nanoTime() - start) / 1e9);
+	}
+
+	private Article newArticle(int tagCount) {
+		int n = sequence++;
+		Set<io.spring.boot.entity.Tag> tags = new HashSet<>();
+		for (int i = 0; i < tagCount; i++) {
+			// Even tags come from a small shared vocabulary, odd tags are seen for the first time
+			tags.add(new io.spring.boot.entity.Tag(i % 2 == 0 ? "common-" + i : "tag-" + n + "-" + i));
+		}
+		Article article = new Article("Benchmark article " + n, "description", "body", tags);
+		article.setAuthor(author);
+		return article;
+	}
+}
@@ -0,0 +1,118 @@
+package io.spring.boot.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Comment;
+import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.User;
+import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.CommentRepository;
+import io.spring.boot.repository.TagRepository;
+import io.spring.boot.repository.UserRepository;
+import io.spring.boot.service.ArticleService;
+import jakarta.persistence.EntityManager;
+
+/*
+ * Latency of deleting one article with many comments: the entity delete that cascades through the
+ * comments collection against the set-based delete of ArticleService.
+ * Run with: mvn test -Pbenchmark -Dtest=ArticleDeleteBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = { "spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.format_sql=false" })
+public class ArticleDeleteBenchmark {
+
+	private static final int COMMENTS = 10_000;
+	private static final int FAVORITES = 100;
+	private static final int ROUNDS = 3;
+
+	@Autowired
+	private ArticleService articleService;
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private CommentRepository commentRepository;
+	@Autowired
+	private TagRepository tagRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transaction;
+	private User author;
+	private List<User> fans;
+	private Set<io.spring.boot.entity.Tag> tags;
+	private int sequence;
+
+	@BeforeEach
+	void setUp() {
+		transaction = new TransactionTemplate(transactionManager);
+		author = userRepository.save(new User(null, "delete" + System.nanoTime() + "@example.com", "", new Profile("delete" + System.nanoTime())));
+		fans = new ArrayList<>();
+		for (int i = 0; i < FAVORITES; i++) {
+			fans.add(userRepository.save(new User(null, "fan" + System.nanoTime() + "@example.com", "", new Profile("fan" + System.nanoTime()))));
+		}
+		tags = new HashSet<>();
+		for (int i = 0; i < 5; i++) {
+			tags.add(tagRepository.save(new io.spring.boot.entity.Tag("delete-" + System.nanoTime() + "-" + i)));
+		}
+	}
+
+	@Test
+	void deleteArticleWithManyComments() {
+		// Warm-up
+		cascadeDelete(seed());
+		articleService.deleteArticleById(seed());
+
+		System.out.printf("%-12s %12s%n", "delete", "ms");
+		for (int r = 0; r < ROUNDS; r++) {
+			Long cascaded = seed();
+			long start = System.nanoTime();
+			cascadeDelete(cascaded);
+			System.out.printf("%-12s %12.1f%n", "cascade", (System.nanoTime() - start) / 1e6);
+
+			Long setBased = seed();
+			start = System.nanoTime();
+			articleService.deleteArticleById(setBased);
+			System.out.printf("%-12s %12.1f%n", "set-based", (System.nanoTime() - start) / 1e6);
+		}
+	}
+
+	private void cascadeDelete(Long articleId) {
+		transaction.executeWithoutResult(status -> articleRepository.delete(articleRepository.findById(articleId).get()));
+	}
+
+	// Returns the id of a fresh article with its tags, favorites and comments committed
+	private Long seed() {
+		return transaction.execute(status -> {
+			User managedAuthor = entityManager.getReference(User.class, author.getId());
+			Article article = new Article("Delete benchmark " + System.nanoTime() + "-" + sequence++, "description", "body", tags);
+			article.setAuthor(managedAuthor);
+			fans.forEach(fan -> article.favoriteArticle(entityManager.getReference(User.class, fan.getId())));
+			articleRepository.save(article);
+			List<Comment> comments = new ArrayList<>(COMMENTS);
+			for (int i = 0; i < COMMENTS; i++) {
+				Comment comment = new Comment("comment " + i);
+				comment.setAuthor(managedAuthor);
+				comment.setArticle(article);
+				comments.add(comment);
+			}
+			commentRepository.saveAll(comments);
+			return article.getId();
+		});
+	}
+}
@@ -0,0 +1,148 @@
+package io.spring.boot.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Comment;
+import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.User;
+import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.CommentRepository;
+import io.spring.boot.repository.TagRepository;
+import io.spring.boot.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Bulk insert throughput of articles with their tag links and comments, one transaction per chunk.
+ * Each run is repeated with JDBC batching disabled for the session to isolate its effect. Prepared statements (sequence
+ * calls included) come from the SessionFactory statistics, JDBC batches from a session listener since the statistics
+ * do not count them; both are printed per chunk.
+ * Run with: mvn test -Pbenchmark -Dtest=BulkInsertBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = { "spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.format_sql=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN" })
+public class BulkInsertBenchmark {
+
+	private static final int CHUNK_SIZE = 500;
+	private static final int CHUNKS = 10;
+	private static final int TAGS_PER_ARTICLE = 3;
+	private static final int COMMENTS_PER_ARTICLE = 5;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private CommentRepository commentRepository;
+	@Autowired
+	private TagRepository tagRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private User author;
+	private List<io.spring.boot.entity.Tag> vocabulary;
+	private int sequence;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User(null, "bulk" + System.nanoTime() + "@example.com", "", new Profile("bulk" + System.nanoTime())));
+		vocabulary = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			vocabulary.add(tagRepository.save(new io.spring.boot.entity.Tag("bulk-" + System.nanoTime() + "-" + i)));
+		}
+	}
+
+	@Test
+	void bulkInsertArticlesWithTagsAndComments() {
+		// Warm-up
+		run(1, CHUNKS);
+		run(null, CHUNKS);
+
+		System.out.printf("%-12s %12s %12s %18s %14s%n", "jdbc batch", "articles/s", "rows/s", "statements/chunk", "batches/chunk");
+		for (Integer batchSize : new Integer[] { 1, null }) {
+			Run run = run(batchSize, CHUNKS);
+			int articles = CHUNK_SIZE * CHUNKS;
+			int rows = articles * (1 + TAGS_PER_ARTICLE + COMMENTS_PER_ARTICLE);
+			System.out.printf("%-12s %12.0f %12.0f %18d %14d%n", batchSize == null ? "configured" : "off",
+					articles / run.seconds(), rows / run.seconds(), run.statements() / CHUNKS, run.batches() / CHUNKS);
+		}
+	}
+
+	private record Run(double seconds, long statements, long batches) {
+	}
+
+	private static final class BatchCounter implements SessionEventListener {
+
+		private long batches;
+
+		@Override
+		public void jdbcExecuteBatchStart() {
+			batches++;
+		}
+	}
+
+	// A null batch size keeps hibernate.jdbc.batch_size
+	private Run run(Integer batchSize, int chunks) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		BatchCounter counter = new BatchCounter();
+		long start = System.nanoTime();
+		for (int c = 0; c < chunks; c++) {
+			transaction.executeWithoutResult(status -> {
+				Session session = entityManager.unwrap(Session.class);
+				session.addEventListeners(counter);
+				session.setJdbcBatchSize(batchSize);
+				User managedAuthor = entityManager.getReference(User.class, author.getId());
+				List<Article> articles = new ArrayList<>(CHUNK_SIZE);
+				List<Comment> comments = new ArrayList<>(CHUNK_SIZE * COMMENTS_PER_ARTICLE);
+				for (int i = 0; i < CHUNK_SIZE; i++) {
+					Article article = newArticle(managedAuthor);
+					articles.add(article);
+					for (int j = 0; j < COMMENTS_PER_ARTICLE; j++) {
+						Comment comment = new Comment("comment " + j);
+						comment.setAuthor(managedAuthor);
+						comment.setArticle(article);
+						comments.add(comment);
+					}
+				}
+				articleRepository.saveAll(articles);
+				commentRepository.saveAll(comments);
+			});
+		}
+		return new Run((System.nanoTime() - start) / 1e9, statistics.getPrepareStatementCount(), counter.batches);
+	}
+
+	private Article newArticle(User managedAuthor) {
+		int n = sequence++;
+		Set<io.spring.boot.entity.Tag> tags = new HashSet<>();
+		for (int i = 0; i < TAGS_PER_ARTICLE; i++) {
+			tags.add(entityManager.getReference(io.spring.boot.entity.Tag.class, vocabulary.get((n + i) % vocabulary.size()).getId()));
+		}
+		Article article = new Article("Bulk article " + n, "description", "body", tags);
+		article.setAuthor(managedAuthor);
+		return article;
+	}
+}
@@ -0,0 +1,150 @@
+package io.spring.boot.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.spring.boot.controller.wrappers.MultipleArticlesResponse;
+import io.spring.boot.controller.wrappers.SingleArticleResponse;
+import io.spring.boot.dto.MultipleArticlesResponseDTO;
+import io.spring.boot.dto.SingleArticleResponseDTO;
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.User;
+
+/*
+ * JMH comparison of JSON, CBOR and Smile for typical responses: a listing page of 20 articles (no bodies, repeated
+ * keys) and a single article with a 4 KB body. Serialization writes the wrapper records like the controllers do,
+ * deserialization reads a tree like a generic client would. Payload sizes, raw and gzipped, are printed first.
+ * The CBOR and Smile mappers are copies of the JSON one, as in ContentFormats.
+ * Run with: mvn test -Pbenchmark -Dtest=ContentFormatsBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentFormatsBenchmark {
+
+	private static final String WORDS = "spring boot java rest api jackson article tag comment feed profile follow ";
+
+	@Param({ "json", "cbor", "smile" })
+	public String format;
+
+	@Param({ "page", "article" })
+	public String response;
+
+	private ObjectMapper mapper;
+	private Object value;
+	private byte[] serialized;
+
+	@Setup
+	public void setUp() throws IOException {
+		mapper = mapper(format);
+		value = response(response);
+		serialized = mapper.writeValueAsBytes(value);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return mapper.writeValueAsBytes(value);
+	}
+
+	@Benchmark
+	public JsonNode deserialize() throws IOException {
+		return mapper.readTree(serialized);
+	}
+
+	@Test
+	void run() throws RunnerException, IOException {
+		System.out.printf("%-8s %-8s %10s %10s%n", "response", "format", "bytes", "gzipped");
+		for (String response : new String[] { "page", "article" }) {
+			for (String format : new String[] { "json", "cbor", "smile" }) {
+				byte[] bytes = mapper(format).writeValueAsBytes(response(response));
+				System.out.printf("%-8s %-8s %10d %10d%n", response, format, bytes.length, gzip(bytes).length);
+			}
+		}
+		new Runner(new OptionsBuilder()
+				.include(ContentFormatsBenchmark.class.getName())
+				.forks(1)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementIterations(5)
+				.measurementTime(TimeValue.seconds(1))
+				.build()).run();
+	}
+
+	// Configured like the application's mapper: dates as ISO-8601 strings
+	private static ObjectMapper mapper(String format) {
+		ObjectMapper json = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+		return switch (format) {
+			case "cbor" -> json.copyWith(new CBORFactory());
+			case "smile" -> json.copyWith(new SmileFactory());
+			default -> json;
+		};
+	}
+
+	private static Object response(String response) {
+		Random random = new Random(42);
+		if (response.equals("article")) {
+			return new SingleArticleResponse(new SingleArticleResponseDTO(article(random, 1, 4_096), false, false));
+		}
+		List<MultipleArticlesResponseDTO> articles = new ArrayList<>();
+		for (long id = 1; id <= 20; id++) {
+			articles.add(new MultipleArticlesResponseDTO(article(random, id, 0), id % 3 == 0, id % 4 == 0));
+		}
+		return new MultipleArticlesResponse(articles, 500L);
+	}
+
+	private static Article article(Random random, long id, int bodyLength) {
+		Article article = new Article(id, "Title " + text(random, 40), text(random, 120), text(random, bodyLength));
+		article.setTags(Set.of(new io.spring.boot.entity.Tag("java"), new io.spring.boot.entity.Tag("spring"),
+				new io.spring.boot.entity.Tag("tag" + random.nextInt(50))));
+		article.setAuthor(new User(id % 5, "author" + id % 5 + "@example.com",
+				new Profile("author" + id % 5, text(random, 60), "https://example.com/avatars/" + id % 5 + ".png")));
+		return article;
+	}
+
+	private static String text(Random random, int length) {
+		StringBuilder text = new StringBuilder(length);
+		while (text.length() < length) {
+			int start = random.nextInt(WORDS.length() - 10);
+			text.append(WORDS, start, start + 10);
+		}
+		return text.substring(0, length);
+	}
+
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,173 @@
+package io.spring.boot.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.User;
+import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.UserRepository;
+
+/*
+ * Single-field edits on an article with a large body, and on a user's bio: the entity path (SELECT, change
+ * one field, Hibernate writes every column) against the partial UPDATE of ArticleRepositoryCustom/UserRepositoryCustom.
+ * The DataSource is wrapped to count statements and the bytes of UPDATE statements: SQL text plus bound values,
+ * strings as UTF-8 and 8 bytes for anything else.
+ * Run with: mvn test -Pbenchmark -Dtest=PartialUpdateBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = { "spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.format_sql=false" })
+public class PartialUpdateBenchmark {
+
+	private static final int BODY_SIZE = 64 * 1024;
+	private static final int ITERATIONS = 2_000;
+
+	private static final AtomicLong statements = new AtomicLong();
+	private static final AtomicLong updateBytes = new AtomicLong();
+
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transaction;
+	private User author;
+	private Article article;
+
+	@TestConfiguration
+	static class CountingDataSourceConfig {
+
+		@Bean
+		static BeanPostProcessor countingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource, PartialUpdateBenchmark::onDataSource) : bean;
+				}
+			};
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		transaction = new TransactionTemplate(transactionManager);
+		author = userRepository.save(new User(null, "partial" + System.nanoTime() + "@example.com", "", new Profile("partial" + System.nanoTime())));
+		Article draft = new Article("Partial update " + System.nanoTime(), "description", "x".repeat(BODY_SIZE));
+		draft.setAuthor(author);
+		article = articleRepository.save(draft);
+	}
+
+	@Test
+	void singleFieldEdits() {
+		// Warm-up
+		measure(this::articleEntityEdit, ITERATIONS / 4);
+		measure(this::articlePartialEdit, ITERATIONS / 4);
+		measure(this::userEntityEdit, ITERATIONS / 4);
+		measure(this::userPartialEdit, ITERATIONS / 4);
+
+		System.out.printf("%-22s %12s %18s %12s%n", "edit", "us/op", "UPDATE bytes/op", "stmts/op");
+		print("article entity save", measure(this::articleEntityEdit, ITERATIONS));
+		print("article partial", measure(this::articlePartialEdit, ITERATIONS));
+		print("user entity save", measure(this::userEntityEdit, ITERATIONS));
+		print("user partial", measure(this::userPartialEdit, ITERATIONS));
+	}
+
+	private void articleEntityEdit(int i) {
+		transaction.executeWithoutResult(status -> articleRepository.findById(article.getId()).get().setDescription("description " + i));
+	}
+
+	private void articlePartialEdit(int i) {
+		transaction.executeWithoutResult(status -> articleRepository.updateIfOwnedAndCurrent(article.getSlug(), author.getId(), null,
+				null, null, "description " + i, null, OffsetDateTime.now()));
+	}
+
+	private void userEntityEdit(int i) {
+		transaction.executeWithoutResult(status -> userRepository.findById(author.getId()).get().getProfile().setBio("bio " + i));
+	}
+
+	private void userPartialEdit(int i) {
+		transaction.executeWithoutResult(status -> userRepository.updateChangedColumns(author.getId(), null, null, null, "bio " + i, null));
+	}
+
+	// Returns { nanos, update bytes, statements } per operation
+	private double[] measure(java.util.function.IntConsumer edit, int iterations) {
+		long statementsBefore = statements.get();
+		long bytesBefore = updateBytes.get();
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			edit.accept(i);
+		}
+		long elapsed = System.nanoTime() - start;
+		return new double[] { (double) elapsed / iterations, (double) (updateBytes.get() - bytesBefore) / iterations,
+				(double) (statements.get() - statementsBefore) / iterations };
+	}
+
+	private static void print(String name, double[] result) {
+		System.out.printf("%-22s %12.1f %18.0f %12.1f%n", name, result[0] / 1_000, result[1], result[2]);
+	}
+
+	private static Object onDataSource(DataSource target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+		Object result = invoke(target, method, args);
+		return result instanceof Connection connection ? proxy(Connection.class, connection, PartialUpdateBenchmark::onConnection) : result;
+	}
+
+	private static Object onConnection(Connection target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+		Object result = invoke(target, method, args);
+		if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+			statements.incrementAndGet();
+			String sql = (String) args[0];
+			if (sql.trim().toLowerCase().startsWith("update")) {
+				updateBytes.addAndGet(sql.length());
+				return proxy(PreparedStatement.class, statement, PartialUpdateBenchmark::onUpdateStatement);
+			}
+		}
+		return result;
+	}
+
+	private static Object onUpdateStatement(PreparedStatement target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+		if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+			updateBytes.addAndGet(args[1] instanceof String value ? value.getBytes(StandardCharsets.UTF_8).length : 8);
+		}
+		return invoke(target, method, args);
+	}
+
+	private interface Handler<T> {
+		Object handle(T target, java.lang.reflect.Method method, Object[] args) throws Throwable;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+		InvocationHandler invocation = (p, method, args) -> handler.handle(target, method, args);
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, invocation);
+	}
+
+	private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package io.spring.boot.benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.spring.boot.service.RelatedArticlesIndex;
+
+/*
+ * Rebuild time and heap of the related articles index, then the cost of an incremental upsert and of a lookup.
+ * Articles get 1 to 5 tags drawn from a Zipf distribution over a 50k tag vocabulary, so a few tags are on a large
+ * share of the articles, like "java" or "spring" would be. Heap is measured after a full GC, before and after the build.
+ * Run with: mvn test -Pbenchmark -Dtest=RelatedArticlesBenchmark
+ */
+@Tag("benchmark")
+public class RelatedArticlesBenchmark {
+
+	private static final int[] ARTICLE_COUNTS = { 100_000, 1_000_000 };
+	private static final int TAGS = 50_000;
+	private static final int NEIGHBOURS = 10;
+	private static final int CANDIDATES_PER_TAG = 500;
+	private static final int UPSERTS = 10_000;
+	private static final int LOOKUPS = 1_000_000;
+
+	private final SplittableRandom random = new SplittableRandom(42);
+	private final double[] zipf = zipf(TAGS);
+
+	@Test
+	void rebuildAndUpdates() {
+		System.out.printf("%-10s %12s %12s %14s %12s %12s %12s%n", "articles", "rebuild ms", "heap MB", "MB/1M articles", "upsert us", "related ns", "neighbours");
+		for (int articles : ARTICLE_COUNTS) {
+			long heapBefore = usedHeap();
+			long start = System.nanoTime();
+			RelatedArticlesIndex index = new RelatedArticlesIndex(NEIGHBOURS, CANDIDATES_PER_TAG);
+			for (int id = 0; id < articles; id++) {
+				index.load(id, tags());
+			}
+			index.computeAll();
+			long rebuildMillis = (System.nanoTime() - start) / 1_000_000;
+			double heapMb = (usedHeap() - heapBefore) / 1e6;
+
+			start = System.nanoTime();
+			for (int i = 0; i < UPSERTS; i++) {
+				index.upsert(articles + i, tags());
+			}
+			double upsertMicros = (System.nanoTime() - start) / 1e3 / UPSERTS;
+
+			long found = 0;
+			start = System.nanoTime();
+			for (int i = 0; i < LOOKUPS; i++) {
+				found += index.related(random.nextInt(articles), NEIGHBOURS).length;
+			}
+			double relatedNanos = (double) (System.nanoTime() - start) / LOOKUPS;
+
+			System.out.printf("%-10d %12d %12.0f %14.0f %12.1f %12.0f %12.1f%n", articles, rebuildMillis, heapMb,
+					heapMb * 1_000_000 / articles, upsertMicros, relatedNanos, (double) found / LOOKUPS);
+		}
+	}
+
+	private long[] tags() {
+		long[] tags = new long[1 + random.nextInt(5)];
+		for (int i = 0; i < tags.length; i++) {
+			int rank = Arrays.binarySearch(zipf, random.nextDouble());
+			tags[i] = rank >= 0 ? rank : -rank - 1;
+		}
+		return tags;
+	}
+
+	// Cumulative distribution of a Zipf law with exponent 1
+	private static double[] zipf(int n) {
+		double[] cumulative = new double[n];
+		double sum = 0;
+		for (int rank = 0; rank < n; rank++) {
+			sum += 1.0 / (rank + 1);
+			cumulative[rank] = sum;
+		}
+		for (int rank = 0; rank < n; rank++) {
+			cumulative[rank] /= sum;
+		}
+		return cumulative;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
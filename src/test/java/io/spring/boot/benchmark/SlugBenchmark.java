@@ -0,0 +1,90 @@
+package io.spring.boot.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import io.spring.boot.entity.Article;
+
+/*
+ * JMH comparison of Article.generateSlug against the regular expression chain it replaced, across title
+ * lengths, for ASCII titles and titles with accented Latin letters. The GC profiler reports the bytes
+ * allocated per call (gc.alloc.rate.norm).
+ * Run with: mvn test -Pbenchmark -Dtest=SlugBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SlugBenchmark {
+
+	private static final String ASCII_WORDS = "How to Train Your Dragon: 10 tips & tricks for Java, Spring and REST APIs!";
+	private static final String LATIN_WORDS = "Crème brûlée à la française: Straße, Łódź und Ærøskøbing für Anfänger!";
+
+	@Param({ "16", "64", "256" })
+	public int length;
+
+	@Param({ "ascii", "latin" })
+	public String alphabet;
+
+	private String title;
+
+	@Setup
+	public void setUp() {
+		String words = alphabet.equals("ascii") ? ASCII_WORDS : LATIN_WORDS;
+		Random random = new Random(length);
+		StringBuilder builder = new StringBuilder(length);
+		while (builder.length() < length) {
+			builder.append(words.charAt(random.nextInt(words.length())));
+		}
+		// Starts and ends with a letter so that trim() has nothing to cut
+		builder.setCharAt(0, 'T');
+		builder.setCharAt(length - 1, 's');
+		title = builder.toString();
+	}
+
+	@Benchmark
+	public String regex() {
+		if (title == null || title.trim().isEmpty()) {
+			throw new IllegalArgumentException("Title cannot be null or empty");
+		}
+		return title.trim()
+				.toLowerCase()
+				.replaceAll("[^a-z0-9\\s-]", "")
+				.replaceAll("\\s+", "-")
+				.replaceAll("-+", "-");
+	}
+
+	@Benchmark
+	public String tableDriven() {
+		return Article.generateSlug(title);
+	}
+
+	@Test
+	void run() throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(SlugBenchmark.class.getName())
+				.forks(1)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementIterations(5)
+				.measurementTime(TimeValue.seconds(1))
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
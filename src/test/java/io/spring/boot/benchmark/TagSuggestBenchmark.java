@@ -0,0 +1,91 @@
+package io.spring.boot.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import io.spring.boot.service.TagEvent;
+import io.spring.boot.service.TagSuggestionService;
+
+/*
+ * JMH latency of TagSuggestionService.suggest for prefixes of one to three letters, over a vocabulary of
+ * random tag names with skewed usage counts.
+ * Run with: mvn test -Pbenchmark -Dtest=TagSuggestBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TagSuggestBenchmark {
+
+	@Param({ "1000", "100000" })
+	public int tags;
+
+	@Param({ "1", "2", "3" })
+	public int prefixLength;
+
+	private TagSuggestionService suggestions;
+	private String[] prefixes;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		suggestions = new TagSuggestionService(null, 10);
+		Random random = new Random(42);
+		List<String> names = new ArrayList<>(tags);
+		for (int i = 0; i < tags; i++) {
+			names.add(word(random, 3 + random.nextInt(10)));
+		}
+		for (int i = 0; i < tags; i++) {
+			// Usage roughly follows a power law: a few tags are on most articles
+			String name = names.get((int) (tags * Math.pow(random.nextDouble(), 3)));
+			suggestions.onTagEvent(new TagEvent(TagEvent.Type.USED, List.of(name)));
+		}
+		suggestions.onTagEvent(new TagEvent(TagEvent.Type.CREATED, names));
+		prefixes = new String[1024];
+		for (int i = 0; i < prefixes.length; i++) {
+			prefixes[i] = word(random, prefixLength);
+		}
+	}
+
+	private static String word(Random random, int length) {
+		char[] letters = new char[length];
+		for (int i = 0; i < length; i++) {
+			letters[i] = (char) ('a' + random.nextInt(26));
+		}
+		return new String(letters);
+	}
+
+	@Benchmark
+	public List<String> suggest() {
+		return suggestions.suggest(prefixes[next++ & (prefixes.length - 1)], 10);
+	}
+
+	@Test
+	void run() throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(TagSuggestBenchmark.class.getName())
+				.forks(1)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementIterations(5)
+				.measurementTime(TimeValue.seconds(1))
+				.build()).run();
+	}
+}
@@ -1,23 +1,41 @@
 package io.spring.boot.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,33 +44,50 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
+import io.spring.boot.controller.wrappers.MultipleArticlesResponse;
 import io.spring.boot.controller.wrappers.SingleArticlePostRequest;
 import io.spring.boot.controller.wrappers.SingleArticlePutRequest;
+import io.spring.boot.dto.ArticleImportReportDTO;
+import io.spring.boot.dto.ArticleImportReportDTO.LineError;
 import io.spring.boot.dto.ArticlePostRequestDTO;
 import io.spring.boot.dto.ArticlePutRequestDTO;
+import io.spring.boot.dto.FieldSet;
+import io.spring.boot.dto.MultipleArticlesResponseDTO;
+import io.spring.boot.dto.SearchCursor;
 import io.spring.boot.entity.Article;
 import io.spring.boot.entity.Profile;
 import io.spring.boot.entity.User;
 import io.spring.boot.repository.UserRepository;
 import io.spring.boot.security.JwtService;
 import io.spring.boot.security.SecurityConfig;
+import io.spring.boot.service.ArticleExportService;
+import io.spring.boot.service.ArticleImportService;
+import io.spring.boot.service.ArticleSearchService;
 import io.spring.boot.service.ArticleService;
+import io.spring.boot.service.RelatedArticlesService;
+import io.spring.boot.service.TrendingArticlesService;
 import io.spring.boot.service.UserService;
 
 
 @WebMvcTest(ArticleRestController.class)
 @AutoConfigureMockMvc
-@Import({SecurityConfig.class})
+@Import({SecurityConfig.class, CompressedResponseCache.class})
 class ArticleControllerUnitTest {
 	
 	@Autowired
@@ -62,6 +97,16 @@ class ArticleControllerUnitTest {
 	// Controller calls mocked methods → returns controlled test data instead of DB calls
 	@MockBean
 	private ArticleService articleService;
+	@MockBean
+	private ArticleImportService articleImportService;
+	@MockBean
+	private ArticleExportService articleExportService;
+	@MockBean
+	private ArticleSearchService articleSearchService;
+	@MockBean
+	private RelatedArticlesService relatedArticlesService;
+	@MockBean
+	private TrendingArticlesService trendingArticlesService;
 	// Used for token generation in controller responses (e.g., login/register).
 	@MockBean
     private JwtService jwtService;
@@ -113,40 +158,166 @@ class ArticleControllerUnitTest {
 					.andExpect(jsonPath("$.article.body", is(article2.getBody())));
 	}
 	
+	@Test
+	public void importArticlesTest() throws Exception {
+		given(articleImportService.importArticles(eq(author.getId()), any()))
+			.willReturn(new ArticleImportReportDTO(2, 1, 1, List.of(new LineError(2, "Malformed JSON"))));
+		
+		ResultActions response = mockMvc.perform(post("/api/articles/import")
+											.with(user(author))
+											.contentType(MediaType.APPLICATION_NDJSON)
+											.content("{\"title\":\"t\",\"description\":\"d\",\"body\":\"b\"}\n{\"title\":"));
+		
+		response.andDo(print())
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.imported", is(1)))
+					.andExpect(jsonPath("$.failed", is(1)))
+					.andExpect(jsonPath("$.errors[0].line", is(2)))
+					.andExpect(jsonPath("$.errors[0].error", is("Malformed JSON")));
+	}
+	
+	@Test
+	public void importArticlesRequiresAuthenticationTest() throws Exception {
+		mockMvc.perform(post("/api/articles/import")
+					.contentType(MediaType.APPLICATION_NDJSON)
+					.content("{}"))
+				.andExpect(status().isForbidden());
+	}
+	
+	@Test
+	public void exportArticlesTest() throws Exception {
+		willAnswer(invocation -> {
+			invocation.getArgument(1, OutputStream.class).write("{\"slug\":\"title\"}\n".getBytes(StandardCharsets.UTF_8));
+			return null;
+		}).given(articleExportService).exportArticles(eq(true), any());
+		
+		ResultActions response = mockMvc.perform(get("/api/articles/export").param("comments", "true").with(user(author)));
+		
+		response.andDo(print())
+					.andExpect(status().isOk())
+					.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+					.andExpect(content().string("{\"slug\":\"title\"}\n"));
+	}
+	
 	@Test
 	public void deleteArticleTest() throws Exception {
-		given(articleService.findArticleBySlug(article.getSlug())).willReturn(article);
-		willDoNothing().given(articleService).deleteByArticleSlug("title");
+		willDoNothing().given(articleService).deleteArticle(author.getId(), "title", null);
 		
 		ResultActions response = mockMvc.perform(delete("/api/articles/{slug}", article.getSlug()).with(user(author)));
 		
 		response.andDo(print()).andExpect(status().isNoContent());
 	}
 	
+	@Test
+	public void deleteArticleWithStaleIfMatchTest() throws Exception {
+		willThrow(new OptimisticLockingFailureException("stale")).given(articleService).deleteArticle(author.getId(), "title", 3L);
+		
+		ResultActions response = mockMvc.perform(delete("/api/articles/{slug}", article.getSlug())
+											.with(user(author))
+											.header(HttpHeaders.IF_MATCH, "\"3\""));
+		
+		response.andDo(print()).andExpect(status().isPreconditionFailed());
+	}
+	
 	@Test
 	public void updateArticleTest() throws Exception {
-		given(articleService.findArticleBySlug("title")).willReturn(article);
 		ArticlePutRequestDTO request = new ArticlePutRequestDTO("new title", "new body", null);
 		SingleArticlePutRequest payload = new SingleArticlePutRequest(request);
 		article.setTitle(request.getTitle());
 		article.setBody(request.getBody());
-		given(articleService.updateArticle(any(String.class), any(ArticlePutRequestDTO.class))).willReturn(article);
+		ReflectionTestUtils.setField(article, "version", 4L);
+		given(articleService.updateArticle(eq(author.getId()), eq("title"), any(ArticlePutRequestDTO.class), eq(3L))).willReturn(article);
 		
 		ResultActions response = mockMvc.perform(put("/api/articles/{slug}", "title")
 											.with(user(author))
+											.header(HttpHeaders.IF_MATCH, "\"3\"")
 											.contentType(MediaType.APPLICATION_JSON)				//specifies the payload format
 											.content(objectMapper.writeValueAsString(payload)));	//provides the JSON data for the @RequestBody
 		
 		response.andDo(print())
 					.andExpect(status().isOk())
+					.andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
 					.andExpect(jsonPath("$.article.title", is(article.getTitle())))
 					.andExpect(jsonPath("$.article.body", is(article.getBody())));
 	}
 	
+	@Test
+	public void updateArticleWithUnknownIfMatchTest() throws Exception {
+		SingleArticlePutRequest payload = new SingleArticlePutRequest(new ArticlePutRequestDTO("new title", null, null));
+		
+		ResultActions response = mockMvc.perform(put("/api/articles/{slug}", "title")
+											.with(user(author))
+											.header(HttpHeaders.IF_MATCH, "W/\"3\"")
+											.contentType(MediaType.APPLICATION_JSON)
+											.content(objectMapper.writeValueAsString(payload)));
+		
+		response.andDo(print()).andExpect(status().isPreconditionFailed());
+		verify(articleService, never()).updateArticle(any(), any(), any(), any());
+	}
+	
+	@Test
+	public void getArticleETagTest() throws Exception {
+		ReflectionTestUtils.setField(article, "version", 2L);
+		given(articleService.findArticleBySlug(article.getSlug())).willReturn(article);
+		
+		mockMvc.perform(get("/api/articles/{slug}", article.getSlug()))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+	}
+	
+	@Test
+	public void getArticleGzipTest() throws Exception {
+		ReflectionTestUtils.setField(article, "version", 2L);
+		article.setBody("A long and repetitive body. ".repeat(200));
+		given(articleService.findArticleBySlug(article.getSlug())).willReturn(article);
+		
+		MvcResult identity = mockMvc.perform(get("/api/articles/{slug}", article.getSlug()))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+				.andReturn();
+		MvcResult gzip = mockMvc.perform(get("/api/articles/{slug}", article.getSlug()).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().string(HttpHeaders.ETAG, "\"2-gzip\""))
+				.andReturn();
+		
+		byte[] compressed = gzip.getResponse().getContentAsByteArray();
+		assertThat(compressed.length).isLessThan(identity.getResponse().getContentAsByteArray().length / 10);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			assertThat(in.readAllBytes()).isEqualTo(identity.getResponse().getContentAsByteArray());
+		}
+		// A short article is not worth compressing
+		article.setBody("body");
+		mockMvc.perform(get("/api/articles/{slug}", article.getSlug()).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andExpect(jsonPath("$.article.body", is("body")));
+	}
+	
+	@Test
+	public void updateArticleWithGzipETagTest() throws Exception {
+		SingleArticlePutRequest payload = new SingleArticlePutRequest(new ArticlePutRequestDTO("new title", null, null));
+		given(articleService.updateArticle(eq(author.getId()), eq("title"), any(ArticlePutRequestDTO.class), eq(3L))).willReturn(article);
+		
+		mockMvc.perform(put("/api/articles/{slug}", "title")
+						.with(user(author))
+						.header(HttpHeaders.IF_MATCH, "\"3-gzip\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(payload)))
+				.andExpect(status().isOk());
+		mockMvc.perform(put("/api/articles/{slug}", "title")
+						.with(user(author))
+						.header(HttpHeaders.IF_MATCH, "\"3-smile-gzip\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(payload)))
+				.andExpect(status().isOk());
+	}
+	
 	@Test
 	public void findArticleByCriteriaTest() throws Exception {
-        Page<Article> page = new PageImpl<>(List.of(article), PageRequest.of(0, 20), 1);
-		given(articleService.findArticleByCriteria(isNull(), eq("username"), isNull(), any(Pageable.class))).willReturn(page);
+        Page<Long> page = new PageImpl<>(List.of(article.getId()), PageRequest.of(0, 20), 1);
+		given(articleService.findArticleIdsByCriteria(isNull(), eq("username"), isNull(), any(Pageable.class))).willReturn(page);
+		givenArticles(List.of(article));
 		
 		ResultActions response = mockMvc.perform(get("/api/articles") 	//explicitly sets query parameters in the HTTP request
 											.with(user(author))			//HTTP request = /api/articles?author=username&limit=20&offset=0
@@ -157,17 +328,234 @@ class ArticleControllerUnitTest {
 		response.andDo(print())
 						.andExpect(status().isOk())
 						.andExpect(jsonPath("$.articles[0].title", is("title")))
-			            .andExpect(jsonPath("$.articles[0].description", is("description")));
+			            .andExpect(jsonPath("$.articles[0].description", is("description")))
+			            .andExpect(jsonPath("$.nextCursor").doesNotExist())
+			            // streamed, yet exactly what Jackson writes for the wrapper record
+			            .andExpect(content().json(objectMapper.writeValueAsString(
+			            		new MultipleArticlesResponse(List.of(new MultipleArticlesResponseDTO(article, false, false)), 1L)), true));
 		// Body: the endpoints retrieving a list of articles do no longer return the body of an article for performance reasons
 	}
 	
+	@Test
+	public void findArticlesFailingPartwayTest() throws Exception {
+		// precondition: a first chunk big enough to commit the response, then the next chunk fails to load
+		List<Article> chunk = new ArrayList<>();
+		for (long id = 1; id <= 100; id++) {
+			Article a = new Article(id, "title " + id, "description ".repeat(10), "body");
+			a.setAuthor(author);
+			chunk.add(a);
+		}
+		List<Long> ids = chunk.stream().map(Article::getId).toList();
+		given(articleService.findArticleIdsByCriteria(isNull(), isNull(), isNull(), any(Pageable.class)))
+				.willReturn(new PageImpl<>(ids, PageRequest.of(0, 100), 200));
+		willAnswer(invocation -> {
+			invocation.<Consumer<List<Article>>>getArgument(1).accept(chunk);
+			throw new IllegalStateException("Connection lost");
+		}).given(articleService).forEachArticle(eq(ids), any());
+		
+		MvcResult result = mockMvc.perform(get("/api/articles").param("limit", "100")).andReturn();
+		
+		// verify: what was sent is left unterminated, never completed into a shorter well-formed listing
+		String body = result.getResponse().getContentAsString();
+		assertThat(result.getResponse().isCommitted()).isTrue();
+		assertThat(body).startsWith("{\"articles\":[").doesNotContain("articlesCount");
+		assertThat(body).doesNotEndWith("]}");
+		
+		// Failing before anything was committed leaves the response to the error handler
+		willAnswer(invocation -> {
+			throw new IllegalStateException("Connection lost");
+		}).given(articleService).forEachArticle(eq(ids), any());
+		mockMvc.perform(get("/api/articles").param("limit", "100"))
+			.andExpect(status().isInternalServerError())
+			.andExpect(jsonPath("$.articles").doesNotExist());
+	}
+	
+	@Test
+	public void findArticlesAsSmileTest() throws Exception {
+		Page<Long> page = new PageImpl<>(List.of(article.getId()), PageRequest.of(0, 20), 1);
+		given(articleService.findArticleIdsByCriteria(isNull(), isNull(), isNull(), any(Pageable.class))).willReturn(page);
+		givenArticles(List.of(article));
+		
+		byte[] smile = mockMvc.perform(get("/api/articles").accept(ContentFormats.APPLICATION_SMILE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(ContentFormats.APPLICATION_SMILE))
+				.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+				.andReturn().getResponse().getContentAsByteArray();
+		
+		// Same document as the JSON listing
+		String json = objectMapper.writeValueAsString(new MultipleArticlesResponse(List.of(new MultipleArticlesResponseDTO(article, false, false)), 1L));
+		assertThat(objectMapper.copyWith(new SmileFactory()).readTree(smile)).isEqualTo(objectMapper.readTree(json));
+	}
+	
+	@Test
+	public void findArticlesWithFieldsTest() throws Exception {
+		Page<Long> page = new PageImpl<>(List.of(article.getId()), PageRequest.of(0, 20), 1);
+		given(articleService.findArticleIdsByCriteria(isNull(), isNull(), isNull(), any(Pageable.class))).willReturn(page);
+		willAnswer(invocation -> {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("slug", article.getSlug());
+			row.put("favoritesCount", 3);
+			invocation.<Consumer<List<Map<String, Object>>>>getArgument(3).accept(List.of(row));
+			return Set.of(article.getId());
+		}).given(articleService).forEachArticleFields(eq(List.of(article.getId())), any(FieldSet.class), eq(author.getId()), any());
+		
+		// action & verify: only the requested fields, the entities are not loaded
+		mockMvc.perform(get("/api/articles").with(user(author)).param("fields", "favoritesCount,slug"))
+			.andExpect(status().isOk())
+			.andExpect(content().json("{\"articles\":[{\"slug\":\"title\",\"favoritesCount\":3}],\"articlesCount\":1}", true));
+		verify(articleService, never()).forEachArticle(any(), any());
+		
+		mockMvc.perform(get("/api/articles").param("fields", "slug,body"))
+			.andExpect(status().isUnprocessableEntity());
+	}
+	
+	@Test
+	public void findArticlesBySlugsTest() throws Exception {
+		Article other = new Article(2L, "other", "description", "body");
+		other.setAuthor(author);
+		given(articleService.findIdsBySlugs(List.of("other", "missing", "title")))
+				.willReturn(Map.of("title", article.getId(), "other", other.getId()));
+		willAnswer(invocation -> {
+			invocation.<Consumer<List<Article>>>getArgument(1).accept(List.of(other, article));
+			return null;
+		}).given(articleService).forEachArticle(eq(List.of(other.getId(), article.getId())), any());
+		given(articleService.findIdsBySlugs(List.of())).willThrow(new IllegalArgumentException("Slugs cannot be null or empty"));
+		
+		// action & verify: anonymous access, request order with duplicates dropped, the missing slug marked
+		mockMvc.perform(get("/api/articles").param("slugs", "other, missing,title,other"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.articles[0].slug", is("other")))
+			.andExpect(jsonPath("$.articles[1].slug", is("title")))
+			.andExpect(jsonPath("$.articlesCount", is(2)))
+			.andExpect(jsonPath("$.missing[0]", is("missing")))
+			.andExpect(jsonPath("$.missing.length()", is(1)));
+		verify(articleService, never()).findArticleIdsByCriteria(any(), any(), any(), any());
+		
+		mockMvc.perform(get("/api/articles").param("slugs", " , "))
+			.andExpect(status().isUnprocessableEntity());
+	}
+	
+	@Test
+	public void findArticlesBySlugsDeletedMeanwhileTest() throws Exception {
+		Article other = new Article(2L, "other", "description", "body");
+		other.setAuthor(author);
+		given(articleService.findIdsBySlugs(List.of("title", "other")))
+				.willReturn(Map.of("title", article.getId(), "other", other.getId()));
+		// "title" is deleted between resolving the slugs and loading the articles
+		willAnswer(invocation -> {
+			invocation.<Consumer<List<Article>>>getArgument(1).accept(List.of(other));
+			return null;
+		}).given(articleService).forEachArticle(eq(List.of(article.getId(), other.getId())), any());
+		willAnswer(invocation -> {
+			invocation.<Consumer<List<Map<String, Object>>>>getArgument(3).accept(List.of(Map.of("slug", other.getSlug())));
+			return Set.of(other.getId());
+		}).given(articleService).forEachArticleFields(eq(List.of(article.getId(), other.getId())), any(FieldSet.class), isNull(), any());
+		
+		// action & verify: counted and listed as missing, with the entities and with a sparse fieldset
+		String expected = "{\"articles\":[{\"slug\":\"other\"}],\"articlesCount\":1,\"missing\":[\"title\"]}";
+		mockMvc.perform(get("/api/articles").param("slugs", "title,other"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.articles.length()", is(1)))
+			.andExpect(jsonPath("$.articlesCount", is(1)))
+			.andExpect(jsonPath("$.missing[0]", is("title")))
+			.andExpect(jsonPath("$.missing.length()", is(1)));
+		mockMvc.perform(get("/api/articles").param("slugs", "title,other").param("fields", "slug"))
+			.andExpect(status().isOk())
+			.andExpect(content().json(expected, true));
+	}
+	
+	@Test
+	public void getAndCreateArticleAsCborTest() throws Exception {
+		ObjectMapper cbor = objectMapper.copyWith(new CBORFactory());
+		given(articleService.findArticleBySlug(article.getSlug())).willReturn(article);
+		given(articleService.saveArticle(any(Article.class))).willReturn(article);
+		
+		ReflectionTestUtils.setField(article, "version", 2L);
+		byte[] found = mockMvc.perform(get("/api/articles/{slug}", article.getSlug()).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andExpect(header().string(HttpHeaders.ETAG, "\"2-cbor\""))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertThat(cbor.readTree(found).at("/article/title").asText()).isEqualTo("title");
+		
+		// Request body in CBOR, response in JSON
+		SingleArticlePostRequest payload = new SingleArticlePostRequest(new ArticlePostRequestDTO("title", "description", "body", Set.of()));
+		mockMvc.perform(post("/api/articles")
+						.with(user(author))
+						.contentType(MediaType.APPLICATION_CBOR)
+						.content(cbor.writeValueAsBytes(payload)))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.article.title", is("title")));
+	}
+	
+	// forEachArticle hands the loaded articles to the controller's callback
+	private void givenArticles(List<Article> articles) {
+		willAnswer(invocation -> {
+			invocation.<Consumer<List<Article>>>getArgument(1).accept(articles);
+			return null;
+		}).given(articleService).forEachArticle(eq(articles.stream().map(Article::getId).toList()), any());
+	}
+	
+	@Test
+	public void searchArticlesTest() throws Exception {
+		// precondition: one hit on this page, more after the cursor
+		SearchCursor next = new SearchCursor(1.5f, 1L);
+		given(articleSearchService.search("dragons", null, 1)).willReturn(new ArticleSearchService.Hits(List.of(article), 3, next));
+		given(articleSearchService.search("dragons", next, 1)).willReturn(new ArticleSearchService.Hits(List.of(article), 3, null));
+		given(articleSearchService.search(eq(" "), isNull(), eq(20))).willThrow(new IllegalArgumentException("Query cannot be null or empty"));
+		
+		// action & verify: anonymous access, RealWorld listing shape plus the cursor of the next page
+		mockMvc.perform(get("/api/articles/search").param("q", "dragons").param("limit", "1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.articles[0].title", is("title")))
+			.andExpect(jsonPath("$.articlesCount", is(3)))
+			.andExpect(jsonPath("$.nextCursor", is(next.encode())));
+		mockMvc.perform(get("/api/articles/search").param("q", "dragons").param("limit", "1").param("cursor", next.encode()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.nextCursor").doesNotExist());
+		mockMvc.perform(get("/api/articles/search").param("q", " "))
+			.andExpect(status().isUnprocessableEntity());
+	}
+	
+	@Test
+	public void findTrendingArticlesTest() throws Exception {
+		given(trendingArticlesService.findTrending(TrendingArticlesService.DEFAULT_PAGE_SIZE)).willReturn(List.of(article));
+		given(trendingArticlesService.findTrending(0)).willThrow(new IllegalArgumentException("Limit must be positive"));
+		
+		// action & verify: anonymous access, not taken for an article slug
+		mockMvc.perform(get("/api/articles/trending"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.articles[0].title", is("title")))
+			.andExpect(jsonPath("$.articlesCount", is(1)));
+		mockMvc.perform(get("/api/articles/trending").param("limit", "0"))
+			.andExpect(status().isUnprocessableEntity());
+	}
+	
+	@Test
+	public void findRelatedArticlesTest() throws Exception {
+		Article related = new Article(2L, "related", "description", "body");
+		related.setAuthor(author);
+		given(relatedArticlesService.findRelated(article.getSlug(), RelatedArticlesService.DEFAULT_SIZE)).willReturn(List.of(related));
+		given(relatedArticlesService.findRelated("missing", RelatedArticlesService.DEFAULT_SIZE))
+			.willThrow(new NoSuchElementException("No existing article with given slug: missing"));
+		
+		// action & verify: anonymous access, RealWorld listing shape
+		mockMvc.perform(get("/api/articles/{slug}/related", article.getSlug()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.articles[0].title", is("related")))
+			.andExpect(jsonPath("$.articlesCount", is(1)));
+		mockMvc.perform(get("/api/articles/{slug}/related", "missing"))
+			.andExpect(status().isNotFound());
+	}
+	
 	@Test
 	public void findFeedTest() throws Exception {
 		User follower = new User(2L, "follower@gmail.com", new Profile("follower"));
 		follower.followUser(author);
 		
-        Page<Article> page = new PageImpl<>(List.of(article), PageRequest.of(0, 20), 1);
-        given(articleService.findFeed(eq(follower.getId()), any(Pageable.class))).willReturn(page); //any(Long.class), any(Pageable.class)
+        Page<Long> page = new PageImpl<>(List.of(article.getId()), PageRequest.of(0, 20), 1);
+        given(articleService.findFeedIds(eq(follower.getId()), any(Pageable.class))).willReturn(page); //any(Long.class), any(Pageable.class)
+        givenArticles(List.of(article));
 		
 		ResultActions response = mockMvc.perform(get("/api/articles/feed")	//explicitly sets query parameters in the HTTP request
 						.with(user(follower))								//HTTP request = /api/articles/feed?limit=20&offset=0
@@ -178,7 +566,8 @@ class ArticleControllerUnitTest {
 					.andExpect(status().isOk())
 					.andExpect(jsonPath("$.articles[0].title", is("title")))
 					.andExpect(jsonPath("$.articles[0].favorited").value(false))
-			        .andExpect(jsonPath("$.articles[0].author.following").value(true));
+			        .andExpect(jsonPath("$.articles[0].author.following").value(true))
+			        .andExpect(jsonPath("$.articlesCount", is(1)));
 		// Body: the endpoints retrieving a list of articles do no longer return the body of an article for performance reasons
 	}
 	
@@ -208,5 +597,20 @@ class ArticleControllerUnitTest {
 					.andExpect(status().isOk())
 					.andExpect(jsonPath("$.article.favorited", is(false)));
 	}
-
+	
+	@Test
+	public void findArticleByOldSlugRedirectsTest() throws Exception {
+		// precondition
+		given(articleService.findArticleBySlug("old-title")).willThrow(new NoSuchElementException());
+		given(articleService.findRedirect("old-title")).willReturn(Optional.of("new-title"));
+		given(articleService.findArticleBySlug("gone")).willThrow(new NoSuchElementException());
+		given(articleService.findRedirect("gone")).willReturn(Optional.empty());
+		
+		// action & verify
+		mockMvc.perform(get("/api/articles/{slug}", "old-title"))
+			.andExpect(status().isMovedPermanently())
+			.andExpect(header().string("Location", "/api/articles/new-title"));
+		mockMvc.perform(get("/api/articles/{slug}", "gone"))
+			.andExpect(status().isNotFound());
+	}
 }
@@ -1,19 +1,31 @@
 package io.spring.boot.controller;
 
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-import java.util.Optional;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -23,14 +35,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.spring.boot.controller.wrappers.SingleCommentPostRequest;
+import io.spring.boot.dto.CommentCursor;
 import io.spring.boot.dto.CommentPostRequestDTO;
+import io.spring.boot.dto.CommentResponseDTO;
+import io.spring.boot.dto.FieldSet;
 import io.spring.boot.entity.Article;
 import io.spring.boot.entity.Comment;
 import io.spring.boot.entity.Profile;
@@ -38,8 +58,10 @@ import io.spring.boot.entity.User;
 import io.spring.boot.repository.UserRepository;
 import io.spring.boot.security.JwtService;
 import io.spring.boot.security.SecurityConfig;
+import io.spring.boot.service.CommentEventBus;
 import io.spring.boot.service.CommentService;
 import io.spring.boot.service.UserService;
+import jakarta.persistence.Tuple;
 
 @WebMvcTest(CommentRestController.class)
 @AutoConfigureMockMvc
@@ -59,6 +81,8 @@ public class CommentControllerUnitTest {
 	@MockBean
 	private CommentService commentService;
 	@MockBean
+	private CommentEventBus commentEventBus;
+	@MockBean
 	private UserRepository userRepository;
 	
 	
@@ -98,26 +122,131 @@ public class CommentControllerUnitTest {
 	
 	@Test
 	public void findAllCommentsTest() throws Exception {
-		given(commentService.findAllComments(anyString())).willReturn(Set.of(comment));
+		given(commentService.findComments(anyString(), isNull(), eq(20))).willReturn(new SliceImpl<>(List.of(comment)));
 
         ResultActions result = mockMvc.perform(get("/api/articles/{slug}/comments", article.getSlug())
         							.with(user(author)));
 
         result.andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
                 .andExpect(jsonPath("$.comments[0].body", is("comment")))
-                .andExpect(jsonPath("$.comments[0].author.username", is("username")));
+                .andExpect(jsonPath("$.comments[0].author.username", is("username")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                // streamed, yet exactly the RealWorld {"comments":[...]} Jackson writes for the DTOs
+                .andExpect(content().json(objectMapper.writeValueAsString(
+                		Map.of("comments", List.of(new CommentResponseDTO(comment, author.getProfile(), false)))), true));
+	}
+	
+	@Test
+	public void findAllCommentsNextCursorTest() throws Exception {
+		given(commentService.findComments(anyString(), isNull(), eq(1)))
+				.willReturn(new SliceImpl<>(List.of(comment), PageRequest.of(0, 1), true));
+		
+		// Anonymous readers get the author profile as well
+		ResultActions result = mockMvc.perform(get("/api/articles/{slug}/comments", article.getSlug())
+									.param("limit", "1"));
+		
+		result.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.comments[0].author.username", is("username")))
+				.andExpect(jsonPath("$.nextCursor", is(CommentCursor.of(comment).encode())));
+	}
+	
+	@Test
+	public void findAllCommentsFollowingTest() throws Exception {
+		User viewer = new User(2L, "viewer@gmail.com", new Profile("viewer"));
+		given(commentService.findComments(anyString(), isNull(), eq(20))).willReturn(new SliceImpl<>(List.of(comment)));
+		given(userService.findFolloweeIds(viewer.getId(), Set.of(author.getId()))).willReturn(Set.of(author.getId()));
+		
+		ResultActions result = mockMvc.perform(get("/api/articles/{slug}/comments", article.getSlug())
+									.with(user(viewer)));
+		
+		result.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.comments[0].author.following", is(true)));
+	}
+	
+	@Test
+	public void findAllCommentsWithFieldsTest() throws Exception {
+		User viewer = new User(2L, "viewer@gmail.com", new Profile("viewer"));
+		Tuple row = mock(Tuple.class);
+		given(row.get("id")).willReturn(comment.getId());
+		given(row.get("id", Long.class)).willReturn(comment.getId());
+		given(row.get("createdAt", OffsetDateTime.class)).willReturn(comment.getCreatedAt());
+		given(row.get("author.id", Long.class)).willReturn(author.getId());
+		given(row.get("author.username", String.class)).willReturn("username");
+		given(commentService.findCommentFields(anyString(), isNull(), eq(1), any(FieldSet.class)))
+				.willReturn(new SliceImpl<>(List.of(row), PageRequest.of(0, 1), true));
+		given(userService.findFolloweeIds(viewer.getId(), Set.of(author.getId()))).willReturn(Set.of(author.getId()));
+		
+		// Only id and author, the cursor still comes from createdAt and id
+		ResultActions result = mockMvc.perform(get("/api/articles/{slug}/comments", article.getSlug())
+									.with(user(viewer))
+									.param("limit", "1")
+									.param("fields", "author,id"));
+		
+		result.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.comments[0].id", is(1)))
+				.andExpect(jsonPath("$.comments[0].body").doesNotExist())
+				.andExpect(jsonPath("$.comments[0].author.username", is("username")))
+				.andExpect(jsonPath("$.comments[0].author.following", is(true)))
+				.andExpect(jsonPath("$.nextCursor", is(CommentCursor.of(comment).encode())));
+		mockMvc.perform(get("/api/articles/{slug}/comments", article.getSlug()).param("fields", "title"))
+				.andExpect(status().isUnprocessableEntity());
+	}
+	
+	@Test
+	public void findAllCommentsInvalidCursorTest() throws Exception {
+		ResultActions result = mockMvc.perform(get("/api/articles/{slug}/comments", article.getSlug())
+									.param("cursor", "not-a-cursor"));
+		
+		result.andDo(print()).andExpect(status().isUnprocessableEntity());
+	}
+	
+	@Test
+	public void streamCommentsTest() throws Exception {
+		given(commentEventBus.subscribe(article.getSlug())).willReturn(new SseEmitter());
+		
+		ResultActions result = mockMvc.perform(get("/api/articles/{slug}/comments/stream", article.getSlug())
+									.accept(MediaType.TEXT_EVENT_STREAM));
+		
+		result.andExpect(status().isOk())
+				.andExpect(request().asyncStarted());
+		verify(commentService).ensureArticleExists(article.getSlug());
 	}
 	
 	@Test
 	public void deleteCommentTest() throws Exception {
-		given(commentService.findById(comment.getId())).willReturn(Optional.of(comment));
-		willDoNothing().given(commentService).deleteCommentById(any(Long.class));
+		willDoNothing().given(commentService).deleteComment(author.getId(), article.getSlug(), comment.getId());
 		
         ResultActions result = mockMvc.perform(delete("/api/articles/{slug}/comments/{id}", article.getSlug(), comment.getId())
         							.with(user(author)));
 
         result.andDo(print()).andExpect(status().isNoContent());
+        verify(commentService).deleteComment(author.getId(), article.getSlug(), comment.getId());
+	}
+	
+	@Test
+	public void deleteCommentOfAnotherUserTest() throws Exception {
+		User other = new User(2L, "other@gmail.com", new Profile("other"));
+		willThrow(new AccessDeniedException("Access denied")).given(commentService).deleteComment(other.getId(), article.getSlug(), comment.getId());
+		
+		ResultActions result = mockMvc.perform(delete("/api/articles/{slug}/comments/{id}", article.getSlug(), comment.getId())
+									.with(user(other)));
+		
+		result.andDo(print()).andExpect(status().isForbidden());
+	}
+	
+	@Test
+	public void deleteMissingCommentTest() throws Exception {
+		willThrow(new NoSuchElementException()).given(commentService).deleteComment(author.getId(), article.getSlug(), 99L);
+		
+		ResultActions result = mockMvc.perform(delete("/api/articles/{slug}/comments/{id}", article.getSlug(), 99L)
+									.with(user(author)));
+		
+		result.andDo(print()).andExpect(status().isNotFound());
 	}
 	
 }
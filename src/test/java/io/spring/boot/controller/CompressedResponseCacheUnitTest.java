@@ -0,0 +1,51 @@
+package io.spring.boot.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class CompressedResponseCacheUnitTest {
+
+	private final CompressedResponseCache cache = new CompressedResponseCache(new ContentFormats(new ObjectMapper()), true,
+			DataSize.ofKilobytes(2), DataSize.ofKilobytes(64));
+
+	private static byte[] body(String text) {
+		return text.repeat(1_000).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void compressedBytesAreReusedWhileTheBodyIsUnchanged() {
+		CompressedResponseCache.Key key = CompressedResponseCache.Key.of("tags");
+		byte[] first = cache.compressed(key, body("react "));
+
+		assertThat(cache.compressed(key, body("react "))).isSameAs(first);
+		assertThat(cache.compressed(key, body("angular "))).isNotSameAs(first);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void leastRecentlyUsedBodiesAreEvictedOverMaxSize() {
+		// 20 bodies of 4 KB identity each, 64 KB at most
+		for (int id = 0; id < 20; id++) {
+			cache.compressed(new CompressedResponseCache.Key("article", id, false, false), body("body" + id));
+		}
+
+		assertThat(cache.size()).isBetween(10, 16);
+	}
+
+	@Test
+	void gzipIsNegotiatedFromAcceptEncoding() {
+		assertThat(CompressedResponseCache.acceptsGzip("gzip, deflate, br")).isTrue();
+		assertThat(CompressedResponseCache.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+		assertThat(CompressedResponseCache.acceptsGzip("*")).isTrue();
+		assertThat(CompressedResponseCache.acceptsGzip("*, gzip;q=0")).isFalse();
+		assertThat(CompressedResponseCache.acceptsGzip("identity")).isFalse();
+		assertThat(CompressedResponseCache.acceptsGzip("br")).isFalse();
+		assertThat(CompressedResponseCache.acceptsGzip(null)).isFalse();
+	}
+}
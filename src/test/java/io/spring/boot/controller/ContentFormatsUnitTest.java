@@ -0,0 +1,33 @@
+package io.spring.boot.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ContentFormatsUnitTest {
+
+	private final ContentFormats contentFormats = new ContentFormats(new ObjectMapper());
+
+	private MediaType negotiate(String accept) {
+		return contentFormats.negotiate(accept).mediaType();
+	}
+
+	@Test
+	void acceptPicksTheFormat() {
+		assertThat(negotiate(null)).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(negotiate("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(negotiate("application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+		assertThat(negotiate("application/json;q=0.5, application/x-jackson-smile")).isEqualTo(ContentFormats.APPLICATION_SMILE);
+		assertThat(negotiate("application/cbor, application/x-jackson-smile")).isEqualTo(MediaType.APPLICATION_CBOR);
+		assertThat(negotiate("application/cbor;q=0, */*;q=0.1")).isEqualTo(MediaType.APPLICATION_JSON);
+	}
+
+	@Test
+	void unknownOrInvalidAcceptFallsBackToJson() {
+		assertThat(negotiate("text/html")).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(negotiate("not a media type")).isEqualTo(MediaType.APPLICATION_JSON);
+	}
+}
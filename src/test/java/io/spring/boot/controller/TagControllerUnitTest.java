@@ -27,11 +27,12 @@ import io.spring.boot.security.JwtAuthenticationFilter;
 import io.spring.boot.security.JwtService;
 import io.spring.boot.security.SecurityConfig;
 import io.spring.boot.service.TagService;
+import io.spring.boot.service.TagSuggestionService;
 import io.spring.boot.service.UserService;
 
 @WebMvcTest(TagRestController.class)
 @AutoConfigureMockMvc
-@Import({SecurityConfig.class})
+@Import({SecurityConfig.class, CompressedResponseCache.class})
 public class TagControllerUnitTest {
 
 	@Autowired
@@ -40,6 +41,8 @@ public class TagControllerUnitTest {
 	@MockBean
 	private TagService tagService;
 	@MockBean
+	private TagSuggestionService tagSuggestionService;
+	@MockBean
     private JwtService jwtService;
 	@MockBean
     private UserService userService;
@@ -67,4 +70,18 @@ public class TagControllerUnitTest {
 		        .andExpect(jsonPath("$.tags[1]", is("angular")))
 		        .andExpect(jsonPath("$.tags[2]", is("vue")));
 	}
+	
+	@Test
+	public void suggestTagsTest() throws Exception {
+		given(tagSuggestionService.suggest("re", 10)).willReturn(List.of("react", "redux"));
+		given(tagSuggestionService.suggest("re", 0)).willThrow(new IllegalArgumentException("Limit must be positive"));
+		
+		// Anonymous, same shape as /api/tags
+		mockMvc.perform(get("/api/tags/suggest").param("prefix", "re"))
+		        .andExpect(status().isOk())
+		        .andExpect(jsonPath("$.tags.size()", is(2)))
+		        .andExpect(jsonPath("$.tags[0]", is("react")));
+		mockMvc.perform(get("/api/tags/suggest").param("prefix", "re").param("limit", "0"))
+		        .andExpect(status().isUnprocessableEntity());
+	}
 }
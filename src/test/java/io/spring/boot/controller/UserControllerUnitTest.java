@@ -5,12 +5,18 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -31,6 +37,8 @@ import org.springframework.test.web.servlet.ResultActions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.spring.boot.controller.wrappers.SingleUserRequest;
+import io.spring.boot.dto.AccountDeletionDTO;
+import io.spring.boot.dto.FieldSet;
 import io.spring.boot.dto.UserLoginRequestDTO;
 import io.spring.boot.dto.UserPostRequestDTO;
 import io.spring.boot.dto.UserPutRequestDTO;
@@ -39,7 +47,9 @@ import io.spring.boot.entity.User;
 import io.spring.boot.repository.UserRepository;
 import io.spring.boot.security.JwtService;
 import io.spring.boot.security.SecurityConfig;
+import io.spring.boot.service.AccountDeletionService;
 import io.spring.boot.service.UserService;
+import jakarta.persistence.Tuple;
 
 /** 
  * https://medium.com/@Lakshitha_Fernando/spring-boot-unit-testing-for-repositories-controllers-and-services-using-junit-5-and-mockito-def3ff5891be
@@ -61,6 +71,8 @@ public class UserControllerUnitTest {
 	private UserRepository userRepository;
 	@MockBean
 	private UserService userService;
+	@MockBean
+	private AccountDeletionService accountDeletionService;
 	// Used for token generation in controller responses (e.g., login/register).
 	@MockBean
     private JwtService jwtService;
@@ -166,6 +178,23 @@ public class UserControllerUnitTest {
                 .andExpect(jsonPath("$.user.token", is("jwt.token.here")));
 	}
 	
+	@Test
+	void patchUserTest() throws Exception {
+		UserPutRequestDTO dto = new UserPutRequestDTO(null, null, null, "Only the bio", null);
+		User updatedUser = new User(user.getId(), user.getEmail(), new Profile("TylerDurden", "Only the bio", null));
+		given(userService.updateUser(eq(user.getId()), any(UserPutRequestDTO.class))).willReturn(updatedUser);
+		given(userService.generateToken(updatedUser)).willReturn("jwt.token.here");
+		
+		ResultActions response = mockMvc.perform(patch("/api/user")
+										.with(user(user))
+										.contentType(MediaType.APPLICATION_JSON)
+										.content(objectMapper.writeValueAsString((new SingleUserRequest<UserPutRequestDTO>(dto)))));
+		
+		response.andExpect(status().isOk())
+				.andExpect(jsonPath("$.user.bio", is("Only the bio")))
+				.andExpect(jsonPath("$.user.username", is("TylerDurden")));
+	}
+	
 	@Test
 	void deleteUserTest() throws Exception {
 		// precondition
@@ -180,6 +209,37 @@ public class UserControllerUnitTest {
 		response.andDo(print()).andExpect(status().isNoContent());
 	}
 	
+	@Test
+	void deleteUserAsyncTest() throws Exception {
+		// precondition
+		AccountDeletionDTO deletion = new AccountDeletionDTO("job-1", AccountDeletionDTO.State.RUNNING, 3, 0, null);
+		given(accountDeletionService.startDeletion(user.getId())).willReturn(deletion);
+		
+		// action
+		ResultActions response = mockMvc.perform(delete("/api/user").param("async", "true")
+				.with(user(user)));
+		
+		// verify
+		response.andExpect(status().isAccepted())
+			.andExpect(header().string("Location", "/api/user/deletions/job-1"))
+			.andExpect(jsonPath("$.state", is("RUNNING")))
+			.andExpect(jsonPath("$.articles", is(3)));
+		verify(userService, never()).deleteUser(user.getId());
+	}
+	
+	@Test
+	void findDeletionWithoutLoginTest() throws Exception {
+		// precondition: the account and its token may already be gone
+		AccountDeletionDTO deletion = new AccountDeletionDTO("job-1", AccountDeletionDTO.State.COMPLETED, 3, 3, null);
+		given(accountDeletionService.findDeletion("job-1")).willReturn(deletion);
+		
+		// action & verify
+		mockMvc.perform(get("/api/user/deletions/job-1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.state", is("COMPLETED")))
+			.andExpect(jsonPath("$.deletedArticles", is(3)));
+	}
+	
 	@Test
 	void viewProfile() throws Exception {
 		// precondition
@@ -196,6 +256,28 @@ public class UserControllerUnitTest {
 			.andExpect(jsonPath("$.profile.following", is(false)));
 	}
 	
+	@Test
+	void viewProfileFields() throws Exception {
+		// precondition
+		User follower = new User(2L, "follower@gmail.com", new Profile("follower"));
+		follower.followUser(user);
+		Tuple target = mock(Tuple.class);
+		given(target.get("id", Long.class)).willReturn(user.getId());
+		given(target.get("bio")).willReturn("Space monkey");
+		given(userService.viewProfileFields(eq("TylerDurden"), any(FieldSet.class))).willReturn(target);
+		
+		// action
+		ResultActions response = mockMvc.perform(get("/api/profiles/{username}", "TylerDurden")
+				.with(user(follower))
+				.param("fields", "following,bio"));
+		
+		// verify: the requested fields only, in profile order
+		response.andDo(print())
+			.andExpect(status().isOk())
+			.andExpect(content().json("{\"profile\":{\"bio\":\"Space monkey\",\"following\":true}}", true));
+		verify(userService, never()).viewProfile("TylerDurden");
+	}
+	
 	@Test
 	void followUser() throws Exception {
 		// precondition
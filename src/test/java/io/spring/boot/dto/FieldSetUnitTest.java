@@ -0,0 +1,40 @@
+package io.spring.boot.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+public class FieldSetUnitTest {
+
+	@Test
+	void testAbsentOrBlankKeepsEveryField() {
+		for (String fields : new String[] { null, "", " , " }) {
+			FieldSet fieldSet = FieldSet.parse(fields, CommentResponseDTO.FIELDS);
+			assertThat(fieldSet.isAll()).isTrue();
+			assertThat(fieldSet.names()).isEqualTo(CommentResponseDTO.FIELDS);
+		}
+	}
+
+	@Test
+	void testNamesKeepTheResponseOrder() {
+		FieldSet fieldSet = FieldSet.parse(" author,slug , favoritesCount,slug", MultipleArticlesResponseDTO.FIELDS);
+
+		assertThat(fieldSet.isAll()).isFalse();
+		assertThat(fieldSet.names()).containsExactly("slug", "favoritesCount", "author");
+		assertThat(fieldSet.contains("author")).isTrue();
+		assertThat(fieldSet.contains("title")).isFalse();
+	}
+
+	@Test
+	void testEveryFieldNamedIsAll() {
+		assertThat(FieldSet.parse("following,image,bio,username", AuthorResponseDTO.FIELDS).isAll()).isTrue();
+	}
+
+	@Test
+	void testUnknownFieldIsRejected() {
+		assertThatThrownBy(() -> FieldSet.parse("slug,body", MultipleArticlesResponseDTO.FIELDS))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageStartingWith("Unknown field: body");
+	}
+}
@@ -0,0 +1,52 @@
+package io.spring.boot.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SlugGeneratorUnitTest {
+
+	// The generator this one replaced, output must not change for ASCII titles
+	private static String regexSlug(String title) {
+		return title.trim().toLowerCase().replaceAll("[^a-z0-9\\s-]", "").replaceAll("\\s+", "-").replaceAll("-+", "-");
+	}
+
+	@Test
+	void testSameOutputAsRegexForAsciiTitles() {
+		String[] titles = { "Hello World", "Hello, World!", "  How to train your dragon  ", "a - b -- c", "C++ & Java: 10 tips",
+				"!leading", "trailing !", "tab\tand\nnewline", "dash-- -run", "UPPER lower 123", "--", "!!!", "x\u000Bvertical\ftab" };
+		for (String title : titles) {
+			assertThat(SlugGenerator.slugify(title)).as(title).isEqualTo(regexSlug(title));
+		}
+	}
+
+	@Test
+	void testSameOutputAsRegexForRandomAsciiTitles() {
+		Random random = new Random(42);
+		for (int i = 0; i < 10_000; i++) {
+			char[] title = new char[random.nextInt(40)];
+			for (int j = 0; j < title.length; j++) {
+				title[j] = (char) random.nextInt(128);
+			}
+			String ascii = new String(title);
+			assertThat(SlugGenerator.slugify(ascii)).as(ascii).isEqualTo(regexSlug(ascii));
+		}
+	}
+
+	@Test
+	void testTransliteratesAccentedLatin() {
+		assertThat(SlugGenerator.slugify("Crème Brûlée")).isEqualTo("creme-brulee");
+		assertThat(SlugGenerator.slugify("Straße in Köln")).isEqualTo("strasse-in-koln");
+		assertThat(SlugGenerator.slugify("Łódź, Žižkov & Ærøskøbing")).isEqualTo("lodz-zizkov-aeroskobing");
+		assertThat(SlugGenerator.slugify("Œuvre ÞORN")).isEqualTo("oeuvre-thorn");
+		assertThat(SlugGenerator.slugify("2 × 3 ÷ 4")).isEqualTo("2-3-4");
+	}
+
+	@Test
+	void testDropsOtherScriptsAndCombiningMarks() {
+		assertThat(SlugGenerator.slugify("Cafe\u0301 日本")).isEqualTo("cafe-");
+		assertThat(SlugGenerator.slugify("no\u00A0break")).isEqualTo("no-break");
+	}
+}
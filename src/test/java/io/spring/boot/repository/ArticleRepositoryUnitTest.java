@@ -2,7 +2,9 @@ package io.spring.boot.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.OffsetDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -17,9 +19,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
 import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Comment;
 import io.spring.boot.entity.Profile;
 import io.spring.boot.entity.Tag;
 import io.spring.boot.entity.User;
+import io.spring.boot.repository.ArticleRepository.FavoritesCount;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
 
 
 @DataJpaTest(showSql = false)
@@ -208,4 +214,168 @@ public class ArticleRepositoryUnitTest {
         assertThat(result.getContent().get(0).getTitle()).isEqualTo("Real World Endpoints");
 	}
 	
+	@Test
+	void testAdjustCommentsCount() {
+		Article article = createDefaultArticle(author);
+		
+		articleRepository.adjustCommentsCount(article.getId(), 2);
+		articleRepository.adjustCommentsCount(article.getId(), -1);
+		entityManager.clear();
+		
+		assertThat(articleRepository.findById(article.getId()).get().getCommentsCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void testReconcileCommentsCount() {
+		Article article = createDefaultArticle(author);
+		Comment comment = new Comment("comment");
+		comment.setArticle(article);
+		comment.setAuthor(author);
+		entityManager.persist(comment);
+		// Simulate drift: the counter says 5 while a single comment exists
+		articleRepository.adjustCommentsCount(article.getId(), 5);
+		
+		int fixed = articleRepository.reconcileCommentsCount(article.getId(), article.getId());
+		
+		assertThat(fixed).isEqualTo(1);
+		assertThat(articleRepository.findById(article.getId()).get().getCommentsCount()).isEqualTo(1);
+		assertThat(articleRepository.reconcileCommentsCount(article.getId(), article.getId())).isZero();
+	}
+	
+	@Test
+	void testIsFavoritedBy() {
+		Article article = createDefaultArticle(author);
+		article.favoriteArticle(follower);
+		articleRepository.saveAndFlush(article);
+		
+		assertThat(articleRepository.isFavoritedBy(article.getId(), follower.getId())).isTrue();
+		assertThat(articleRepository.isFavoritedBy(article.getId(), author.getId())).isFalse();
+		assertThat(articleRepository.countFavoritesOf(article.getId(), follower.getId()))
+				.extracting(FavoritesCount::getTotal, FavoritesCount::getByUser).containsExactly(1L, 1L);
+		assertThat(articleRepository.countFavoritesOf(article.getId(), author.getId()))
+				.extracting(FavoritesCount::getTotal, FavoritesCount::getByUser).containsExactly(1L, 0L);
+	}
+	
+	@Test
+	void testUpdateIfOwnedAndCurrent() {
+		Article article = createDefaultArticle(author);
+		entityManager.flush();
+		Long version = article.getVersion();
+		OffsetDateTime now = OffsetDateTime.now();
+		
+		// stale version and foreign author match nothing
+		assertThat(articleRepository.updateIfOwnedAndCurrent(article.getSlug(), author.getId(), version + 1, "New title", "new-title", null, null, now)).isZero();
+		assertThat(articleRepository.updateIfOwnedAndCurrent(article.getSlug(), follower.getId(), version, "New title", "new-title", null, null, now)).isZero();
+		
+		assertThat(articleRepository.updateIfOwnedAndCurrent(article.getSlug(), author.getId(), version, "New title", "new-title", null, null, now)).isEqualTo(1);
+		Article updated = articleRepository.findBySlug("new-title").get();
+		assertThat(updated.getTitle()).isEqualTo("New title");
+		assertThat(updated.getDescription()).isEqualTo("Tyler Durden");
+		assertThat(updated.getVersion()).isEqualTo(version + 1);
+	}
+	
+	@Test
+	void testUpdateIfOwnedAndCurrentKeepsUnchangedColumns() {
+		String longBody = "x".repeat(100_000);
+		Article article = new Article("Long read", "desc", longBody);
+		article.setAuthor(author);
+		articleRepository.save(article);
+		entityManager.flush();
+		
+		assertThat(articleRepository.updateIfOwnedAndCurrent("long-read", author.getId(), null, null, null, "New desc", null, OffsetDateTime.now())).isEqualTo(1);
+		
+		Article updated = articleRepository.findBySlug("long-read").get();
+		assertThat(updated.getDescription()).isEqualTo("New desc");
+		assertThat(updated.getTitle()).isEqualTo("Long read");
+		assertThat(updated.getBody()).isEqualTo(longBody);
+	}
+	
+	@Test
+	void testFavoritingKeepsVersion() {
+		Article article = createDefaultArticle(author);
+		entityManager.flush();
+		Long version = article.getVersion();
+		
+		article.favoriteArticle(follower);
+		articleRepository.saveAndFlush(article);
+		
+		assertThat(articleRepository.findVersionBySlug(article.getSlug()).get().getVersion()).isEqualTo(version);
+	}
+	
+	@Test
+	void testSetBasedDelete() {
+		Tag tag = new Tag("Java");
+		entityManager.persist(tag);
+		Article article = createDefaultArticle(author);
+		article.setTags(new HashSet<Tag>(Set.of(tag)));
+		article.favoriteArticle(follower);
+		for (int i = 0; i < 3; i++) {
+			Comment comment = new Comment("comment " + i);
+			comment.setArticle(article);
+			comment.setAuthor(follower);
+			entityManager.persist(comment);
+		}
+		entityManager.flush();
+		Long version = article.getVersion();
+		List<Long> ids = List.of(article.getId());
+		
+		assertThat(articleRepository.deleteCommentsOfArticles(ids)).isEqualTo(3);
+		assertThat(articleRepository.deleteFavoritesOfArticles(ids)).isEqualTo(1);
+		assertThat(articleRepository.deleteTagLinksOfArticles(ids)).isEqualTo(1);
+		assertThat(articleRepository.deleteArticleRow(article.getId(), version + 1)).isZero();
+		assertThat(articleRepository.deleteArticleRow(article.getId(), version)).isEqualTo(1);
+		
+		assertThat(articleRepository.findById(article.getId())).isEmpty();
+		assertThat(entityManager.find(Tag.class, tag.getId())).isNotNull();
+		assertThat(entityManager.find(User.class, follower.getId())).isNotNull();
+	}
+	
+	@Test
+	void testFindFieldsSelectsRequestedColumnsOnly() {
+		Article article = createDefaultArticle(author);
+		article.favoriteArticle(follower);
+		entityManager.flush();
+		entityManager.clear();
+		
+		Tuple tuple = articleRepository.findFields(List.of(article.getId()), List.of("title", "favoritesCount")).get(0);
+		
+		assertThat(tuple.getElements()).extracting(TupleElement::getAlias).containsExactly("id", "title", "favoritesCount");
+		assertThat(tuple.get("title")).isEqualTo("Like light to the flies");
+		assertThat(tuple.get("favoritesCount", Integer.class)).isEqualTo(1);
+		
+		Tuple withAuthor = articleRepository.findFields(List.of(article.getId()), List.of("author")).get(0);
+		assertThat(withAuthor.get("author.id")).isEqualTo(author.getId());
+		assertThat(withAuthor.get("author.username")).isEqualTo("username");
+	}
+	
+	@Test
+	void testFindTagNamesAndFavoritedIdsAmong() {
+		Tag java = new Tag("Java");
+		Tag spring = new Tag("Spring");
+		entityManager.persist(java);
+		entityManager.persist(spring);
+		Article tagged = createDefaultArticle(author);
+		tagged.setTags(new HashSet<Tag>(Set.of(java, spring)));
+		tagged.favoriteArticle(follower);
+		Article other = createNewArticle(author, "Other");
+		entityManager.flush();
+		List<Long> ids = List.of(tagged.getId(), other.getId());
+		
+		assertThat(articleRepository.findTagNamesOf(ids)).extracting(row -> row[0] + ":" + row[1])
+				.containsExactlyInAnyOrder(tagged.getId() + ":Java", tagged.getId() + ":Spring");
+		assertThat(articleRepository.findFavoritedIdsAmong(follower.getId(), ids)).containsExactly(tagged.getId());
+		assertThat(articleRepository.findFavoritedIdsAmong(author.getId(), ids)).isEmpty();
+	}
+	
+	@Test
+	void testFindIdsBySlugIn() {
+		Article first = createNewArticle(author, "First");
+		Article second = createNewArticle(author, "Second");
+		entityManager.flush();
+		
+		assertThat(articleRepository.findIdsBySlugIn(List.of("second", "missing", "first")))
+				.extracting(row -> row[0] + ":" + row[1])
+				.containsExactlyInAnyOrder("first:" + first.getId(), "second:" + second.getId());
+	}
+	
 }
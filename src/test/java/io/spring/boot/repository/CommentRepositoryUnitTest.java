@@ -2,22 +2,27 @@ package io.spring.boot.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import java.util.Comparator;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+
+import org.hibernate.Hibernate;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 
 import io.spring.boot.entity.Article;
 import io.spring.boot.entity.Comment;
 import io.spring.boot.entity.Profile;
 import io.spring.boot.entity.User;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
 
 @DataJpaTest(showSql = false)
 @Transactional
@@ -70,20 +75,22 @@ public class CommentRepositoryUnitTest {
 	}
 	
 	@Test
-	public void findBySlugTest() {
+	public void findFirstPageBySlugTest() {
 		Comment savedComment = commentRepository.save(comment);
 		
-		Set<Comment> result = commentRepository.findBySlug(savedComment.getArticle().getSlug());
+		Slice<Comment> result = commentRepository.findFirstPageBySlug(savedComment.getArticle().getSlug(), PageRequest.of(0, 20));
 		
 		assertThat(result).isNotNull();
-		assertThat(result).hasSize(1);
-		assertThat(result).extracting(Comment::getBody).containsExactlyInAnyOrder("comment");
-		Comment found = result.iterator().next();
+		assertThat(result.getContent()).hasSize(1);
+		assertThat(result.getContent()).extracting(Comment::getBody).containsExactly("comment");
+		assertThat(result.hasNext()).isFalse();
+		Comment found = result.getContent().get(0);
         assertThat(found.getCreatedAt()).isNotNull();
+        assertThat(Hibernate.isInitialized(found.getAuthor())).isTrue();
 	}
 	
     @Test
-    public void findBySlugSortingTest() {
+    public void findFirstPageBySlugSortingTest() {
         // Create two comments with different creation times
         Comment comment1 = new Comment("first comment");
         comment1.setArticle(article);
@@ -96,16 +103,74 @@ public class CommentRepositoryUnitTest {
         comment2.setAuthor(author);
         entityManager.persist(comment2);
 
-        Set<Comment> result = commentRepository.findBySlug(article.getSlug());
-
-        assertThat(result).hasSize(2);
-
-     // Convert Set → ordered List (newest first)
-        var ordered = result.stream()
-                .sorted(Comparator.comparing(Comment::getCreatedAt).reversed())
-                .collect(Collectors.toList());
+        Slice<Comment> result = commentRepository.findFirstPageBySlug(article.getSlug(), PageRequest.of(0, 20));
 
-        assertThat(ordered.get(0).getBody()).isEqualTo("second comment"); // newest
-        assertThat(ordered.get(1).getBody()).isEqualTo("first comment");  // oldest
+        // The list keeps the query order (newest first)
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getContent().get(0).getBody()).isEqualTo("second comment"); // newest
+        assertThat(result.getContent().get(1).getBody()).isEqualTo("first comment");  // oldest
+    }
+    
+    @Test
+    public void findPageBySlugBeforeTest() {
+    	// Three comments sharing the same timestamp: the id breaks the tie
+    	OffsetDateTime createdAt = comment.getCreatedAt();
+    	for (String body : List.of("c1", "c2", "c3")) {
+    		Comment c = new Comment(body);
+    		c.setArticle(article);
+    		c.setAuthor(author);
+    		c.setCreatedAt(createdAt);
+    		entityManager.persist(c);
+    	}
+    	entityManager.flush();
+    	entityManager.clear();
+    	
+    	Slice<Comment> first = commentRepository.findFirstPageBySlug(article.getSlug(), PageRequest.of(0, 2));
+    	Comment last = first.getContent().get(1);
+    	Slice<Comment> second = commentRepository.findPageBySlugBefore(article.getSlug(), last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+    	
+    	assertThat(first.getContent()).extracting(Comment::getBody).containsExactly("c3", "c2");
+    	assertThat(first.hasNext()).isTrue();
+    	assertThat(second.getContent()).extracting(Comment::getBody).containsExactly("c1");
+    	assertThat(second.hasNext()).isFalse();
+    }
+    
+    @Test
+    public void deleteOwnedCommentTest() {
+    	Comment savedComment = commentRepository.save(comment);
+    	User other = new User("other@gmail.com", new Profile("other"));
+    	entityManager.persist(other);
+    	
+    	assertThat(commentRepository.deleteOwnedComment(savedComment.getId(), article.getSlug(), other.getId())).isZero();
+    	assertThat(commentRepository.deleteOwnedComment(savedComment.getId(), "another-slug", author.getId())).isZero();
+    	assertThat(commentRepository.existsByIdAndArticleSlug(savedComment.getId(), article.getSlug())).isTrue();
+    	
+    	assertThat(commentRepository.deleteOwnedComment(savedComment.getId(), article.getSlug(), author.getId())).isEqualTo(1);
+    	assertThat(commentRepository.existsByIdAndArticleSlug(savedComment.getId(), article.getSlug())).isFalse();
+    }
+    
+    @Test
+    public void findFieldsBySlugTest() {
+    	OffsetDateTime createdAt = comment.getCreatedAt();
+    	for (String body : List.of("c1", "c2", "c3")) {
+    		Comment c = new Comment(body);
+    		c.setArticle(article);
+    		c.setAuthor(author);
+    		c.setCreatedAt(createdAt);
+    		entityManager.persist(c);
+    	}
+    	entityManager.flush();
+    	entityManager.clear();
+    	
+    	List<Tuple> first = commentRepository.findFieldsBySlug(article.getSlug(), null, null, 2, List.of("body"));
+    	Tuple last = first.get(1);
+    	List<Tuple> second = commentRepository.findFieldsBySlug(article.getSlug(), last.get("createdAt", OffsetDateTime.class),
+    			last.get("id", Long.class), 2, List.of("body", "author"));
+    	
+    	// id and createdAt always, the author only when asked for
+    	assertThat(first.get(0).getElements()).extracting(TupleElement::getAlias).containsExactly("id", "createdAt", "body");
+    	assertThat(first).extracting(t -> t.get("body")).containsExactly("c3", "c2");
+    	assertThat(second).extracting(t -> t.get("body")).containsExactly("c1");
+    	assertThat(second.get(0).get("author.username")).isEqualTo("username");
     }
 }
@@ -3,10 +3,12 @@ package io.spring.boot.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.transaction.annotation.Transactional;
 
 import io.spring.boot.entity.Tag;
@@ -17,6 +19,8 @@ public class TagRepositoryUnitTest {
 
 	@Autowired
 	private TagRepository tagRepository;
+	@Autowired
+	private TestEntityManager entityManager;
 	
 	@Test
 	public void saveTagTest() {
@@ -39,4 +43,32 @@ public class TagRepositoryUnitTest {
 		assertThat(tags).hasSize(3);
 		assertThat(tags).extracting(Tag::getName).containsExactlyInAnyOrder("react", "vue", "angular");
 	}
+	
+	@Test
+	public void findByNameInTest() {
+		tagRepository.save(new Tag("react"));
+		tagRepository.save(new Tag("angular"));
+		tagRepository.save(new Tag("vue"));
+		
+		List<Tag> tags = tagRepository.findByNameIn(List.of("react", "vue", "svelte"));
+		
+		assertThat(tags).extracting(Tag::getName).containsExactlyInAnyOrder("react", "vue");
+	}
+	
+	@Test
+	public void insertMissingSkipsExistingNames() {
+		Long react = tagRepository.saveAndFlush(new Tag("react")).getId();
+		
+		tagRepository.insertMissing(List.of("react", "vue", "svelte"));
+		tagRepository.insertMissing(List.of("vue"));
+		
+		List<Tag> tags = tagRepository.findByNameIn(List.of("react", "vue", "svelte"));
+		assertThat(tags).extracting(Tag::getName).containsExactlyInAnyOrder("react", "vue", "svelte");
+		assertThat(tags).filteredOn(tag -> tag.getName().equals("react")).extracting(Tag::getId).containsExactly(react);
+		
+		// Ids taken from the sequence by the insert never collide with the ones Hibernate allocates
+		IntStream.range(0, 120).forEach(i -> tagRepository.save(new Tag("tag-" + i)));
+		entityManager.flush();
+		assertThat(tagRepository.count()).isEqualTo(123);
+	}
 }
@@ -7,14 +7,21 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Comment;
 import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.Tag;
 import io.spring.boot.entity.User;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
 
 /**TODO
  * Figure out nested java objects @Embedded and @Embeddable. Done
@@ -30,6 +37,10 @@ public class UserRepositoryUnitTest {
 
 	@Autowired
 	private UserRepository userRepository;
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private TestEntityManager entityManager;
 	
 	// helper method, which saves a user with the specified email and username.
 	private User createTestUser(String email, String username) {
@@ -154,4 +165,105 @@ public class UserRepositoryUnitTest {
         assertThat(updatedFollower.get().getFollowedUsers()).isEmpty();
 	}
 	
+	@Test
+	void testFindFolloweeIdsAmong() {
+		User follower = createTestUser("follower@gmail.com", "follower");
+        User followee = createTestUser("followee@gmail.com", "followee");
+        User stranger = createTestUser("stranger@gmail.com", "stranger");
+        
+        follower.followUser(followee);
+        userRepository.save(follower);
+        
+        Set<Long> result = userRepository.findFolloweeIdsAmong(follower.getId(), List.of(followee.getId(), stranger.getId()));
+        
+        assertThat(result).containsExactly(followee.getId());
+	}
+	
+	@Test
+	void testUpdateChangedColumns() {
+		User user = createTestUser("john.doe@gmail.com", "johndoe");
+		
+		assertThat(userRepository.updateChangedColumns(user.getId(), null, null, null, "New bio", null)).isEqualTo(1);
+		assertThat(userRepository.updateChangedColumns(user.getId(), null, null, null, null, null)).isEqualTo(1);
+		assertThat(userRepository.updateChangedColumns(-1L, null, null, null, "New bio", null)).isZero();
+		
+		User updated = userRepository.findById(user.getId()).get();
+		assertThat(updated.getProfile().getBio()).isEqualTo("New bio");
+		assertThat(updated.getProfile().getUsername()).isEqualTo("johndoe");
+		assertThat(updated.getProfile().getImage()).isEqualTo("https://image.com");
+		assertThat(updated.getEmail()).isEqualTo("john.doe@gmail.com");
+	}
+	
+	@Test
+	void testFindProfileFields() {
+		User user = createTestUser("john.doe@gmail.com", "johndoe");
+		
+		Tuple tuple = userRepository.findProfileFields("johndoe", List.of("bio", "following")).get();
+		
+		assertThat(tuple.getElements()).extracting(TupleElement::getAlias).containsExactly("id", "bio");
+		assertThat(tuple.get("id")).isEqualTo(user.getId());
+		assertThat(tuple.get("bio")).isEqualTo("Bio for johndoe");
+		assertThat(userRepository.findProfileFields("nobody", List.of("bio"))).isEmpty();
+	}
+	
+	@Test
+	void testExistsByEmailAndIdNot() {
+		User user = createTestUser("john.doe@gmail.com", "johndoe");
+		createTestUser("jane.doe@gmail.com", "janedoe");
+		
+		assertThat(userRepository.existsByEmailAndIdNot("john.doe@gmail.com", user.getId())).isFalse();
+		assertThat(userRepository.existsByEmailAndIdNot("jane.doe@gmail.com", user.getId())).isTrue();
+		assertThat(userRepository.existsByProfileUsernameAndIdNot("janedoe", user.getId())).isTrue();
+	}
+	
+	@Test
+	void testSetBasedAccountDeletion() {
+		User leaving = createTestUser("leaving@gmail.com", "leaving");
+		User staying = createTestUser("staying@gmail.com", "staying");
+		leaving.followUser(staying);
+		staying.followUser(leaving);
+		Tag tag = entityManager.persist(new Tag("java"));
+		Article own = new Article("own", "desc", "body", Set.of(tag));
+		own.setAuthor(leaving);
+		own.favoriteArticle(staying);
+		entityManager.persist(own);
+		Article other = new Article("other", "desc", "body");
+		other.setAuthor(staying);
+		other.favoriteArticle(leaving);
+		entityManager.persist(other);
+		comment(own, staying);
+		comment(other, leaving);
+		comment(other, leaving);
+		comment(other, staying);
+		entityManager.flush();
+		articleRepository.adjustCommentsCount(other.getId(), 3);
+		Long id = leaving.getId();
+		
+		assertThat(userRepository.discountCommentsOf(id)).isEqualTo(1);
+		assertThat(userRepository.deleteCommentsOf(id)).isEqualTo(2);
+		assertThat(userRepository.deleteCommentsOnArticlesOf(id)).isEqualTo(1);
+		assertThat(userRepository.deleteFavoritesOnArticlesOf(id)).isEqualTo(1);
+		assertThat(userRepository.deleteTagLinksOfArticlesOf(id)).isEqualTo(1);
+		assertThat(userRepository.deleteArticlesOf(id)).isEqualTo(1);
+		assertThat(userRepository.deleteFavoritesOf(id)).isEqualTo(1);
+		assertThat(userRepository.deleteFollowsOf(id)).isEqualTo(2);
+		assertThat(userRepository.deleteUserRow(id)).isEqualTo(1);
+		
+		assertThat(userRepository.findById(id)).isEmpty();
+		User remaining = userRepository.findById(staying.getId()).get();
+		assertThat(remaining.getFollowedUsers()).isEmpty();
+		entityManager.clear();
+		Article kept = entityManager.find(Article.class, other.getId());
+		assertThat(kept.getCommentsCount()).isEqualTo(1);
+		assertThat(kept.getFavoritedCount()).isZero();
+		assertThat(entityManager.find(Tag.class, tag.getId())).isNotNull();
+	}
+	
+	private void comment(Article article, User author) {
+		Comment comment = new Comment("comment");
+		comment.setArticle(article);
+		comment.setAuthor(author);
+		entityManager.persist(comment);
+	}
+	
 }
@@ -0,0 +1,111 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.spring.boot.dto.AccountDeletionDTO;
+import io.spring.boot.dto.AccountDeletionDTO.State;
+import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountDeletionServiceUnitTest {
+
+	@Mock
+	private UserService userService;
+	@Mock
+	private UserRepository userRepository;
+	@Mock
+	private ArticleRepository articleRepository;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private final List<Runnable> queued = new ArrayList<>();
+	private AccountDeletionService accountDeletionService;
+
+	@BeforeEach
+	void setUp() {
+		// The worker only queues, each test decides when the job runs
+		accountDeletionService = new AccountDeletionService(userService, userRepository, articleRepository,
+				transactionManager, 2, Duration.ofHours(1), queued::add);
+	}
+
+	@Test
+	void deletesArticlesInChunksThenTheAccount() {
+		// Given: five articles, chunks of two
+		given(userRepository.existsById(1L)).willReturn(true);
+		given(articleRepository.countByAuthorId(1L)).willReturn(5L);
+		given(articleRepository.findIdsByAuthor(eq(1L), any(Pageable.class)))
+			.willReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L), List.of());
+		given(articleRepository.deleteArticleRows(any())).willAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+		// When
+		AccountDeletionDTO started = accountDeletionService.startDeletion(1L);
+		assertThat(started.state()).isEqualTo(State.RUNNING);
+		assertThat(started.articles()).isEqualTo(5);
+		queued.forEach(Runnable::run);
+
+		// Then
+		AccountDeletionDTO finished = accountDeletionService.findDeletion(started.id());
+		assertThat(finished.state()).isEqualTo(State.COMPLETED);
+		assertThat(finished.deletedArticles()).isEqualTo(5);
+		verify(articleRepository).deleteCommentsOfArticles(List.of(3L, 4L));
+		verify(articleRepository).deleteTagLinksOfArticles(List.of(5L));
+		verify(articleRepository, times(3)).deleteArticleRows(any());
+		verify(userService).deleteUser(1L);
+	}
+
+	@Test
+	void runningDeletionIsNotStartedTwice() {
+		given(userRepository.existsById(1L)).willReturn(true);
+
+		AccountDeletionDTO first = accountDeletionService.startDeletion(1L);
+		AccountDeletionDTO second = accountDeletionService.startDeletion(1L);
+
+		assertThat(second.id()).isEqualTo(first.id());
+		assertThat(queued).hasSize(1);
+	}
+
+	@Test
+	void failureIsReported() {
+		given(userRepository.existsById(1L)).willReturn(true);
+		given(articleRepository.findIdsByAuthor(eq(1L), any(Pageable.class))).willReturn(List.of());
+		willThrow(new IllegalStateException("database gone")).given(userService).deleteUser(1L);
+
+		AccountDeletionDTO started = accountDeletionService.startDeletion(1L);
+		queued.forEach(Runnable::run);
+
+		AccountDeletionDTO failed = accountDeletionService.findDeletion(started.id());
+		assertThat(failed.state()).isEqualTo(State.FAILED);
+		assertThat(failed.error()).isEqualTo("database gone");
+	}
+
+	@Test
+	void unknownUserAndJob() {
+		given(userRepository.existsById(9L)).willReturn(false);
+
+		assertThatThrownBy(() -> accountDeletionService.startDeletion(9L)).isInstanceOf(NoSuchElementException.class);
+		assertThatThrownBy(() -> accountDeletionService.findDeletion("missing")).isInstanceOf(NoSuchElementException.class);
+		verify(articleRepository, never()).countByAuthorId(9L);
+	}
+}
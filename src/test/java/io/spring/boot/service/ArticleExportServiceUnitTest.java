@@ -0,0 +1,100 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Comment;
+import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.Tag;
+import io.spring.boot.entity.User;
+
+// Runs the export queries against the test database, with a fetch size smaller than the data set
+@DataJpaTest(showSql = false)
+@Transactional
+public class ArticleExportServiceUnitTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private ArticleExportService articleExportService;
+
+	@BeforeEach
+	void setUp() {
+		articleExportService = new ArticleExportService(jdbcTemplate, objectMapper, 2);
+
+		User author = entityManager.persist(new User("author@gmail.com", new Profile("author")));
+		User reader = entityManager.persist(new User("reader@gmail.com", new Profile("reader")));
+		Tag java = entityManager.persist(new Tag("java"));
+		Tag spring = entityManager.persist(new Tag("spring"));
+
+		Article first = new Article("first", "desc", "body", Set.of(spring, java));
+		first.setAuthor(author);
+		entityManager.persist(first);
+		Article untagged = new Article("untagged", "desc", "body");
+		untagged.setAuthor(author);
+		entityManager.persist(untagged);
+		Article last = new Article("last", "desc", "body", Set.of(java));
+		last.setAuthor(reader);
+		entityManager.persist(last);
+
+		for (String body : List.of("one", "two")) {
+			Comment comment = new Comment(body);
+			comment.setArticle(last);
+			comment.setAuthor(reader);
+			entityManager.persist(comment);
+		}
+		entityManager.flush();
+	}
+
+	private List<JsonNode> export(boolean withComments) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		articleExportService.exportArticles(withComments, out);
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			assertThat(line).startsWith("{").endsWith("}");
+			lines.add(objectMapper.readTree(line));
+		}
+		return lines;
+	}
+
+	@Test
+	void testExportWritesOneLinePerArticleWithTags() throws Exception {
+		List<JsonNode> lines = export(false);
+
+		assertThat(lines).extracting(line -> line.get("slug").asText()).containsExactly("first", "untagged", "last");
+		assertThat(lines.get(0).get("tagList").toString()).isEqualTo("[\"java\",\"spring\"]");
+		assertThat(lines.get(1).get("tagList").size()).isZero();
+		assertThat(lines.get(2).get("tagList").toString()).isEqualTo("[\"java\"]");
+		assertThat(lines.get(2).get("author").asText()).isEqualTo("reader");
+		assertThat(lines.get(0).has("comments")).isFalse();
+	}
+
+	@Test
+	void testExportWithComments() throws Exception {
+		List<JsonNode> lines = export(true);
+
+		assertThat(lines.get(0).get("comments").size()).isZero();
+		assertThat(lines.get(2).get("comments")).extracting(comment -> comment.get("body").asText()).containsExactly("one", "two");
+		assertThat(lines.get(2).get("comments").get(0).get("author").asText()).isEqualTo("reader");
+	}
+}
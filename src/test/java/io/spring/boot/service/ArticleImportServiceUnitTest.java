@@ -0,0 +1,175 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.spring.boot.dto.ArticleImportReportDTO;
+import io.spring.boot.dto.ArticleImportReportDTO.LineError;
+import io.spring.boot.entity.Tag;
+import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.TagRepository;
+import io.spring.boot.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleImportServiceUnitTest {
+
+	@Mock
+	private ArticleRepository articleRepository;
+	@Mock
+	private TagRepository tagRepository;
+	@Mock
+	private UserRepository userRepository;
+	@Mock
+	private TagService tagService;
+	@Mock
+	private ArticleSlugService slugService;
+	@Mock
+	private EntityManager entityManager;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private ArticleImportService articleImportService;
+
+	@BeforeEach
+	void setUp() {
+		articleImportService = new ArticleImportService(articleRepository, tagRepository, userRepository, tagService,
+				slugService, entityManager, Jackson2ObjectMapperBuilder.json().build(), eventPublisher,
+				transactionManager, 2, 10, 100);
+	}
+
+	private ArticleImportReportDTO importLines(String... lines) throws IOException {
+		byte[] ndjson = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+		return articleImportService.importArticles(1L, new ByteArrayInputStream(ndjson));
+	}
+
+	@Test
+	void testImportCommitsInChunks() throws IOException {
+		ArticleImportReportDTO report = importLines(
+				"{\"title\":\"one\",\"description\":\"d\",\"body\":\"b\"}",
+				"{\"title\":\"two\",\"description\":\"d\",\"body\":\"b\"}",
+				"",
+				"{\"title\":\"three\",\"description\":\"d\",\"body\":\"b\"}");
+
+		assertThat(report.lines()).isEqualTo(4);
+		assertThat(report.imported()).isEqualTo(3);
+		assertThat(report.failed()).isZero();
+		verify(articleRepository, times(2)).saveAll(anyList());
+		verify(entityManager, times(2)).clear();
+	}
+
+	@Test
+	void testImportReportsInvalidLines() throws IOException {
+		ArticleImportReportDTO report = importLines(
+				"{\"title\":\"one\",\"description\":\"d\",\"body\":\"b\"}",
+				"{\"title\":",
+				"{\"title\":\"three\",\"description\":\"d\",\"body\":\" \"}");
+
+		assertThat(report.imported()).isEqualTo(1);
+		assertThat(report.failed()).isEqualTo(2);
+		assertThat(report.errors()).containsExactly(
+				new LineError(2, "Malformed JSON"),
+				new LineError(3, "Body cannot be null or empty"));
+	}
+
+	@Test
+	void testImportRejectsLinesThatAreNotArticles() throws IOException {
+		ArticleImportReportDTO report = importLines(
+				"null",
+				"[1]",
+				"{\"title\":\"" + "t".repeat(100) + "\",\"description\":\"d\",\"body\":\"b\"}",
+				"{\"title\":\"four\",\"description\":\"d\",\"body\":\"b\"}");
+
+		assertThat(report.lines()).isEqualTo(4);
+		assertThat(report.imported()).isEqualTo(1);
+		assertThat(report.errors()).containsExactly(
+				new LineError(1, "Malformed JSON"),
+				new LineError(2, "Malformed JSON"),
+				new LineError(3, "Line exceeds 100 characters"));
+	}
+
+	@Test
+	void testImportResolvesEachTagOnce() throws IOException {
+		Tag java = new Tag(10L, "java");
+		given(tagService.findOrCreateTags(Set.of("java"))).willReturn(Set.of(java));
+		given(tagRepository.getReferenceById(10L)).willReturn(java);
+
+		ArticleImportReportDTO report = importLines(
+				"{\"title\":\"one\",\"description\":\"d\",\"body\":\"b\",\"tagList\":[\"java\"]}",
+				"{\"title\":\"two\",\"description\":\"d\",\"body\":\"b\",\"tagList\":[\" java \"]}",
+				"{\"title\":\"three\",\"description\":\"d\",\"body\":\"b\",\"tagList\":[\"java\"]}");
+
+		assertThat(report.imported()).isEqualTo(3);
+		verify(tagService, times(1)).findOrCreateTags(anyCollection());
+	}
+
+	@Test
+	void testImportCountsATagUseForEveryArticle() throws IOException {
+		TagSuggestionService suggestions = new TagSuggestionService(null, 10);
+		willAnswer(invocation -> {
+			if (invocation.getArgument(0) instanceof TagEvent event) {
+				suggestions.onTagEvent(event);
+			}
+			return null;
+		}).given(eventPublisher).publishEvent(any(Object.class));
+		given(tagService.findOrCreateTags(anyCollection())).willAnswer(invocation -> {
+			Collection<String> names = invocation.getArgument(0);
+			return names.stream().map(name -> new Tag((long) name.hashCode(), name)).collect(Collectors.toSet());
+		});
+		given(tagRepository.getReferenceById(anyLong())).willAnswer(invocation -> new Tag(invocation.getArgument(0), "tag"));
+
+		// java and jvm are known to the run's dictionary after the first chunk, their later uses must count all the same
+		importLines(
+				"{\"title\":\"one\",\"description\":\"d\",\"body\":\"b\",\"tagList\":[\"java\",\"jvm\"]}",
+				"{\"title\":\"two\",\"description\":\"d\",\"body\":\"b\",\"tagList\":[\"jvm\"]}",
+				"{\"title\":\"three\",\"description\":\"d\",\"body\":\"b\",\"tagList\":[\"java\",\"jvm\"]}",
+				"{\"title\":\"four\",\"description\":\"d\",\"body\":\"b\",\"tagList\":[\"javac\"]}");
+
+		// Weights jvm 3, java 2, javac 1
+		assertThat(suggestions.suggest("", 10)).containsExactly("jvm", "java", "javac");
+	}
+
+	@Test
+	void testImportReplaysFailedChunkLineByLine() throws IOException {
+		given(articleRepository.saveAll(anyList()))
+				.willThrow(new DataIntegrityViolationException("duplicate title"))
+				.willAnswer(invocation -> invocation.getArgument(0))
+				.willThrow(new DataIntegrityViolationException("duplicate title"));
+
+		ArticleImportReportDTO report = importLines(
+				"{\"title\":\"new\",\"description\":\"d\",\"body\":\"b\"}",
+				"{\"title\":\"existing\",\"description\":\"d\",\"body\":\"b\"}");
+
+		assertThat(report.imported()).isEqualTo(1);
+		assertThat(report.failed()).isEqualTo(1);
+		assertThat(report.errors()).extracting(LineError::line).containsExactly(2L);
+		verify(articleRepository, times(3)).saveAll(anyList());
+	}
+
+}
@@ -0,0 +1,140 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.spring.boot.dto.SearchCursor;
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.User;
+import io.spring.boot.repository.ArticleRepository;
+
+// Indexes articles of the test database into a Lucene index in a temporary directory
+@DataJpaTest(showSql = false)
+@Transactional
+public class ArticleSearchServiceUnitTest {
+
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TestEntityManager entityManager;
+	@TempDir
+	private Path indexDir;
+
+	private ArticleSearchService searchService;
+	private User author;
+
+	@BeforeEach
+	void setUp() {
+		searchService = new ArticleSearchService(articleRepository, jdbcTemplate, indexDir.toString(), false);
+		author = entityManager.persist(new User("author@gmail.com", new Profile("author")));
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		searchService.close();
+	}
+
+	private Article persist(String title, String description, String body) {
+		Article article = new Article(title, description, body);
+		article.setAuthor(author);
+		return entityManager.persist(article);
+	}
+
+	private static List<String> titles(ArticleSearchService.Hits hits) {
+		return hits.articles().stream().map(Article::getTitle).toList();
+	}
+
+	@Test
+	void rebuildIndexesTheDatabaseAndRanksTitleMatchesFirst() {
+		persist("Notes on gardening", "Roses and tulips", "Mind the dragon in the shed");
+		persist("Here be dragons", "A map", "Unknown lands");
+		persist("Cooking pasta", "Water and salt", "Boil it");
+		entityManager.flush();
+
+		assertThat(searchService.rebuild()).isEqualTo(3);
+
+		ArticleSearchService.Hits hits = searchService.search("dragons", null, 20);
+		assertThat(titles(hits)).containsExactly("Here be dragons", "Notes on gardening");
+		assertThat(hits.total()).isEqualTo(2);
+		assertThat(hits.next()).isNull();
+		assertThat(titles(searchService.search("dragon pasta", null, 20))).isEmpty();
+	}
+
+	@Test
+	void eventsKeepTheIndexCurrent() {
+		Article article = persist("Spring tips", "Beans", "Constructor injection");
+		entityManager.flush();
+
+		searchService.onArticleEvent(ArticleEvent.saved(article));
+		assertThat(titles(searchService.search("injection", null, 20))).containsExactly("Spring tips");
+
+		article.setBody("Field injection is gone, setters too");
+		article.setTitle("Spring advice");
+		searchService.onArticleEvent(ArticleEvent.saved(article));
+		assertThat(titles(searchService.search("constructor", null, 20))).isEmpty();
+		assertThat(titles(searchService.search("setters", null, 20))).containsExactly("Spring advice");
+
+		searchService.onArticleEvent(ArticleEvent.deleted(article.getId()));
+		assertThat(searchService.search("setters", null, 20).total()).isZero();
+	}
+
+	@Test
+	void cursorPagesThroughEveryHitOnce() {
+		for (int i = 0; i < 25; i++) {
+			persist("Kotlin " + i, "Part " + i, i % 2 == 0 ? "kotlin kotlin coroutines" : "coroutines");
+		}
+		entityManager.flush();
+		searchService.rebuild();
+
+		Set<String> seen = new HashSet<>();
+		List<Integer> pageSizes = new ArrayList<>();
+		SearchCursor cursor = null;
+		do {
+			ArticleSearchService.Hits hits = searchService.search("coroutines", cursor, 10);
+			assertThat(hits.total()).isEqualTo(25);
+			hits.articles().forEach(a -> assertThat(seen.add(a.getTitle())).isTrue());
+			pageSizes.add(hits.articles().size());
+			cursor = hits.next() == null ? null : SearchCursor.decode(hits.next().encode());
+		} while (cursor != null);
+
+		assertThat(seen).hasSize(25);
+		assertThat(pageSizes).containsExactly(10, 10, 5);
+	}
+
+	@Test
+	void hitsWithoutArticleArePruned() {
+		// An article removed without an event, e.g. with its author's account
+		searchService.onArticleEvent(new ArticleEvent(ArticleEvent.Type.SAVED, 9_999L, "Ghost", "Gone", "Deleted in bulk", Set.of()));
+
+		ArticleSearchService.Hits hits = searchService.search("ghost", null, 20);
+		assertThat(hits.articles()).isEmpty();
+		assertThat(hits.total()).isZero();
+		assertThat(searchService.search("ghost", null, 20).total()).isZero();
+	}
+
+	@Test
+	void blankQueryIsRejected() {
+		assertThatThrownBy(() -> searchService.search(" ", null, 20)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> searchService.search("java", null, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -1,15 +1,29 @@
 package io.spring.boot.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,17 +31,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 
 import io.spring.boot.dto.ArticlePutRequestDTO;
+import io.spring.boot.dto.FieldSet;
+import io.spring.boot.dto.MultipleArticlesResponseDTO;
 import io.spring.boot.entity.Article;
 import io.spring.boot.entity.Profile;
 import io.spring.boot.entity.User;
 import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.ArticleRepository.ArticleVersion;
+import io.spring.boot.repository.ArticleRepository.FavoritesCount;
 import io.spring.boot.repository.UserRepository;
+import jakarta.persistence.Tuple;
 
 @ExtendWith(MockitoExtension.class)
 public class ArticleServiceUnitTest {
@@ -36,6 +58,12 @@ public class ArticleServiceUnitTest {
 	private ArticleRepository articleRepository;
 	@Mock
     private UserRepository userRepository;
+	@Mock
+	private FavoriteWriteBehindBuffer favoriteBuffer;
+	@Mock
+	private ArticleSlugService slugService;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
 	
 	@InjectMocks
 	private ArticleService articleService;
@@ -55,16 +83,19 @@ public class ArticleServiceUnitTest {
 	@Test
 	void testSaveArticle() {
 		// precondition
+        given(slugService.uniqueSlug("title", null)).willReturn("title-2");
         given(articleRepository.save(article)).willReturn(article);
 		
 		// action
 		Article result = articleService.saveArticle(article);
 		
-		// verify
+		// verify: the slug taken by another article got a suffix
 		assertThat(result).isNotNull();
+		assertThat(result.getSlug()).isEqualTo("title-2");
 		assertThat(result.getTitle()).isEqualTo("title");
 		assertThat(result.getBody()).isEqualTo("body");
 		verify(articleRepository).save(article);
+		verify(eventPublisher).publishEvent(ArticleEvent.saved(article));
 	}
 	
 	@Test
@@ -85,54 +116,106 @@ public class ArticleServiceUnitTest {
 	@Test
 	void testUpdateArticle() {
 		// Given
-	    Article existingArticle = new Article(3L, "title", "description", "body");
-	    existingArticle.setAuthor(author); // Set author to match updateArticle behavior
-	    ArticlePutRequestDTO request = new ArticlePutRequestDTO("title2", "description2", "body2");
+	    Article updatedArticle = new Article(3L, "title2", "description2", "body2");
+	    ArticlePutRequestDTO request = new ArticlePutRequestDTO("title2", "description2", " ");
 
-	    given(articleRepository.findBySlug("title2")).willReturn(Optional.of(existingArticle));
-	    given(articleRepository.save(existingArticle)).willAnswer(invocation -> {
-	        Article article = invocation.getArgument(0);
-	        article.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC)); // Simulate repository save behavior
-	        return article;
-	    });
+	    given(slugService.uniqueSlug("title2", "title")).willReturn("title2");
+	    given(articleRepository.updateIfOwnedAndCurrent(eq("title"), eq(1L), eq(4L), eq("title2"), eq("title2"),
+	    		eq("description2"), isNull(), any(OffsetDateTime.class))).willReturn(1);
+	    given(articleRepository.findBySlug("title2")).willReturn(Optional.of(updatedArticle));
 
 	    // When
-	    Article result = articleService.updateArticle("title2", request);
+	    Article result = articleService.updateArticle(1L, "title", request, 4L);
+
+	    // Then: one conditional update, the article is read back under its new slug and the old one redirects
+	    assertThat(result).isSameAs(updatedArticle);
+	    verify(articleRepository, never()).save(any(Article.class));
+	    verify(slugService).recordRedirect("title", updatedArticle);
+	}
+	
+	@Test
+	void testUpdateArticleRejections() {
+		// Given
+		ArticlePutRequestDTO request = new ArticlePutRequestDTO(null, null, "body2");
+		given(articleRepository.updateIfOwnedAndCurrent(any(), any(), any(), any(), any(), any(), any(), any())).willReturn(0);
+		given(articleRepository.findVersionBySlug("title")).willReturn(Optional.of(articleVersion(1L, 1L, 5L)));
+		given(articleRepository.findVersionBySlug("missing")).willReturn(Optional.empty());
+
+		// Then: the reason is only looked up once the update matched nothing
+		assertThatThrownBy(() -> articleService.updateArticle(1L, "title", request, 4L))
+			.isInstanceOf(OptimisticLockingFailureException.class);
+		assertThatThrownBy(() -> articleService.updateArticle(2L, "title", request, 5L))
+			.isInstanceOf(AccessDeniedException.class);
+		assertThatThrownBy(() -> articleService.updateArticle(1L, "missing", request, null))
+			.isInstanceOf(NoSuchElementException.class);
+	}
+	
+	@Test
+	void testDeleteArticle() {
+		// Given
+		given(articleRepository.findVersionBySlug("title")).willReturn(Optional.of(articleVersion(1L, 1L, 5L)));
+
+		// Then
+		assertThatThrownBy(() -> articleService.deleteArticle(1L, "title", 4L))
+			.isInstanceOf(OptimisticLockingFailureException.class);
+		assertThatThrownBy(() -> articleService.deleteArticle(2L, "title", null))
+			.isInstanceOf(AccessDeniedException.class);
+		given(articleRepository.deleteArticleRow(1L, 5L)).willReturn(1);
+		articleService.deleteArticle(1L, "title", 5L);
+		verify(articleRepository).deleteCommentsOfArticles(List.of(1L));
+		verify(articleRepository).deleteFavoritesOfArticles(List.of(1L));
+		verify(articleRepository).deleteTagLinksOfArticles(List.of(1L));
+		verify(articleRepository, never()).deleteById(1L);
+		verify(eventPublisher).publishEvent(ArticleEvent.deleted(1L));
+	}
+	
+	@Test
+	void testDeleteArticleEditedConcurrently() {
+		// Given: the version read is no longer current when the article row is deleted
+		given(articleRepository.findVersionBySlug("title")).willReturn(Optional.of(articleVersion(1L, 1L, 5L)));
+		given(articleRepository.deleteArticleRow(1L, 5L)).willReturn(0);
 
-	    // Then
-	    assertThat(result.getUpdatedAt()).isNotNull();
-	    verify(articleRepository).findBySlug("title2");
-	    verify(articleRepository).save(existingArticle);
+		// Then: the transaction rolls back the child deletes
+		assertThatThrownBy(() -> articleService.deleteArticle(1L, "title", null))
+			.isInstanceOf(OptimisticLockingFailureException.class);
 	}
 	
+	private static ArticleVersion articleVersion(Long id, Long authorId, Long version) {
+		return new ArticleVersion() {
+			public Long getId() { return id; }
+			public Long getAuthorId() { return authorId; }
+			public Long getVersion() { return version; }
+		};
+	}
 	
 	@Test
 	void testDeleteById() {
 		// precondition
 		given(articleRepository.existsById(1L)).willReturn(true);
-		willDoNothing().given(articleRepository).deleteById(1L);
+		given(articleRepository.deleteArticleRow(1L, null)).willReturn(1);
 		
 		// action
 		articleService.deleteArticleById(1L);
 		
 		// verify
 		verify(articleRepository).existsById(1L);
-		verify(articleRepository).deleteById(1L);
+		verify(articleRepository).deleteCommentsOfArticles(List.of(1L));
+		verify(articleRepository).deleteArticleRow(1L, null);
 	}
 	
 	@Test
 	void testDeleteBySlug() {
 	    // precondition
 	    String slug = "test-slug";
-	    given(articleRepository.existsBySlug(slug)).willReturn(true);
-	    willDoNothing().given(articleRepository).deleteBySlug(slug);
+	    given(articleRepository.findVersionBySlug(slug)).willReturn(Optional.of(articleVersion(1L, 1L, 5L)));
+	    given(articleRepository.deleteArticleRow(1L, null)).willReturn(1);
 
 	    // action
 	    articleService.deleteByArticleSlug(slug);
 
 	    // verify
-	    verify(articleRepository).existsBySlug(slug);
-	    verify(articleRepository).deleteBySlug(slug);
+	    verify(articleRepository).deleteTagLinksOfArticles(List.of(1L));
+	    verify(articleRepository).deleteArticleRow(1L, null);
 	}
 	
 	@Test
@@ -231,6 +314,7 @@ public class ArticleServiceUnitTest {
 		verify(userRepository).findById(follower.getId());
 		verify(articleRepository).findBySlug(slug2);
 		verify(articleRepository).save(article2);
+		verify(eventPublisher).publishEvent(ArticleActivityEvent.favorited(2L, follower.getId(), true));
 	}
 	
 	@Test
@@ -254,6 +338,181 @@ public class ArticleServiceUnitTest {
 		verify(userRepository).findById(follower.getId());
 		verify(articleRepository).findBySlug(slug2);
 		verify(articleRepository).save(article2);
+		verify(eventPublisher).publishEvent(ArticleActivityEvent.favorited(2L, follower.getId(), false));
+	}
+	
+	@Test
+	void testFavoriteArticleWriteBehind() {
+		// precondition: 4 saved favorites, the lazy collection must stay untouched
+		@SuppressWarnings("unchecked")
+		Set<User> favoritedBy = mock(Set.class);
+		Article article2 = new Article(2L, "title2", "description2", "body2");
+		article2.setFavoritedBy(favoritedBy);
+		given(favoriteBuffer.isEnabled()).willReturn(true);
+		given(userRepository.existsById(follower.getId())).willReturn(true);
+		given(articleRepository.findBySlug("title2")).willReturn(Optional.of(article2));
+		given(favoriteBuffer.toggle(eq(follower.getId()), eq(2L), eq(true), any()))
+				.willAnswer(invocation -> !invocation.<BooleanSupplier>getArgument(3).getAsBoolean());
+		given(articleRepository.isFavoritedBy(2L, follower.getId())).willReturn(false);
+		given(articleRepository.countFavoritesOf(2L, follower.getId())).willReturn(favoritesCount(4, 0));
+		
+		// action
+		Article result = articleService.favoriteArticle(follower.getId(), "title2");
+		
+		// verify: nothing written, the response already shows the buffered favorite
+		assertThat(result.isFavoritedBy(follower.getId())).isTrue();
+		assertThat(result.getFavoritedCount()).isEqualTo(5);
+		verify(articleRepository).isFavoritedBy(2L, follower.getId());
+		verifyNoInteractions(favoritedBy);
+		verify(articleRepository, never()).save(any(Article.class));
+		verify(eventPublisher).publishEvent(ArticleActivityEvent.favorited(2L, follower.getId(), true));
+	}
+	
+	@Test
+	void testFavoriteArticleWriteBehindFlushedBeforeCount() {
+		// precondition: the scheduled flush commits the toggle before the count is read
+		Article article2 = new Article(2L, "title2", "description2", "body2");
+		given(favoriteBuffer.isEnabled()).willReturn(true);
+		given(userRepository.existsById(follower.getId())).willReturn(true);
+		given(articleRepository.findBySlug("title2")).willReturn(Optional.of(article2));
+		given(favoriteBuffer.toggle(eq(follower.getId()), eq(2L), eq(true), any()))
+				.willAnswer(invocation -> !invocation.<BooleanSupplier>getArgument(3).getAsBoolean());
+		given(articleRepository.isFavoritedBy(2L, follower.getId())).willReturn(false);
+		given(articleRepository.countFavoritesOf(2L, follower.getId())).willReturn(favoritesCount(5, 1));
+		
+		// action
+		Article result = articleService.favoriteArticle(follower.getId(), "title2");
+		
+		// verify: the committed favorite is in the count already, it is not added again
+		assertThat(result.isFavoritedBy(follower.getId())).isTrue();
+		assertThat(result.getFavoritedCount()).isEqualTo(5);
+	}
+	
+	private static FavoritesCount favoritesCount(long total, long byUser) {
+		return new FavoritesCount() {
+			@Override
+			public long getTotal() {
+				return total;
+			}
+			
+			@Override
+			public long getByUser() {
+				return byUser;
+			}
+		};
+	}
+	
+	@Test
+	void testFavoriteArticleWriteBehindAlreadyFavorited() {
+		// precondition
+		Article article2 = new Article(2L, "title2", "description2", "body2");
+		given(favoriteBuffer.isEnabled()).willReturn(true);
+		given(userRepository.existsById(follower.getId())).willReturn(true);
+		given(articleRepository.findBySlug("title2")).willReturn(Optional.of(article2));
+		given(favoriteBuffer.toggle(eq(follower.getId()), eq(2L), eq(true), any())).willReturn(false);
+		
+		// action & verify
+		assertThatThrownBy(() -> articleService.favoriteArticle(follower.getId(), "title2"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("User has already favorited this article");
+	}
+	
+	@Test
+	void testForEachArticleLoadsChunksInOrder() {
+		// precondition: 250 ids, the database returns each chunk in its own order and article 7 is gone
+		List<Long> ids = new ArrayList<>();
+		for (long id = 250; id > 0; id--) {
+			ids.add(id);
+		}
+		given(articleRepository.findAllById(any())).willAnswer(invocation -> {
+			List<Article> found = new ArrayList<>();
+			for (Long id : invocation.<List<Long>>getArgument(0)) {
+				if (id != 7) {
+					found.add(0, new Article(id, "title" + id, "description", "body"));
+				}
+			}
+			return found;
+		});
+		
+		// action
+		List<Integer> chunkSizes = new ArrayList<>();
+		List<Long> seen = new ArrayList<>();
+		articleService.forEachArticle(ids, chunk -> {
+			chunkSizes.add(chunk.size());
+			chunk.forEach(a -> seen.add(a.getId()));
+		});
+		
+		// verify: one query and one clear per chunk
+		assertThat(chunkSizes).containsExactly(100, 100, 49);
+		assertThat(seen).isEqualTo(ids.stream().filter(id -> id != 7).toList());
+		verify(articleRepository, times(3)).clear();
+	}
+	
+	@Test
+	void testApplyPendingFavorites() {
+		// precondition
+		Article article2 = new Article(2L, "title2", "description2", "body2");
+		article2.favoriteArticle(follower);
+		given(favoriteBuffer.isEnabled()).willReturn(true);
+		given(favoriteBuffer.pendingState(follower.getId(), 1L)).willReturn(null);
+		given(favoriteBuffer.pendingState(follower.getId(), 2L)).willReturn(false);
+		
+		// action
+		articleService.applyPendingFavorites(follower.getId(), List.of(article, article2));
+		
+		// verify: the unfavorite not flushed yet is visible to its author
+		assertThat(article.isFavoritedBy(follower.getId())).isFalse();
+		assertThat(article2.isFavoritedBy(follower.getId())).isFalse();
+		assertThat(article2.getFavoritedCount()).isZero();
+	}
+	
+	@Test
+	void testForEachArticleFields() {
+		// precondition: article 3 is gone, the viewer has a pending unfavorite of article 2
+		Tuple first = mock(Tuple.class);
+		given(first.get("id", Long.class)).willReturn(1L);
+		given(first.get("slug")).willReturn("first");
+		given(first.get("favoritesCount", Integer.class)).willReturn(0);
+		Tuple second = mock(Tuple.class);
+		given(second.get("id", Long.class)).willReturn(2L);
+		given(second.get("slug")).willReturn("second");
+		given(second.get("favoritesCount", Integer.class)).willReturn(4);
+		List<Long> ids = List.of(2L, 3L, 1L);
+		FieldSet fields = FieldSet.parse("slug,tagList,favorited,favoritesCount", MultipleArticlesResponseDTO.FIELDS);
+		given(articleRepository.findFields(ids, fields.names())).willReturn(List.of(first, second));
+		given(articleRepository.findTagNamesOf(ids)).willReturn(List.of(new Object[] { 2L, "spring" }, new Object[] { 2L, "java" }));
+		given(articleRepository.findFavoritedIdsAmong(follower.getId(), ids)).willReturn(Set.of(2L));
+		given(favoriteBuffer.isEnabled()).willReturn(true);
+		given(favoriteBuffer.pendingState(follower.getId(), 2L)).willReturn(false);
+		
+		// action
+		List<Map<String, Object>> rows = new ArrayList<>();
+		articleService.forEachArticleFields(ids, fields, follower.getId(), rows::addAll);
+		
+		// verify: id order, fields in response order, no author lookup
+		assertThat(rows).hasSize(2);
+		assertThat(rows.get(0)).containsExactly(entry("slug", "second"), entry("tagList", List.of("java", "spring")),
+				entry("favorited", false), entry("favoritesCount", 3));
+		assertThat(rows.get(1)).containsExactly(entry("slug", "first"), entry("tagList", List.of()),
+				entry("favorited", false), entry("favoritesCount", 0));
+		verify(userRepository, never()).findFolloweeIdsAmong(any(), any());
+	}
+	
+	@Test
+	void testFindIdsBySlugs() {
+		// precondition
+		given(articleRepository.findIdsBySlugIn(List.of("a", "missing", "b")))
+				.willReturn(List.of(new Object[] { "b", 2L }, new Object[] { "a", 1L }));
+		List<String> tooMany = new ArrayList<>();
+		for (int i = 0; i <= ArticleService.MAX_SLUGS; i++) {
+			tooMany.add("slug-" + i);
+		}
+		
+		// action & verify: bounded, missing slugs are left out
+		assertThat(articleService.findIdsBySlugs(List.of("a", "missing", "b"))).containsOnly(entry("a", 1L), entry("b", 2L));
+		assertThatThrownBy(() -> articleService.findIdsBySlugs(tooMany)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> articleService.findIdsBySlugs(List.of())).isInstanceOf(IllegalArgumentException.class);
+		verify(articleRepository).findIdsBySlugIn(any());
 	}
 	
 }
@@ -0,0 +1,136 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.User;
+import io.spring.boot.repository.ArticleRepository;
+import io.spring.boot.repository.SlugRedirectRepository;
+
+// Runs the slug queries against the test database
+@DataJpaTest(showSql = false)
+@Transactional
+public class ArticleSlugServiceUnitTest {
+
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private SlugRedirectRepository slugRedirectRepository;
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private ArticleSlugService slugService;
+	private User author;
+
+	@BeforeEach
+	void setUp() {
+		slugService = new ArticleSlugService(articleRepository, slugRedirectRepository);
+		author = entityManager.persist(new User("author@gmail.com", new Profile("author")));
+	}
+
+	private Article persist(String title, String slug) {
+		Article article = new Article(title, "desc", "body");
+		article.setSlug(slug);
+		article.setAuthor(author);
+		return entityManager.persist(article);
+	}
+
+	@Test
+	void collidingTitlesGetTheNextFreeSuffix() {
+		persist("Hello World", "hello-world");
+		persist("Hello, World", "hello-world-2");
+		persist("Hello World Tour", "hello-world-tour");
+		entityManager.flush();
+
+		assertThat(slugService.uniqueSlug("Hello World!", null)).isEqualTo("hello-world-3");
+		assertThat(slugService.uniqueSlug("Another one", null)).isEqualTo("another-one");
+		assertThat(slugService.uniqueSlug("?!", null)).isEqualTo("article");
+	}
+
+	@Test
+	void onlyNumberedDuplicatesAreLookedUp() {
+		persist("Java", "java");
+		persist("Java!", "java-2");
+		persist("Java Streams", "java-streams");
+		persist("Java 2 3", "java-2-3");
+		entityManager.flush();
+
+		assertThat(articleRepository.findTakenSlugs("java", "java-%", "^java-[0-9]+$", null)).containsExactlyInAnyOrder("java", "java-2");
+		assertThat(slugService.uniqueSlug("Java?", null)).isEqualTo("java-3");
+	}
+
+	@Test
+	void renamedArticleKeepsItsOwnSlug() {
+		persist("Hello World", "hello-world");
+		entityManager.flush();
+
+		assertThat(slugService.uniqueSlug("Hello World!", "hello-world")).isEqualTo("hello-world");
+	}
+
+	@Test
+	void redirectsResolveAndStayReserved() {
+		Article article = persist("Old title", "new-title");
+		entityManager.flush();
+
+		slugService.recordRedirect("old-title", article);
+
+		assertThat(slugService.findRedirect("old-title")).contains("new-title");
+		assertThat(slugService.uniqueSlug("Old title", null)).isEqualTo("old-title-2");
+		// Only the renamed article may take its old slug back
+		assertThat(slugService.uniqueSlug("Old title", "new-title")).isEqualTo("old-title");
+	}
+
+	@Test
+	void takingBackAnOldSlugDropsItsRedirect() {
+		Article article = persist("Back again", "back-again");
+		entityManager.flush();
+		slugService.recordRedirect("first-title", article);
+		slugService.recordRedirect("back-again-old", article);
+
+		article.setSlug("first-title");
+		entityManager.flush();
+		slugService.recordRedirect("back-again", article);
+
+		assertThat(slugService.findRedirect("first-title")).isEmpty();
+		assertThat(slugService.findRedirect("back-again")).contains("first-title");
+	}
+
+	@Test
+	void redirectsGoWithTheArticle() {
+		Article article = persist("Gone", "gone");
+		entityManager.flush();
+		slugService.recordRedirect("was-here", article);
+
+		articleRepository.deleteArticleRow(article.getId(), null);
+
+		assertThat(slugRedirectRepository.count()).isZero();
+	}
+
+	@Test
+	void batchGetsDistinctSlugs() {
+		persist("Batch", "batch");
+		entityManager.flush();
+		List<Article> articles = List.of(new Article("Batch!", "d", "b"), new Article("Batch?", "d", "b"), new Article("Solo", "d", "b"));
+
+		slugService.assignUniqueSlugs(articles);
+
+		assertThat(articles).extracting(Article::getSlug).containsExactly("batch-2", "batch-3", "solo");
+	}
+
+	@Test
+	void nextFree() {
+		assertThat(ArticleSlugService.nextFree("a", Set.of())).isEqualTo("a");
+		assertThat(ArticleSlugService.nextFree("a", Set.of("a", "a-2", "a-4"))).isEqualTo("a-3");
+	}
+}
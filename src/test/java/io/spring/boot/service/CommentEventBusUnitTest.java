@@ -0,0 +1,111 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.spring.boot.dto.CommentResponseDTO;
+import io.spring.boot.entity.Comment;
+import io.spring.boot.entity.Profile;
+
+public class CommentEventBusUnitTest {
+
+	private ExecutorService dispatcher;
+	private CommentEventBus eventBus;
+	private CommentResponseDTO comment;
+	
+	@BeforeEach
+	void setup() {
+		// A single thread that stays busy stands in for a slow client: queued events are never drained
+		dispatcher = Executors.newSingleThreadExecutor();
+		dispatcher.execute(() -> {
+			try {
+				Thread.sleep(Long.MAX_VALUE);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		eventBus = new CommentEventBus(new ObjectMapper().registerModule(new JavaTimeModule()), 2, Duration.ofMinutes(1), dispatcher);
+		comment = new CommentResponseDTO(new Comment(1L, "comment"), new Profile("username"), false);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		eventBus.shutdown();
+	}
+	
+	@Test
+	public void subscribeTest() {
+		eventBus.subscribe("title");
+		eventBus.subscribe("title");
+		
+		assertThat(eventBus.subscriberCount("title")).isEqualTo(2);
+		assertThat(eventBus.subscriberCount("other")).isZero();
+	}
+	
+	@Test
+	public void publishWithinBufferTest() {
+		eventBus.subscribe("title");
+		
+		eventBus.onCommentEvent(CommentEvent.created("title", comment));
+		eventBus.onCommentEvent(CommentEvent.deleted("title", 1L));
+		
+		assertThat(eventBus.subscriberCount("title")).isEqualTo(1);
+	}
+	
+	@Test
+	public void slowConsumerEvictionTest() {
+		eventBus.subscribe("title");
+		
+		// Buffer size is 2, the third pending event evicts the subscriber
+		eventBus.onCommentEvent(CommentEvent.created("title", comment));
+		eventBus.onCommentEvent(CommentEvent.created("title", comment));
+		eventBus.onCommentEvent(CommentEvent.created("title", comment));
+		
+		assertThat(eventBus.subscriberCount("title")).isZero();
+	}
+	
+	@Test
+	public void subscribeWhileLastSubscriberLeavesTest() throws Exception {
+		ExecutorService publisher = Executors.newSingleThreadExecutor();
+		AtomicBoolean subscribing = new AtomicBoolean(true);
+		List<SseEmitter> emitters = new ArrayList<>();
+		try {
+			// Every third event on a slug overflows its buffers and evicts the topic while subscribers keep joining it
+			Future<?> leaving = publisher.submit(() -> {
+				for (int i = 0; subscribing.get(); i++) {
+					eventBus.onCommentEvent(CommentEvent.deleted("title-" + i % 16, 1L));
+				}
+			});
+			for (int i = 0; i < 50000; i++) {
+				emitters.add(eventBus.subscribe("title-" + i % 16));
+			}
+			subscribing.set(false);
+			leaving.get();
+		} finally {
+			publisher.shutdownNow();
+		}
+		eventBus.shutdown();
+		
+		// Evicted and remaining subscribers are all completed by now, a lost one would still accept events
+		for (SseEmitter emitter : emitters) {
+			assertThatThrownBy(() -> emitter.send("event")).isInstanceOf(IllegalStateException.class);
+		}
+	}
+}
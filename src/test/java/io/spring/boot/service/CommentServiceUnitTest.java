@@ -1,12 +1,16 @@
 package io.spring.boot.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.ArgumentMatchers.any;
 
-import java.util.Set;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +18,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.access.AccessDeniedException;
 
+import io.spring.boot.dto.CommentCursor;
 import io.spring.boot.entity.Article;
 import io.spring.boot.entity.Comment;
 import io.spring.boot.entity.Profile;
@@ -28,6 +39,8 @@ public class CommentServiceUnitTest {
 	private CommentRepository commentRepository;
 	@Mock
 	private ArticleService articleService;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
 	
 	@InjectMocks
 	private CommentService commentService;
@@ -50,6 +63,7 @@ public class CommentServiceUnitTest {
 	
 	@Test
 	public void saveCommentTest() {
+		given(articleService.findArticleBySlug(article.getSlug())).willReturn(article);
 		given(commentRepository.save(any(Comment.class))).willReturn(comment);
 		
 		Comment result = commentService.createComment(author, article.getSlug(), article.getBody());
@@ -57,27 +71,74 @@ public class CommentServiceUnitTest {
 		assertThat(result).isNotNull();
 		assertThat(result.getBody()).isEqualTo("comment");
 		verify(commentRepository).save(any(Comment.class));
+		verify(articleService).adjustCommentsCount(article.getId(), 1);
+		verify(eventPublisher).publishEvent(any(CommentEvent.class));
+		verify(eventPublisher).publishEvent(ArticleActivityEvent.commented(article.getId()));
 	}
 	
 	@Test
 	public void deleteCommentTest() {
-        given(commentRepository.existsById(comment.getId())).willReturn(true);
+        given(commentRepository.findArticleIdById(comment.getId())).willReturn(Optional.of(7L));
         willDoNothing().given(commentRepository).deleteById(comment.getId());
 
         commentService.deleteCommentById(comment.getId());
 
-        verify(commentRepository).existsById(comment.getId());
+        verify(commentRepository).findArticleIdById(comment.getId());
         verify(commentRepository).deleteById(comment.getId());
+        verify(articleService).adjustCommentsCount(7L, -1);
+	}
+	
+	@Test
+	public void deleteOwnCommentTest() {
+		given(commentRepository.deleteOwnedComment(comment.getId(), "title", 1L)).willReturn(1);
+		
+		commentService.deleteComment(1L, "title", comment.getId());
+		
+		verify(articleService).adjustCommentsCountBySlug("title", -1);
+		verify(commentRepository, never()).existsByIdAndArticleSlug(comment.getId(), "title");
+		verify(eventPublisher).publishEvent(CommentEvent.deleted("title", comment.getId()));
+	}
+	
+	@Test
+	public void deleteCommentOfAnotherUserTest() {
+		given(commentRepository.deleteOwnedComment(comment.getId(), "title", 2L)).willReturn(0);
+		given(commentRepository.existsByIdAndArticleSlug(comment.getId(), "title")).willReturn(true);
+		
+		assertThatThrownBy(() -> commentService.deleteComment(2L, "title", comment.getId())).isInstanceOf(AccessDeniedException.class);
+		verify(articleService, never()).adjustCommentsCountBySlug("title", -1);
+	}
+	
+	@Test
+	public void deleteMissingCommentTest() {
+		given(commentRepository.deleteOwnedComment(99L, "title", 1L)).willReturn(0);
+		given(commentRepository.existsByIdAndArticleSlug(99L, "title")).willReturn(false);
+		
+		assertThatThrownBy(() -> commentService.deleteComment(1L, "title", 99L)).isInstanceOf(NoSuchElementException.class);
+	}
+	
+	@Test
+	public void findCommentsTest() {
+		Pageable pageable = PageRequest.of(0, 20);
+		given(commentRepository.findFirstPageBySlug(article.getSlug(), pageable)).willReturn(new SliceImpl<>(List.of(comment), pageable, false));
+		
+		Slice<Comment> result = commentService.findComments(article.getSlug(), null, 20);
+		
+		assertThat(result.getContent()).hasSize(1);
+		assertThat(result.getContent()).extracting(Comment::getBody).containsExactly("comment");
+        verify(commentRepository).findFirstPageBySlug(article.getSlug(), pageable);
 	}
 	
 	@Test
-	public void findAllCommentsTest() {
-		given(commentRepository.findBySlug(article.getSlug())).willReturn(Set.of(comment));
+	public void findCommentsWithCursorTest() {
+		CommentCursor cursor = CommentCursor.of(comment);
+		// The requested limit is capped at MAX_PAGE_SIZE
+		Pageable pageable = PageRequest.of(0, CommentService.MAX_PAGE_SIZE);
+		given(commentRepository.findPageBySlugBefore(article.getSlug(), cursor.createdAt(), cursor.id(), pageable))
+				.willReturn(new SliceImpl<>(List.of(), pageable, false));
 		
-		Set<Comment> result = commentService.findAllComments(article.getSlug());
+		Slice<Comment> result = commentService.findComments(article.getSlug(), cursor, 1000);
 		
-		assertThat(result).hasSize(1);
-		assertThat(result).extracting(Comment::getBody).containsExactlyInAnyOrder("comment");
-        verify(commentRepository).findBySlug(article.getSlug());
+		assertThat(result.getContent()).isEmpty();
+		verify(commentRepository).findPageBySlugBefore(article.getSlug(), cursor.createdAt(), cursor.id(), pageable);
 	}
 }
@@ -0,0 +1,90 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class FavoriteWriteBehindBufferUnitTest {
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private FavoriteWriteBehindBuffer buffer;
+
+	@BeforeEach
+	void setUp() {
+		buffer = new FavoriteWriteBehindBuffer(jdbcTemplate, transactionManager, true, 4);
+	}
+
+	@Test
+	void testToggleUsesPersistedStateOnlyWithoutPendingToggle() {
+		assertThat(buffer.toggle(1L, 10L, true, () -> true)).isFalse();
+		assertThat(buffer.toggle(1L, 10L, true, () -> false)).isTrue();
+		assertThat(buffer.toggle(1L, 10L, true, () -> false)).isFalse();	// buffered state wins over the database
+
+		assertThat(buffer.pendingState(1L, 10L)).isTrue();
+		assertThat(buffer.pendingState(2L, 10L)).isNull();
+	}
+
+	@Test
+	void testOpposingTogglesCancel() {
+		buffer.toggle(1L, 10L, true, () -> false);
+		buffer.toggle(1L, 10L, false, () -> false);
+
+		assertThat(buffer.pendingState(1L, 10L)).isNull();
+		assertThat(buffer.pendingCount()).isZero();
+
+		buffer.flush();
+		verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+	}
+
+	@Test
+	void testFlushWritesOneBatchPerStatement() {
+		buffer.toggle(1L, 10L, true, () -> false);
+		buffer.toggle(2L, 10L, true, () -> false);
+		buffer.toggle(3L, 11L, false, () -> true);
+
+		buffer.flush();
+
+		verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), argThat((List<Object[]> rows) -> rows.size() == 2));
+		verify(jdbcTemplate).batchUpdate(startsWith("DELETE"), argThat((List<Object[]> rows) ->
+				rows.size() == 1 && rows.get(0)[0].equals(11L) && rows.get(0)[1].equals(3L)));
+		assertThat(buffer.pendingCount()).isZero();
+		assertThat(buffer.pendingState(1L, 10L)).isNull();
+	}
+
+	@Test
+	void testFailedFlushKeepsTogglesForNextFlush() {
+		given(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList()))
+			.willThrow(new QueryTimeoutException("timeout"))
+			.willReturn(new int[] { 1 });
+		buffer.toggle(1L, 10L, true, () -> false);
+
+		buffer.flush();
+		assertThat(buffer.pendingState(1L, 10L)).isTrue();
+
+		buffer.flush();
+		verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT"), anyList());
+		assertThat(buffer.pendingCount()).isZero();
+	}
+}
@@ -0,0 +1,112 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class RelatedArticlesIndexUnitTest {
+
+	private static final long JAVA = 1, LUCENE = 2, COOKING = 3;
+
+	private static RelatedArticlesIndex loaded(int neighbours) {
+		RelatedArticlesIndex index = new RelatedArticlesIndex(neighbours, 100);
+		index.load(10, new long[] { JAVA, LUCENE });
+		index.load(11, new long[] { JAVA });
+		index.load(12, new long[] { JAVA });
+		index.load(13, new long[] { LUCENE });
+		index.load(14, new long[] { JAVA, JAVA });
+		index.load(15, new long[] { COOKING });
+		index.computeAll();
+		return index;
+	}
+
+	@Test
+	void testRareSharedTagsRankFirstThenNewest() {
+		RelatedArticlesIndex index = loaded(10);
+
+		assertThat(index.related(10, 10)).containsExactly(13, 14, 12, 11);
+		assertThat(index.related(10, 2)).containsExactly(13, 14);
+		assertThat(index.related(11, 10)).containsExactly(14, 12, 10);
+		assertThat(index.related(15, 10)).isEmpty();
+		assertThat(index.related(99, 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(6);
+	}
+
+	@Test
+	void testUpsertJoinsTheListsOfItsNeighbours() {
+		RelatedArticlesIndex index = loaded(2);
+
+		index.upsert(16, new long[] { LUCENE, COOKING });
+		assertThat(index.related(16, 10)).containsExactly(15, 13);
+		assertThat(index.related(13, 10)).containsExactly(16, 10);
+		assertThat(index.related(15, 10)).containsExactly(16);
+
+		// Retagged: computed again from its new tags
+		index.upsert(16, new long[] { COOKING });
+		assertThat(index.related(16, 10)).containsExactly(15);
+	}
+
+	@Test
+	void testRetagRanksLikeAFreshIndex() {
+		RelatedArticlesIndex index = new RelatedArticlesIndex(10, 100);
+		index.upsert(1, new long[] { 1, 2 });
+		index.upsert(2, new long[] { 1 });
+		index.upsert(3, new long[] { 2 });
+		index.upsert(4, new long[] { 4 });
+		index.upsert(5, new long[] { 5 });
+		index.upsert(6, new long[] { 6 });
+
+		// Tag 1 kept by the retag must still count once for article 2
+		index.upsert(2, new long[] { 1, 9 });
+		index.upsert(7, new long[] { 1, 2 });
+		RelatedArticlesIndex fresh = new RelatedArticlesIndex(10, 100);
+		for (long[] article : new long[][] { { 1, 1, 2 }, { 2, 1, 9 }, { 3, 2 }, { 4, 4 }, { 5, 5 }, { 6, 6 }, { 7, 1, 2 } }) {
+			fresh.upsert(article[0], Arrays.copyOfRange(article, 1, article.length));
+		}
+		assertThat(index.related(7, 10)).containsExactly(1, 3, 2).containsExactly(fresh.related(7, 10));
+
+		// Moved off tag 1, then back on it: dropped from the lists that held it, then listed once again
+		index.upsert(2, new long[] { 9 });
+		assertThat(index.related(1, 10)).doesNotContain(2);
+		assertThat(index.related(7, 10)).containsExactly(1, 3);
+		index.upsert(2, new long[] { 1 });
+		assertThat(index.related(7, 10)).containsExactly(1, 3, 2);
+		assertThat(index.related(2, 10)).containsExactly(7, 1);
+	}
+
+	@Test
+	void testRemoveRecomputesTheListsItWasIn() {
+		RelatedArticlesIndex index = loaded(2);
+		assertThat(index.related(13, 10)).containsExactly(10);
+
+		index.remove(10);
+		assertThat(index.related(13, 10)).isEmpty();
+		assertThat(index.related(11, 10)).containsExactly(14, 12);
+		assertThat(index.related(10, 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(5);
+
+		index.remove(10);
+		assertThat(index.size()).isEqualTo(5);
+	}
+
+	@Test
+	void testUpsertComputesTheSameListAsABulkLoad() {
+		Random random = new Random(42);
+		long[][] tags = new long[500][];
+		for (int i = 0; i < tags.length; i++) {
+			tags[i] = random.longs(1 + random.nextInt(4), 0, 40).toArray();
+		}
+		RelatedArticlesIndex incremental = new RelatedArticlesIndex(5, 1_000);
+		RelatedArticlesIndex bulk = new RelatedArticlesIndex(5, 1_000);
+		for (int i = 0; i < tags.length; i++) {
+			incremental.upsert(i, tags[i]);
+			bulk.load(i, tags[i]);
+		}
+		bulk.computeAll();
+
+		assertThat(incremental.related(tags.length - 1, 5)).containsExactly(bulk.related(tags.length - 1, 5));
+	}
+}
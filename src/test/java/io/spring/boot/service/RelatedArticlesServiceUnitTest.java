@@ -0,0 +1,106 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.Tag;
+import io.spring.boot.entity.User;
+import io.spring.boot.repository.ArticleRepository;
+
+// Builds the index from article_tags of the test database, with the worker running each task in the caller's thread
+@DataJpaTest(showSql = false)
+@Transactional
+public class RelatedArticlesServiceUnitTest {
+
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private RelatedArticlesService relatedArticlesService;
+	private User author;
+	private Tag java;
+	private Tag lucene;
+
+	@BeforeEach
+	void setUp() {
+		relatedArticlesService = new RelatedArticlesService(articleRepository, jdbcTemplate, 10, 100, Runnable::run);
+		author = entityManager.persist(new User("author@gmail.com", new Profile("author")));
+		java = entityManager.persist(new Tag("java"));
+		lucene = entityManager.persist(new Tag("lucene"));
+	}
+
+	private Article persist(String title, Tag... tags) {
+		Article article = new Article(title, "description", "body", new HashSet<>(Set.of(tags)));
+		article.setAuthor(author);
+		return entityManager.persist(article);
+	}
+
+	private List<String> related(String slug) {
+		return relatedArticlesService.findRelated(slug, 10).stream().map(Article::getTitle).toList();
+	}
+
+	@Test
+	void rebuildReadsTheTagsOfEveryArticle() {
+		Article search = persist("Search engines", java, lucene);
+		persist("Inverted indexes", lucene);
+		persist("Records", java);
+		persist("Sealed classes", java);
+		persist("No tags");
+		entityManager.flush();
+
+		assertThat(relatedArticlesService.rebuild()).isEqualTo(4);
+
+		// lucene is the rarer tag, so sharing it counts more
+		assertThat(related(search.getSlug())).containsExactly("Inverted indexes", "Sealed classes", "Records");
+		assertThat(related("no-tags")).isEmpty();
+		assertThatThrownBy(() -> related("missing")).isInstanceOf(NoSuchElementException.class);
+		assertThatThrownBy(() -> relatedArticlesService.findRelated(search.getSlug(), 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void eventsKeepTheIndexCurrent() {
+		Article search = persist("Search engines", java, lucene);
+		entityManager.flush();
+		relatedArticlesService.rebuild();
+
+		Article indexes = persist("Inverted indexes", lucene);
+		entityManager.flush();
+		relatedArticlesService.onArticleEvent(ArticleEvent.saved(indexes));
+		assertThat(related(search.getSlug())).containsExactly("Inverted indexes");
+
+		relatedArticlesService.onArticleEvent(ArticleEvent.deleted(indexes.getId()));
+		assertThat(related(search.getSlug())).isEmpty();
+	}
+
+	@Test
+	void articlesRemovedWithoutEventArePruned() {
+		Article search = persist("Search engines", lucene);
+		entityManager.flush();
+		relatedArticlesService.rebuild();
+		// An article removed without an event, e.g. with its author's account
+		relatedArticlesService.onArticleEvent(new ArticleEvent(ArticleEvent.Type.SAVED, 9_999L, "Ghost", "Gone", "Deleted in bulk",
+				Set.of(lucene.getId())));
+
+		assertThat(related(search.getSlug())).isEmpty();
+		relatedArticlesService.onArticleEvent(ArticleEvent.saved(persist("Inverted indexes", lucene)));
+		assertThat(related(search.getSlug())).containsExactly("Inverted indexes");
+	}
+}
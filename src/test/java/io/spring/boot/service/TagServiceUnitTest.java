@@ -1,9 +1,14 @@
 package io.spring.boot.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import io.spring.boot.entity.Tag;
 import io.spring.boot.repository.TagRepository;
@@ -20,6 +26,8 @@ public class TagServiceUnitTest {
 	
 	@Mock
 	private TagRepository tagRepository;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
 	
 	@InjectMocks
 	private TagService tagService;
@@ -40,6 +48,7 @@ public class TagServiceUnitTest {
 		
 		assertThat(result).isNotNull();
 		assertThat(result.getName()).isEqualTo("react");
+		verify(eventPublisher).publishEvent(new TagEvent(TagEvent.Type.CREATED, List.of("react")));
 	}
 	
 	@Test
@@ -52,4 +61,28 @@ public class TagServiceUnitTest {
 		assertThat(result).hasSize(3);
 		assertThat(result.stream().map(Tag::getName)).containsExactlyInAnyOrder("react", "angular", "vue");
 	}
+	
+	@Test
+	public void resolveTagsWithKnownTags() {
+		given(tagRepository.findByNameIn(Set.of("react", "vue"))).willReturn(List.of(new Tag(1L, "react"), new Tag(2L, "vue")));
+		
+		Set<Tag> result = tagService.resolveTags(List.of(" react", "vue", "react "));
+		
+		assertThat(result).extracting(Tag::getName).containsExactlyInAnyOrder("react", "vue");
+		verify(tagRepository, times(1)).findByNameIn(anyCollection());
+		verify(tagRepository, never()).insertMissing(anyCollection());
+		verify(eventPublisher).publishEvent(new TagEvent(TagEvent.Type.USED, Set.of("react", "vue")));
+	}
+	
+	@Test
+	public void resolveTagsInsertsMissingTagsOnly() {
+		given(tagRepository.findByNameIn(Set.of("react", "vue", "svelte"))).willReturn(List.of(new Tag(1L, "react")));
+		given(tagRepository.findByNameIn(Set.of("vue", "svelte"))).willReturn(List.of(new Tag(2L, "vue"), new Tag(3L, "svelte")));
+		
+		Set<Tag> result = tagService.resolveTags(List.of("react", "vue", "svelte"));
+		
+		assertThat(result).extracting(Tag::getName).containsExactlyInAnyOrder("react", "vue", "svelte");
+		verify(tagRepository).insertMissing(Set.of("vue", "svelte"));
+		verify(tagRepository, times(2)).findByNameIn(anyCollection());
+	}
 }
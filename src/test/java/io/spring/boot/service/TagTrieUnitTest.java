@@ -0,0 +1,72 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TagTrieUnitTest {
+
+	@Test
+	void testSuggestsMostUsedCompletionsFirst() {
+		TagTrie trie = TagTrie.of(Map.of("java", 50L, "javascript", 80L, "jakarta", 5L, "kotlin", 30L, "JavaFX", 7L), 3);
+
+		assertThat(trie.suggest("ja", 3)).containsExactly("javascript", "java", "JavaFX");
+		assertThat(trie.suggest("JAVA", 10)).containsExactly("javascript", "java", "JavaFX");
+		assertThat(trie.suggest("jak", 3)).containsExactly("jakarta");
+		assertThat(trie.suggest("", 2)).containsExactly("javascript", "java");
+		assertThat(trie.suggest("rust", 3)).isEmpty();
+	}
+
+	@Test
+	void testEqualWeightsAreAlphabetical() {
+		TagTrie trie = TagTrie.of(Map.of("spring", 1L, "spark", 1L, "sql", 1L), 10);
+
+		assertThat(trie.suggest("s", 10)).containsExactly("spark", "spring", "sql");
+	}
+
+	@Test
+	void testAddInsertsAndPromotes() {
+		TagTrie trie = TagTrie.of(Map.of("java", 2L, "javascript", 3L, "jakarta", 1L), 2);
+
+		trie.add("jazz", 0);
+		assertThat(trie.suggest("jaz", 2)).containsExactly("jazz");
+		assertThat(trie.suggest("ja", 2)).containsExactly("javascript", "java");
+
+		trie.add("jakarta", 1);
+		trie.add("jakarta", 1);
+		assertThat(trie.suggest("ja", 2)).containsExactly("jakarta", "javascript");
+		assertThat(trie.suggest("jav", 2)).containsExactly("javascript", "java");
+		assertThat(trie.size()).isEqualTo(4);
+	}
+
+	@Test
+	void testIncrementalUpdatesMatchARebuild() {
+		Random random = new Random(7);
+		TagTrie trie = new TagTrie(5);
+		Map<String, Long> weights = new HashMap<>();
+		for (int i = 0; i < 5_000; i++) {
+			String name = Integer.toString(random.nextInt(400), 36) + (random.nextBoolean() ? "x" : "");
+			long delta = random.nextInt(3);
+			trie.add(name, delta);
+			weights.merge(name, delta, Long::sum);
+		}
+
+		TagTrie rebuilt = TagTrie.of(weights, 5);
+		for (String prefix : List.of("", "1", "a", "b", "1a", "z", "9x")) {
+			List<String> expected = weights.entrySet().stream()
+					.filter(e -> e.getKey().startsWith(prefix))
+					.sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+					.limit(5)
+					.map(Map.Entry::getKey)
+					.toList();
+			assertThat(trie.suggest(prefix, 5)).as(prefix).isEqualTo(expected);
+			assertThat(rebuilt.suggest(prefix, 5)).as(prefix).isEqualTo(expected);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.spring.boot.entity.Article;
+import io.spring.boot.entity.Profile;
+import io.spring.boot.entity.User;
+import io.spring.boot.repository.ArticleRepository;
+
+// Scores saved to and loaded from article_trending_scores of the test database
+@DataJpaTest(showSql = false)
+@Transactional
+public class TrendingArticlesServiceUnitTest {
+
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private User author;
+
+	@BeforeEach
+	void setUp() {
+		author = entityManager.persist(new User("author@gmail.com", new Profile("author")));
+	}
+
+	private TrendingArticlesService newService() {
+		return new TrendingArticlesService(articleRepository, jdbcTemplate, transactionManager, Duration.ofHours(24), 0.5);
+	}
+
+	private Article persist(String title) {
+		Article article = new Article(title, "description", "body");
+		article.setAuthor(author);
+		return entityManager.persist(article);
+	}
+
+	private static List<String> titles(List<Article> articles) {
+		return articles.stream().map(Article::getTitle).toList();
+	}
+
+	@Test
+	void favoritesAndCommentsRankArticles() {
+		TrendingArticlesService trendingService = newService();
+		Article quiet = persist("Quiet");
+		Article busy = persist("Busy");
+		Article discussed = persist("Discussed");
+		entityManager.flush();
+
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(quiet.getId(), 1L, true));
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(busy.getId(), 1L, true));
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(busy.getId(), 2L, true));
+		trendingService.onActivityEvent(ArticleActivityEvent.commented(discussed.getId()));
+		trendingService.onActivityEvent(ArticleActivityEvent.commented(discussed.getId()));
+		trendingService.onActivityEvent(ArticleActivityEvent.commented(discussed.getId()));
+
+		assertThat(titles(trendingService.findTrending(10))).containsExactly("Busy", "Discussed", "Quiet");
+		assertThat(titles(trendingService.findTrending(1))).containsExactly("Busy");
+
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(quiet.getId(), 1L, false));
+		trendingService.onArticleEvent(ArticleEvent.deleted(busy.getId()));
+		assertThat(titles(trendingService.findTrending(10))).containsExactly("Discussed");
+		assertThatThrownBy(() -> trendingService.findTrending(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void withdrawingAnOldFavoriteTakesBackOnlyItsDecayedValue() {
+		TrendingArticlesService trendingService = newService();
+		Article popular = persist("Popular");
+		Article discussed = persist("Discussed");
+		entityManager.flush();
+		long now = System.currentTimeMillis();
+		long threeHalfLivesAgo = now - Duration.ofHours(72).toMillis();
+
+		// Popular: 0.125 left of an old favorite, then two new ones while the old one is withdrawn
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(popular.getId(), 1L, true), threeHalfLivesAgo);
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(popular.getId(), 2L, true), now);
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(popular.getId(), 1L, false), now);
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(popular.getId(), 3L, true), now);
+		// Discussed: 1.5
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(discussed.getId(), 1L, true), now);
+		trendingService.onActivityEvent(ArticleActivityEvent.commented(discussed.getId()), now);
+
+		// Popular keeps its two new points, a fresh point taken back would have left it 1.125
+		assertThat(titles(trendingService.findTrending(10))).containsExactly("Popular", "Discussed");
+	}
+
+	@Test
+	void savedScoresSurviveARestart() {
+		TrendingArticlesService trendingService = newService();
+		Article first = persist("First");
+		Article second = persist("Second");
+		entityManager.flush();
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(first.getId(), 1L, true));
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(second.getId(), 1L, true));
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(second.getId(), 2L, true));
+		// Activity on an article deleted since, without an event
+		trendingService.onActivityEvent(ArticleActivityEvent.favorited(9_999L, 1L, true));
+
+		assertThat(trendingService.persist()).isEqualTo(3);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM article_trending_scores", Long.class)).isEqualTo(2);
+
+		TrendingArticlesService restarted = newService();
+		restarted.load();
+		assertThat(titles(restarted.findTrending(10))).containsExactly("Second", "First");
+	}
+}
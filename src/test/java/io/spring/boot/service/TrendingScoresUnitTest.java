@@ -0,0 +1,85 @@
+package io.spring.boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class TrendingScoresUnitTest {
+
+	private static final long HOUR = 3_600_000;
+
+	@Test
+	void testPointsHalveEveryHalfLife() {
+		TrendingScores scores = new TrendingScores(HOUR, 10, 0);
+
+		scores.add(1, 4, 0);
+		assertThat(scores.score(1, 0)).isCloseTo(4, within(1e-9));
+		assertThat(scores.score(1, HOUR)).isCloseTo(2, within(1e-9));
+		assertThat(scores.score(1, 3 * HOUR)).isCloseTo(0.5, within(1e-9));
+		assertThat(scores.score(2, HOUR)).isZero();
+	}
+
+	@Test
+	void testRecentActivityOutranksOlderActivity() {
+		TrendingScores scores = new TrendingScores(HOUR, 10, 0);
+
+		scores.add(1, 3, 0);
+		scores.add(2, 1, 2 * HOUR);		// 3 points two half-lives ago are worth 0.75 now
+		scores.add(3, 1, 2 * HOUR);
+		assertThat(scores.top(10)).containsExactly(3L, 2L, 1L);
+
+		scores.add(2, -1, 2 * HOUR);
+		assertThat(scores.top(10)).containsExactly(3L, 1L);
+		assertThat(scores.size()).isEqualTo(2);
+		assertThat(scores.top(1)).containsExactly(3L);
+	}
+
+	@Test
+	void testRebaseKeepsRankingAndForgetsDecayedScores() {
+		TrendingScores scores = new TrendingScores(HOUR, 2, 0);
+		scores.add(1, 1, 0);
+		scores.add(2, 8, 0);
+		scores.add(3, 4, 0);
+		assertThat(scores.top(10)).containsExactly(2L, 3L);
+
+		// Withdrawing points leaves article 2 in the sorted set, the rebase puts article 1 back in its place
+		scores.add(2, -7.5, 0);
+		assertThat(scores.top(10)).containsExactly(3L, 2L);
+		assertThat(scores.rebase(2 * HOUR, 0.2)).containsOnlyKeys(1L, 3L);
+		assertThat(scores.top(10)).containsExactly(3L, 1L);
+		assertThat(scores.score(3, 2 * HOUR)).isCloseTo(1, within(1e-9));
+
+		scores.add(1, 1, 2 * HOUR);
+		assertThat(scores.top(10)).containsExactly(1L, 3L);
+	}
+
+	@Test
+	void testConcurrentUpdatesAreAllCounted() throws Exception {
+		TrendingScores scores = new TrendingScores(HOUR, 5, 0);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int thread = 0; thread < 4; thread++) {
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					scores.add(i % 20, i % 20, 0);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+
+		assertThat(scores.score(19, 0)).isCloseTo(19 * 4 * 500, within(1e-6));
+		assertThat(scores.top(10)).containsExactly(19L, 18L, 17L, 16L, 15L);
+	}
+}
@@ -1,19 +1,25 @@
 package io.spring.boot.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -135,36 +141,69 @@ public class UserServiceUnitTest {
 	    UserPutRequestDTO updatedUserDto = new UserPutRequestDTO("newname@gmail.com", "newname", "pw", "Space monkey", "https://zzz.com");
 
 	    // Precondition
-	    given(userRepository.findById(existingUser.getId())).willReturn(Optional.of(existingUser));
-	    given(userRepository.existsByEmail(updatedUserDto.getEmail())).willReturn(false);
+	    User updatedUser = new User(1L, "newname@gmail.com", new Profile("newname", "Space monkey", "https://zzz.com", false));
+	    given(userRepository.existsByEmailAndIdNot(updatedUserDto.getEmail(), 1L)).willReturn(false);
+	    given(userRepository.existsByProfileUsernameAndIdNot(updatedUserDto.getUsername(), 1L)).willReturn(false);
 	    given(passwordEncoder.encode(updatedUserDto.getPassword())).willReturn("encodedPassword"); // dummy encoded password
-	    given(userRepository.save(existingUser)).willReturn(existingUser);
+	    given(userRepository.updateChangedColumns(1L, "newname@gmail.com", "encodedPassword", "newname", "Space monkey", "https://zzz.com")).willReturn(1);
+	    given(userRepository.findById(existingUser.getId())).willReturn(Optional.of(updatedUser));
 
 	    // Action
 	    User result = userService.updateUser(existingUser.getId(), updatedUserDto);
 
-	    // Verify
+	    // Verify: one partial UPDATE, the user is only read back afterwards
 	    assertThat(result).isNotNull();
 	    assertThat(result.getEmail()).isEqualTo("newname@gmail.com");
 	    assertThat(result.getProfile().getUsername()).isEqualTo("newname");
-	    verify(userRepository).findById(existingUser.getId());
-	    verify(userRepository).existsByEmail(updatedUserDto.getEmail());
+	    verify(userRepository).existsByEmailAndIdNot(updatedUserDto.getEmail(), 1L);
 	    verify(passwordEncoder).encode(updatedUserDto.getPassword());
-	    verify(userRepository).save(existingUser);
+	    verify(userRepository, never()).save(any(User.class));
+	}
+	
+	@Test
+	void updateUserOnlyBio() {
+		// Precondition
+		UserPutRequestDTO dto = new UserPutRequestDTO(null, null, null, "New bio", null);
+		given(userRepository.updateChangedColumns(1L, null, null, null, "New bio", null)).willReturn(1);
+		given(userRepository.findById(1L)).willReturn(Optional.of(user));
+		
+		// Action
+		userService.updateUser(1L, dto);
+		
+		// Verify: no uniqueness lookups and no password hashing for fields that are absent
+		verify(userRepository, never()).existsByEmailAndIdNot(any(), any());
+		verify(userRepository, never()).existsByProfileUsernameAndIdNot(any(), any());
+		verify(passwordEncoder, never()).encode(any());
+	}
+	
+	@Test
+	void updateUserRejections() {
+		UserPutRequestDTO taken = new UserPutRequestDTO("taken@gmail.com", null, null, null, null);
+		given(userRepository.existsByEmailAndIdNot("taken@gmail.com", 1L)).willReturn(true);
+		UserPutRequestDTO bio = new UserPutRequestDTO(null, null, null, "bio", null);
+		given(userRepository.updateChangedColumns(9L, null, null, null, "bio", null)).willReturn(0);
+		
+		assertThatThrownBy(() -> userService.updateUser(1L, taken)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> userService.updateUser(9L, bio)).isInstanceOf(NoSuchElementException.class);
 	}
 	
 	@Test
 	void deleteUser() {
 		// precondition
 		given(userRepository.existsById(user.getId())).willReturn(true);
-		willDoNothing().given(userRepository).deleteById(user.getId());
 		
 		// action
 		userService.deleteUser(user.getId());
 		
-		// verify
-		verify(userRepository).existsById(user.getId());
-		verify(userRepository).deleteById(user.getId());
+		// verify: set-based statements, children before the user row, no entity delete
+		InOrder order = inOrder(userRepository);
+		order.verify(userRepository).discountCommentsOf(user.getId());
+		order.verify(userRepository).deleteCommentsOf(user.getId());
+		order.verify(userRepository).deleteCommentsOnArticlesOf(user.getId());
+		order.verify(userRepository).deleteArticlesOf(user.getId());
+		order.verify(userRepository).deleteFollowsOf(user.getId());
+		order.verify(userRepository).deleteUserRow(user.getId());
+		verify(userRepository, never()).deleteById(user.getId());
 	}
 	
 	@Test